@@ -0,0 +1,99 @@
+package faang.school.postservice.serializer;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import faang.school.postservice.dto.comment.CacheCommentDto;
+import faang.school.postservice.model.cache.PostCacheDto;
+import faang.school.postservice.serializer.codec.CacheCommentDtoCodec;
+import faang.school.postservice.serializer.codec.PostCacheDtoCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private BinaryRedisSerializer binarySerializer;
+    private GenericJackson2JsonRedisSerializer jsonSerializer;
+    private PostCacheDto post;
+    private byte[] binaryPost;
+    private byte[] jsonPost;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        objectMapper.activateDefaultTyping(objectMapper.getPolymorphicTypeValidator(),
+                ObjectMapper.DefaultTyping.EVERYTHING, JsonTypeInfo.As.PROPERTY);
+        jsonSerializer = new GenericJackson2JsonRedisSerializer(objectMapper);
+
+        CacheCommentDtoCodec commentCodec = new CacheCommentDtoCodec();
+        BinaryCodecRegistry codecRegistry = new BinaryCodecRegistry(
+                List.of(commentCodec, new PostCacheDtoCodec(commentCodec)));
+        binarySerializer = new BinaryRedisSerializer(codecRegistry, jsonSerializer, SerializationFormat.BINARY);
+
+        LinkedHashSet<CacheCommentDto> comments = new LinkedHashSet<>();
+        for (long i = 1; i <= 3; i++) {
+            comments.add(CacheCommentDto.builder()
+                    .commentId(i)
+                    .authorId(1000 + i)
+                    .postId(1L)
+                    .content("Comment number " + i)
+                    .likesCount(i)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        post = PostCacheDto.builder()
+                .postId(1L)
+                .authorId(42L)
+                .content("Benchmark post content ".repeat(10))
+                .likesCount(1500)
+                .commentsCount(3)
+                .postViewsCount(100_000)
+                .publishedAt(LocalDateTime.now())
+                .comments(comments)
+                .build();
+
+        binaryPost = binarySerializer.serialize(post);
+        jsonPost = jsonSerializer.serialize(post);
+        System.out.printf("%nPayload size: binary=%d bytes, json=%d bytes%n", binaryPost.length, jsonPost.length);
+    }
+
+    @Benchmark
+    public byte[] serializeBinary() {
+        return binarySerializer.serialize(post);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return jsonSerializer.serialize(post);
+    }
+
+    @Benchmark
+    public Object deserializeBinary() {
+        return binarySerializer.deserialize(binaryPost);
+    }
+
+    @Benchmark
+    public Object deserializeJson() {
+        return jsonSerializer.deserialize(jsonPost);
+    }
+}
@@ -0,0 +1,110 @@
+package faang.school.postservice.service.feed;
+
+import faang.school.postservice.util.DeltaVarintCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FanOutBenchmark {
+
+    private static final int CORE_POOL_SIZE = 50;
+    private static final int MAX_POOL_SIZE = 100;
+    private static final int QUEUE_CAPACITY = 500;
+    private static final long PER_KEY_NANOS = 500;
+
+    @Param({"1000", "10000"})
+    private int followersCount;
+
+    @Param({"200"})
+    private int fanOutBatchSize;
+
+    @Param({"200"})
+    private long roundTripMicros;
+
+    @Param({"10"})
+    private int userCacheMissPercent;
+
+    private ThreadPoolExecutor newsFeedTaskExecutor;
+    private byte[] encodedFollowersIds;
+
+    @Setup
+    public void setUp() {
+        newsFeedTaskExecutor = new ThreadPoolExecutor(CORE_POOL_SIZE, MAX_POOL_SIZE, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), new ThreadPoolExecutor.CallerRunsPolicy());
+        encodedFollowersIds = DeltaVarintCodec.encode(LongStream.rangeClosed(1, followersCount).toArray());
+    }
+
+    @TearDown
+    public void tearDown() {
+        newsFeedTaskExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public void perFollower() {
+        long[] followersIds = DeltaVarintCodec.decode(encodedFollowersIds);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(followersIds.length);
+        for (long followerId : followersIds) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                roundTrip(1);
+                if (isMissedInCache(followerId)) {
+                    roundTrip(1);
+                }
+                roundTrip(1);
+                roundTrip(1);
+            }, newsFeedTaskExecutor));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    }
+
+    @Benchmark
+    public void chunked() {
+        long[] followersIds = DeltaVarintCodec.decode(encodedFollowersIds);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < followersIds.length; i += fanOutBatchSize) {
+            long[] batch = Arrays.copyOfRange(followersIds, i, Math.min(i + fanOutBatchSize, followersIds.length));
+            futures.add(CompletableFuture.runAsync(() -> {
+                roundTrip(batch.length);
+                roundTrip(batch.length);
+                int missedInCache = (int) Arrays.stream(batch).filter(this::isMissedInCache).count();
+                if (missedInCache > 0) {
+                    roundTrip(missedInCache);
+                }
+                roundTrip(batch.length);
+            }, newsFeedTaskExecutor));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    }
+
+    private boolean isMissedInCache(long followerId) {
+        return followerId % 100 < userCacheMissPercent;
+    }
+
+    private void roundTrip(int keys) {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(roundTripMicros) + PER_KEY_NANOS * keys);
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
 import java.util.List;
+import java.util.Map;
 
 @FeignClient(name = "user-service", url = "${user-service.host}:${user-service.port}${user-service.path}")
 public interface UserServiceClient {
@@ -39,4 +40,7 @@ public interface UserServiceClient {
 
     @GetMapping("/subscriptions/ids/{followerId}")
     List<Long> getFolloweesIds(@PathVariable Long followerId);
+
+    @PostMapping("/subscriptions/ids/by-followers")
+    Map<Long, List<Long>> getFolloweesIdsByFollowersIds(@RequestBody List<Long> followersIds);
 }
@@ -7,6 +7,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @RequiredArgsConstructor
@@ -43,6 +44,19 @@ public class ThreadPoolConfig {
         executor.setMaxPoolSize(props.getNewsFeedTask().getMaxPoolSize());
         executor.setQueueCapacity(props.getNewsFeedTask().getQueueCapacity());
         executor.setThreadNamePrefix("publish-posts-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public Executor kafkaRecordTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(props.getKafkaRecordTask().getCorePoolSize());
+        executor.setMaxPoolSize(props.getKafkaRecordTask().getMaxPoolSize());
+        executor.setQueueCapacity(props.getKafkaRecordTask().getQueueCapacity());
+        executor.setThreadNamePrefix("kafka-records-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
         executor.initialize();
         return executor;
     }
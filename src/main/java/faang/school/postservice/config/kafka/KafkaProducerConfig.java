@@ -1,5 +1,10 @@
 package faang.school.postservice.config.kafka;
 
+import faang.school.postservice.serializer.BinaryCodecRegistry;
+import faang.school.postservice.serializer.SerializationFormat;
+import faang.school.postservice.serializer.kafka.BinaryKafkaSerializer;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.serialization.Serializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
@@ -14,11 +19,17 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
+@RequiredArgsConstructor
 public class KafkaProducerConfig {
 
+    private final BinaryCodecRegistry binaryCodecRegistry;
+
     @Value(value = "${spring.kafka.bootstrap-servers}")
     private String bootstrapAddress;
 
+    @Value(value = "${application.kafka.serialization}")
+    private SerializationFormat serializationFormat;
+
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> configProps = new HashMap<>(Map.of(
@@ -28,7 +39,10 @@ public class KafkaProducerConfig {
                 ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
                 ProducerConfig.ACKS_CONFIG, "all"
         ));
-        return new DefaultKafkaProducerFactory<>(configProps);
+        Serializer<Object> valueSerializer = serializationFormat == SerializationFormat.BINARY
+                ? new BinaryKafkaSerializer(binaryCodecRegistry, new JsonSerializer<>())
+                : new JsonSerializer<>();
+        return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), valueSerializer);
     }
 
     @Bean
@@ -16,6 +16,8 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class KafkaTopicConfig {
 
+    private static final String DEAD_LETTER_TOPIC_SUFFIX = ".DLT";
+
     @Value(value = "${spring.kafka.bootstrap-servers}")
     private String bootstrapAddress;
 
@@ -52,12 +54,6 @@ public class KafkaTopicConfig {
                 topicProp.getLikeReplicationsCount());
     }
 
-    @Bean
-    public NewTopic profileViewsTopic() {
-        return new NewTopic(topicProp.getPostViewsTopicName(), topicProp.getPostViewsPartitionsCount(),
-                topicProp.getPostViewsReplicationsCount());
-    }
-
     @Bean
     public NewTopic heatPostCacheTopic() {
         return new NewTopic(topicProp.getHeatCacheTopicName(), topicProp.getHeatCachePartitionsCount(),
@@ -69,4 +65,16 @@ public class KafkaTopicConfig {
         return new NewTopic(topicProp.getHeatFeedCacheTopicName(), topicProp.getHeatFeedCachePartitionsCount(),
                 topicProp.getHeatFeedCacheReplicationsCount());
     }
+
+    @Bean
+    public NewTopic postDeadLetterTopic() {
+        return new NewTopic(topicProp.getPostTopicName() + DEAD_LETTER_TOPIC_SUFFIX,
+                topicProp.getPostPartitionsCount(), topicProp.getPostReplicationsCount());
+    }
+
+    @Bean
+    public NewTopic heatFeedCacheDeadLetterTopic() {
+        return new NewTopic(topicProp.getHeatFeedCacheTopicName() + DEAD_LETTER_TOPIC_SUFFIX,
+                topicProp.getHeatFeedCachePartitionsCount(), topicProp.getHeatFeedCacheReplicationsCount());
+    }
 }
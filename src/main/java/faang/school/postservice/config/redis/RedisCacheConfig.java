@@ -7,7 +7,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
-import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
@@ -20,7 +20,7 @@ import java.util.Map;
 public class RedisCacheConfig {
 
     private final ObjectMapper objectMapper;
-    private final JedisConnectionFactory jedisConnectionFactory;
+    private final RedisConnectionFactory redisConnectionFactory;
     private final RedisCacheProperties prop;
 
     @Bean
@@ -36,7 +36,7 @@ public class RedisCacheConfig {
                 prop.getUsersCacheName(), defaultConfig.entryTtl(Duration.ofHours(prop.getUsersHoursTtl()))
         ));
 
-        return RedisCacheManager.builder(jedisConnectionFactory)
+        return RedisCacheManager.builder(redisConnectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
                 .build();
@@ -2,16 +2,28 @@ package faang.school.postservice.config.redis;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import faang.school.postservice.dto.post.PostDto;
+import faang.school.postservice.listener.redis.PostCacheInvalidationListener;
+import faang.school.postservice.listener.redis.SubscriptionEventListener;
+import faang.school.postservice.properties.RedisClientProperties;
+import faang.school.postservice.repository.cache.CacheSlotPartitioner;
+import faang.school.postservice.serializer.BinaryCodecRegistry;
+import faang.school.postservice.serializer.BinaryRedisSerializer;
+import faang.school.postservice.serializer.SerializationFormat;
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
 import lombok.RequiredArgsConstructor;
-import org.redisson.Redisson;
-import org.redisson.api.RedissonClient;
-import org.redisson.config.Config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
-import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -24,6 +36,8 @@ import java.util.Map;
 public class RedisConfig {
 
     private final ObjectMapper objectMapper;
+    private final BinaryCodecRegistry binaryCodecRegistry;
+    private final RedisClientProperties redisClientProperties;
 
     @Value("${spring.data.redis.host}")
     private String host;
@@ -31,35 +45,70 @@ public class RedisConfig {
     @Value("${spring.data.redis.port}")
     private int port;
 
+    @Value("${spring.data.redis.channel.subscription}")
+    private String subscriptionTopic;
+
+    @Value("${spring.data.redis.channel.post-cache-invalidation}")
+    private String postCacheInvalidationTopic;
+
+    @Value("${spring.data.redis.serialization}")
+    private SerializationFormat serializationFormat;
+
     @Bean
-    public JedisConnectionFactory jedisConnectionFactory() {
-        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(host, port);
-        return new JedisConnectionFactory(config);
+    public LettuceConnectionFactory redisConnectionFactory() {
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder clientConfig = LettuceClientConfiguration.builder()
+                .readFrom(ReadFrom.valueOf(redisClientProperties.getReadFrom()));
+        LettuceConnectionFactory connectionFactory;
+        if (isClusterMode()) {
+            clientConfig.clientOptions(ClusterClientOptions.builder()
+                    .topologyRefreshOptions(ClusterTopologyRefreshOptions.builder()
+                            .enableAllAdaptiveRefreshTriggers()
+                            .build())
+                    .build());
+            connectionFactory = new LettuceConnectionFactory(new RedisClusterConfiguration(redisClientProperties.getClusterNodes()),
+                    clientConfig.build());
+        } else {
+            connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port),
+                    clientConfig.build());
+        }
+        connectionFactory.setShareNativeConnection(true);
+        connectionFactory.setPipeliningFlushPolicy(
+                LettuceConnection.PipeliningFlushPolicy.buffered(redisClientProperties.getPipeliningFlushSize()));
+        return connectionFactory;
     }
 
     @Bean
-    public RedissonClient redissonClient() {
-        Config config = new Config();
-        config.useSingleServer()
-                .setAddress("redis://%s:%s".formatted(host, port));
-        return Redisson.create(config);
+    public CacheSlotPartitioner cacheSlotPartitioner() {
+        return new CacheSlotPartitioner(isClusterMode());
     }
 
     @Bean
     public RedisTemplate<String, Object> redisTemplate() {
         final RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
-        redisTemplate.setConnectionFactory(jedisConnectionFactory());
+        redisTemplate.setConnectionFactory(redisConnectionFactory());
 
         redisTemplate.setKeySerializer(new StringRedisSerializer());
-        redisTemplate.setValueSerializer(new GenericJackson2JsonRedisSerializer(objectMapper));
+        redisTemplate.setValueSerializer(new BinaryRedisSerializer(binaryCodecRegistry,
+                new GenericJackson2JsonRedisSerializer(objectMapper), serializationFormat));
 
         return redisTemplate;
     }
 
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            SubscriptionEventListener subscriptionEventListener,
+            PostCacheInvalidationListener postCacheInvalidationListener) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory());
+        container.addMessageListener(subscriptionEventListener, new ChannelTopic(subscriptionTopic));
+        container.addMessageListener(postCacheInvalidationListener, new ChannelTopic(postCacheInvalidationTopic));
+        return container;
+    }
+
     @Bean
     public RedisTemplate<String, Map<String, List<PostDto>>> redisTemplateForHashtags() {
         final RedisTemplate<String, Map<String, List<PostDto>>> redisTemplate = new RedisTemplate<>();
-        redisTemplate.setConnectionFactory(jedisConnectionFactory());
+        redisTemplate.setConnectionFactory(redisConnectionFactory());
 
         redisTemplate.setKeySerializer(new StringRedisSerializer());
         redisTemplate.setHashKeySerializer(new StringRedisSerializer());
@@ -67,4 +116,8 @@ public class RedisConfig {
 
         return redisTemplate;
     }
-}
\ No newline at end of file
+
+    private boolean isClusterMode() {
+        return !redisClientProperties.getClusterNodes().isEmpty();
+    }
+}
@@ -4,7 +4,6 @@ import faang.school.postservice.config.context.UserContext;
 import faang.school.postservice.dto.news_feed.NewsFeedResponseDto;
 import faang.school.postservice.service.feed.FeedHeater;
 import faang.school.postservice.service.feed.NewsFeedService;
-import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,10 +23,8 @@ public class NewsFeedController {
     private final UserContext userContext;
 
     @GetMapping
-    public NewsFeedResponseDto getNewsFeedBatch(@RequestParam(value = "lastViewedPostId", required = false)
-                                                @Min(value = 0, message = "Value should be positive")
-                                                Long lastViewedPostId) {
-        return newsFeedService.getNewsFeedBatch(lastViewedPostId, userContext.getUserId());
+    public NewsFeedResponseDto getNewsFeedBatch(@RequestParam(value = "cursor", required = false) String cursor) {
+        return newsFeedService.getNewsFeedBatch(cursor, userContext.getUserId());
     }
 
     @PostMapping("/cache/heat")
@@ -0,0 +1,20 @@
+package faang.school.postservice.dto.comment;
+
+import java.time.LocalDateTime;
+
+public interface CacheCommentProjection {
+
+    Long getCommentId();
+
+    Long getAuthorId();
+
+    Long getPostId();
+
+    String getContent();
+
+    Long getLikesCount();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
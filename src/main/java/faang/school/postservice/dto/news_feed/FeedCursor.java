@@ -0,0 +1,41 @@
+package faang.school.postservice.dto.news_feed;
+
+import faang.school.postservice.exception.DataValidationException;
+import faang.school.postservice.model.cache.PostCacheDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@Getter
+@AllArgsConstructor
+public class FeedCursor {
+
+    private static final String SEPARATOR = "_";
+
+    private final LocalDateTime publishedAt;
+    private final long postId;
+
+    public static FeedCursor of(PostCacheDto post) {
+        return new FeedCursor(post.getPublishedAt(), post.getPostId());
+    }
+
+    public static FeedCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.lastIndexOf(SEPARATOR);
+            return new FeedCursor(LocalDateTime.parse(decoded.substring(0, separatorIndex)),
+                    Long.parseLong(decoded.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new DataValidationException("Invalid feed cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        String position = publishedAt + SEPARATOR + postId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,14 @@
+package faang.school.postservice.dto.news_feed;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class FeedPage {
+
+    private final List<Long> postsIds;
+    private final long ttlMillis;
+}
@@ -20,4 +20,5 @@ public class NewsFeedResponseDto {
 
     private List<UserCacheDto> postsAuthors;
     private LinkedHashSet<PostCacheDto> posts;
+    private String nextCursor;
 }
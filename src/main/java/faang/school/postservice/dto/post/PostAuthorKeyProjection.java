@@ -0,0 +1,6 @@
+package faang.school.postservice.dto.post;
+
+public interface PostAuthorKeyProjection extends PostKeyProjection {
+
+    Long getAuthorId();
+}
@@ -0,0 +1,10 @@
+package faang.school.postservice.dto.post;
+
+import java.time.LocalDateTime;
+
+public interface PostKeyProjection {
+
+    Long getId();
+
+    LocalDateTime getPublishedAt();
+}
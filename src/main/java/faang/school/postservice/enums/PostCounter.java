@@ -0,0 +1,14 @@
+package faang.school.postservice.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum PostCounter {
+    LIKES("likes"),
+    VIEWS("views"),
+    COMMENTS("comments");
+
+    private final String field;
+}
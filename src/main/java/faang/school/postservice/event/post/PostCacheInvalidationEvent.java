@@ -0,0 +1,20 @@
+package faang.school.postservice.event.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostCacheInvalidationEvent {
+
+    private String instanceId;
+    private List<Long> postsIds;
+}
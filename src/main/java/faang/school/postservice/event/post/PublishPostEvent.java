@@ -1,13 +1,12 @@
 package faang.school.postservice.event.post;
 
-import faang.school.postservice.model.cache.PostCacheDto;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 @Setter
 @Getter
@@ -15,6 +14,8 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 public class PublishPostEvent {
-    private PostCacheDto postDto;
-    private List<Long> followersIds;
+    private long postId;
+    private Long authorId;
+    private LocalDateTime publishedAt;
+    private byte[] followersIds;
 }
@@ -0,0 +1,18 @@
+package faang.school.postservice.event.subscription;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SubscriptionEvent {
+
+    private long followerId;
+    private long followeeId;
+}
@@ -0,0 +1,8 @@
+package faang.school.postservice.exception;
+
+public class BinaryFormatException extends RuntimeException {
+
+    public BinaryFormatException(String message) {
+        super(message);
+    }
+}
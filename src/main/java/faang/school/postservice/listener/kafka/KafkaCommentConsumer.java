@@ -1,8 +1,7 @@
 package faang.school.postservice.listener.kafka;
 
+import faang.school.postservice.dto.comment.CacheCommentDto;
 import faang.school.postservice.event.comment.CacheCommentEvent;
-import faang.school.postservice.model.cache.PostCacheDto;
-import faang.school.postservice.service.feed.NewsFeedService;
 import faang.school.postservice.service.post.PostCacheService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,23 +9,28 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class KafkaCommentConsumer {
 
     private final PostCacheService postCacheService;
-    private final NewsFeedService newsFeedService;
 
     @KafkaListener(topics = "${application.kafka.topics.comment-topic-name}",
             groupId = "${spring.kafka.consumer.group-id}",
-            containerFactory = "kafkaListenerContainerFactory")
-    public void listen(CacheCommentEvent event, Acknowledgment ack) {
-        long postId = event.getCommentDto().getPostId();
-        PostCacheDto postWithComments = newsFeedService.getPostCacheDtoWithComments(postId);
-        postCacheService.addCommentToPostCache(event.getCommentDto(), postWithComments);
+            concurrency = "${application.kafka.topics.comment-partitions-count}",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void listen(List<CacheCommentEvent> events, Acknowledgment ack) {
+        Map<Long, List<CacheCommentDto>> commentsByPostsIds = events.stream()
+                .map(CacheCommentEvent::getCommentDto)
+                .collect(Collectors.groupingBy(CacheCommentDto::getPostId, LinkedHashMap::new, Collectors.toList()));
+        postCacheService.addCommentsToPostCache(commentsByPostsIds);
         ack.acknowledge();
-        log.info("Comment event for comment with id: {}, has been processed",
-                event.getCommentDto().getCommentId());
+        log.info("{} comment events have been processed, for {} posts", events.size(), commentsByPostsIds.size());
     }
 }
@@ -4,6 +4,7 @@ import faang.school.postservice.config.async.ThreadPoolConfig;
 import faang.school.postservice.service.feed.NewsFeedService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
@@ -17,21 +18,22 @@ import java.util.concurrent.CompletableFuture;
 @RequiredArgsConstructor
 public class KafkaHeatFeedCacheConsumer {
 
+    public static final String LISTENER_ID = "heat-feed-cache-consumer";
+
     private final NewsFeedService newsFeedService;
     private final ThreadPoolConfig poolConfig;
+    private final KeyOrderedRecordProcessor recordProcessor;
 
     @Value(value = "${feed.post.quantity-posts-in-feed}")
     private int quantityPostsInFeed;
 
-    @KafkaListener(topics = "${application.kafka.topics.heat-feed-cache-topic-name}",
-            groupId = "${spring.kafka.consumer.group-id}")
-    public void listen(List<Long> usersIdsToFillFeed, Acknowledgment ack) {
-        List<CompletableFuture<Void>> futures = usersIdsToFillFeed.stream()
-                .map(id -> CompletableFuture.runAsync(() -> newsFeedService.fillFeed(id, quantityPostsInFeed),
-                        poolConfig.newsFeedTaskExecutor())).toList();
-
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-        log.info("News feed fetched.");
-        ack.acknowledge();
+    @KafkaListener(id = LISTENER_ID,
+            topics = "${application.kafka.topics.heat-feed-cache-topic-name}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            concurrency = "${application.kafka.topics.heat-feed-cache-partitions-count}")
+    public void listen(ConsumerRecord<String, List<Long>> record, Acknowledgment ack) {
+        recordProcessor.process(LISTENER_ID, record, () -> CompletableFuture.runAsync(
+                () -> newsFeedService.fillFeeds(record.value(), quantityPostsInFeed),
+                poolConfig.newsFeedTaskExecutor()), ack::acknowledge);
     }
 }
@@ -17,7 +17,8 @@ public class KafkaHeatPostsCacheConsumer {
     private final FeedHeater feedHeater;
 
     @KafkaListener(topics = "${application.kafka.topics.heat-cache-topic-name}",
-            groupId = "${spring.kafka.consumer.group-id}")
+            groupId = "${spring.kafka.consumer.group-id}",
+            concurrency = "${application.kafka.topics.heat-cache-partitions-count}")
     public void listen(List<Long> event, Acknowledgment ack) {
         feedHeater.heatPostsCache(event);
         log.info("Heat cache consumed for {} posts", event.size());
@@ -1,7 +1,5 @@
 package faang.school.postservice.listener.kafka;
 
-import faang.school.postservice.model.cache.PostCacheDto;
-import faang.school.postservice.service.feed.NewsFeedService;
 import faang.school.postservice.service.post.PostCacheService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,21 +7,26 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class KafkaLikeConsumer {
 
     private final PostCacheService postCacheService;
-    private final NewsFeedService newsFeedService;
 
     @KafkaListener(topics = "${application.kafka.topics.like-topic-name}",
-            groupId = "${spring.kafka.consumer.group-id}")
-    public void listen(String event, Acknowledgment ack) {
-        long postId = Long.parseLong(event);
-        PostCacheDto postCacheDto = newsFeedService.getPostCacheDtoWithComments(postId);
-        postCacheService.addLikeToCachePost(postCacheDto);
+            groupId = "${spring.kafka.consumer.group-id}",
+            concurrency = "${application.kafka.topics.like-partitions-count}",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void listen(List<String> events, Acknowledgment ack) {
+        Map<Long, Long> likesByPostsIds = events.stream()
+                .collect(Collectors.groupingBy(Long::parseLong, Collectors.counting()));
+        postCacheService.addLikesToPostCache(likesByPostsIds);
         ack.acknowledge();
-        log.info("Post like event handled, for post with id {}", postId);
+        log.info("{} post like events handled, for {} posts", events.size(), likesByPostsIds.size());
     }
 }
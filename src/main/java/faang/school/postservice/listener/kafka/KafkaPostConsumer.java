@@ -2,9 +2,9 @@ package faang.school.postservice.listener.kafka;
 
 import faang.school.postservice.event.post.PublishPostEvent;
 import faang.school.postservice.service.feed.NewsFeedService;
-import faang.school.postservice.service.post.PostCacheService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
@@ -14,17 +14,17 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class KafkaPostConsumer {
 
+    public static final String LISTENER_ID = "post-consumer";
+
     private final NewsFeedService newsFeedService;
-    private final PostCacheService postCacheService;
+    private final KeyOrderedRecordProcessor recordProcessor;
 
-    @KafkaListener(topics = "${application.kafka.topics.post-topic-name}", groupId = "${spring.kafka.consumer.group-id}")
-    public void listen(PublishPostEvent event, Acknowledgment ack) {
-        postCacheService.savePostToCache(event.getPostDto());
-        newsFeedService.addPostToFeeds(event)
-                .thenRun(ack::acknowledge)
-                .exceptionally(ex -> {
-                    log.error("Failed to process event for post ID: {}", event.getPostDto().getPostId(), ex);
-                    return null;
-                });
+    @KafkaListener(id = LISTENER_ID,
+            topics = "${application.kafka.topics.post-topic-name}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            concurrency = "${application.kafka.topics.post-partitions-count}")
+    public void listen(ConsumerRecord<String, PublishPostEvent> record, Acknowledgment ack) {
+        recordProcessor.process(LISTENER_ID, record, () -> newsFeedService.addPostToFeeds(record.value()),
+                ack::acknowledge);
     }
 }
@@ -0,0 +1,152 @@
+package faang.school.postservice.listener.kafka;
+
+import faang.school.postservice.config.async.ThreadPoolConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.backoff.BackOffExecution;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KeyOrderedRecordProcessor {
+
+    private final ThreadPoolConfig poolConfig;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final DeadLetterPublishingRecoverer deadLetterRecoverer;
+    private final Map<RecordKey, CompletableFuture<Void>> tailsByKeys = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+    private final Set<String> pausedListenersIds = new HashSet<>();
+
+    @Value(value = "${application.kafka.ordered-processing.max-in-flight}")
+    private int maxInFlight;
+
+    @Value(value = "${application.kafka.ordered-processing.dead-letter-backoff.initial-interval-ms}")
+    private long deadLetterInitialIntervalMillis;
+
+    @Value(value = "${application.kafka.ordered-processing.dead-letter-backoff.max-elapsed-ms}")
+    private long deadLetterMaxElapsedMillis;
+
+    public void process(String listenerId, ConsumerRecord<String, ?> record,
+                        Supplier<CompletableFuture<Void>> task, Runnable acknowledge) {
+        if (inFlightCount.incrementAndGet() >= maxInFlight) {
+            pauseListener(listenerId);
+        }
+        RecordKey key = record.key() == null ? null : new RecordKey(record.topic(), record.key());
+
+        CompletableFuture<Void> tail = key == null
+                ? runAfter(null, task)
+                : tailsByKeys.compute(key, (k, previous) -> runAfter(previous, task));
+
+        tail.whenComplete((result, ex) -> {
+            if (key != null) {
+                tailsByKeys.remove(key, tail);
+            }
+            if (inFlightCount.decrementAndGet() <= getResumeThreshold()) {
+                resumePausedListeners();
+            }
+            if (ex == null) {
+                acknowledge.run();
+            } else {
+                recover(listenerId, record, ex, acknowledge);
+            }
+        });
+    }
+
+    public int getInFlightCount() {
+        return inFlightCount.get();
+    }
+
+    private void recover(String listenerId, ConsumerRecord<String, ?> record, Throwable ex, Runnable acknowledge) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        log.error("Failed to process record from topic: {}, partition: {}, offset: {}, key: {}",
+                record.topic(), record.partition(), record.offset(), record.key(), cause);
+        ExponentialBackOff backOff = new ExponentialBackOff(deadLetterInitialIntervalMillis,
+                ExponentialBackOff.DEFAULT_MULTIPLIER);
+        backOff.setMaxElapsedTime(deadLetterMaxElapsedMillis);
+        publishToDeadLetter(listenerId, record, cause instanceof Exception exception
+                ? exception
+                : new IllegalStateException(cause), acknowledge, backOff.start());
+    }
+
+    private void publishToDeadLetter(String listenerId, ConsumerRecord<String, ?> record, Exception cause,
+                                     Runnable acknowledge, BackOffExecution backOff) {
+        try {
+            deadLetterRecoverer.accept(record, cause);
+            acknowledge.run();
+        } catch (Exception e) {
+            long delayMillis = backOff.nextBackOff();
+            if (delayMillis == BackOffExecution.STOP) {
+                log.error("Failed to publish record from topic: {}, partition: {}, offset: {} to dead-letter topic, " +
+                        "stopping listener: {}", record.topic(), record.partition(), record.offset(), listenerId, e);
+                stopListener(listenerId);
+                return;
+            }
+            log.warn("Failed to publish record from topic: {}, partition: {}, offset: {} to dead-letter topic, " +
+                    "retrying in {} ms", record.topic(), record.partition(), record.offset(), delayMillis, e);
+            CompletableFuture.runAsync(() -> publishToDeadLetter(listenerId, record, cause, acknowledge, backOff),
+                    CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS,
+                            poolConfig.kafkaRecordTaskExecutor()));
+        }
+    }
+
+    private void stopListener(String listenerId) {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(listenerId);
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    private synchronized void pauseListener(String listenerId) {
+        if (inFlightCount.get() <= getResumeThreshold() || pausedListenersIds.contains(listenerId)) {
+            return;
+        }
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(listenerId);
+        if (container != null) {
+            container.pause();
+            pausedListenersIds.add(listenerId);
+            log.info("Paused listener: {} with {} records in flight", listenerId, inFlightCount.get());
+        }
+    }
+
+    private synchronized void resumePausedListeners() {
+        pausedListenersIds.forEach(listenerId -> {
+            MessageListenerContainer container = listenerRegistry.getListenerContainer(listenerId);
+            if (container != null) {
+                container.resume();
+                log.info("Resumed listener: {} with {} records in flight", listenerId, inFlightCount.get());
+            }
+        });
+        pausedListenersIds.clear();
+    }
+
+    private int getResumeThreshold() {
+        return maxInFlight / 2;
+    }
+
+    private CompletableFuture<Void> runAfter(CompletableFuture<Void> previous, Supplier<CompletableFuture<Void>> task) {
+        CompletableFuture<Void> start = previous == null
+                ? CompletableFuture.completedFuture(null)
+                : previous.handle((result, ex) -> null);
+        return start.thenComposeAsync(ignored -> task.get(), poolConfig.kafkaRecordTaskExecutor());
+    }
+
+    private record RecordKey(String topic, String key) {
+    }
+}
@@ -0,0 +1,37 @@
+package faang.school.postservice.listener.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import faang.school.postservice.event.post.PostCacheInvalidationEvent;
+import faang.school.postservice.repository.cache.PostNearCache;
+import faang.school.postservice.service.post.PostExistenceFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostCacheInvalidationListener implements MessageListener {
+
+    private final ObjectMapper objectMapper;
+    private final PostNearCache postNearCache;
+    private final PostExistenceFilter postExistenceFilter;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            PostCacheInvalidationEvent event =
+                    objectMapper.readValue(message.getBody(), PostCacheInvalidationEvent.class);
+            if (!postNearCache.getInstanceId().equals(event.getInstanceId())) {
+                postNearCache.invalidate(event.getPostsIds());
+                postExistenceFilter.forgetMissing(event.getPostsIds());
+            }
+        } catch (IOException e) {
+            log.error("Failed to deserialize post cache invalidation event", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package faang.school.postservice.listener.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import faang.school.postservice.event.subscription.SubscriptionEvent;
+import faang.school.postservice.service.subscription.FollowGraphCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SubscriptionEventListener implements MessageListener {
+
+    private final ObjectMapper objectMapper;
+    private final FollowGraphCache followGraphCache;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            SubscriptionEvent event = objectMapper.readValue(message.getBody(), SubscriptionEvent.class);
+            followGraphCache.invalidateSubscription(event.getFollowerId(), event.getFolloweeId());
+        } catch (IOException e) {
+            log.error("Failed to deserialize subscription event", e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package faang.school.postservice.mapper;
 
 import faang.school.postservice.dto.comment.CacheCommentDto;
+import faang.school.postservice.dto.comment.CacheCommentProjection;
 import faang.school.postservice.dto.comment.CommentDto;
 import faang.school.postservice.model.Comment;
 import faang.school.postservice.model.Like;
@@ -22,6 +23,8 @@ public interface CommentMapper {
     @Mapping(source = "likes", target = "likesCount", qualifiedByName = "mapLikesCount")
     CacheCommentDto toCacheCommentDto(Comment comment);
 
+    CacheCommentDto projectionToCacheCommentDto(CacheCommentProjection comment);
+
     @Named(value = "mapLikesCount")
     default long mapLikesCount(List<Like> likes) {
         return likes == null ? 0 : likes.size();
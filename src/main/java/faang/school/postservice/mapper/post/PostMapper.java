@@ -32,13 +32,20 @@ public interface PostMapper {
     @Mapping(source = "comments", target = "comments", ignore = true)
     @Mapping(source = "comments", target = "commentsCount", qualifiedByName = "mapCommentsCount")
     @Mapping(source = "likes", target = "likesCount", qualifiedByName = "mapLikesCount")
+    @Mapping(source = "postViewCounter", target = "postViewsCount")
     PostCacheDto toPostCacheDto(Post post);
 
     @Mapping(source = "comments", target = "comments", ignore = true)
     @Mapping(source = "comments", target = "commentsCount", qualifiedByName = "mapCommentsCount")
     @Mapping(source = "likes", target = "likesCount", qualifiedByName = "mapLikesCount")
+    @Mapping(source = "postViewCounter", target = "postViewsCount")
     List<PostCacheDto> toPostCacheDtoList(List<Post> posts);
 
+    PostCacheDto copyPostCacheDto(PostCacheDto post);
+
+    @Mapping(target = "comments", ignore = true)
+    PostCacheDto toPostCacheBody(PostCacheDto post);
+
     @Named(value = "mapLikesCount")
     default long mapLikesCount(List<Like> likes) {
         return likes == null ? 0 : likes.size();
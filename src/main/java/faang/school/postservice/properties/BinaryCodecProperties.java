@@ -0,0 +1,18 @@
+package faang.school.postservice.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "application.binary-codec")
+public class BinaryCodecProperties {
+
+    private Map<String, Byte> writeVersions = new HashMap<>();
+}
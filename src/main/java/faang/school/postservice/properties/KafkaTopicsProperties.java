@@ -27,10 +27,6 @@ public class KafkaTopicsProperties {
     private int cacheUserPartitionsCount;
     private short cacheUserReplicationsCount;
 
-    private String postViewsTopicName;
-    private int postViewsPartitionsCount;
-    private short postViewsReplicationsCount;
-
     private String heatCacheTopicName;
     private int heatCachePartitionsCount;
     private short heatCacheReplicationsCount;
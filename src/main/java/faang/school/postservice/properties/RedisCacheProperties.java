@@ -18,4 +18,9 @@ public class RedisCacheProperties {
     private String postsCacheName;
     private int usersHoursTtl;
     private String usersCacheName;
+    private int timelinesHoursTtl;
+    private String timelinesCacheName;
+    private String pullAuthorsCacheName;
+    private String postCountersCacheName;
+    private String postCommentsCacheName;
 }
@@ -0,0 +1,20 @@
+package faang.school.postservice.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "application.redis")
+public class RedisClientProperties {
+
+    private List<String> clusterNodes = new ArrayList<>();
+    private String readFrom;
+    private int pipeliningFlushSize;
+}
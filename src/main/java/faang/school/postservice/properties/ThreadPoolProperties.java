@@ -12,6 +12,7 @@ public class ThreadPoolProperties {
     private ExecutorProperties fileUpload;
     private ExecutorProperties postTask;
     private ExecutorProperties newsFeedTask;
+    private ExecutorProperties kafkaRecordTask;
 
     @Data
     public static class ExecutorProperties {
@@ -15,7 +15,7 @@ public class KafkaAddLikeProducer {
     private final KafkaTopicConfig kafkaTopicConfig;
 
     public void send(String event) {
-        kafkaTemplate.send(kafkaTopicConfig.likeTopic().name(), event);
+        kafkaTemplate.send(kafkaTopicConfig.likeTopic().name(), event, event);
         log.info("Event add like was sent successfully for post with id: {}", event);
     }
 }
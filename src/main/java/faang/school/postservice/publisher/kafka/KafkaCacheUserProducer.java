@@ -3,10 +3,15 @@ package faang.school.postservice.publisher.kafka;
 import faang.school.postservice.config.kafka.KafkaTopicConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.utils.Utils;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Component
@@ -17,7 +22,18 @@ public class KafkaCacheUserProducer {
     private final KafkaTopicConfig kafkaTopicConfig;
 
     public void send(List<Long> usersIds) {
-        kafkaTemplate.send(kafkaTopicConfig.cacheUserTopic().name(), usersIds);
-        log.info("Sent event to cache {} users", usersIds.size());
+        NewTopic topic = kafkaTopicConfig.cacheUserTopic();
+        Map<Integer, List<Long>> usersIdsByPartitions = usersIds.stream()
+                .distinct()
+                .collect(Collectors.groupingBy(userId -> partitionOf(userId, topic.numPartitions())));
+
+        usersIdsByPartitions.forEach((partition, partitionUsersIds) -> kafkaTemplate.send(
+                topic.name(), partition, String.valueOf(partitionUsersIds.get(0)), partitionUsersIds));
+        log.info("Sent events to cache {} users to {} partitions", usersIds.size(), usersIdsByPartitions.size());
+    }
+
+    private int partitionOf(long userId, int partitionsCount) {
+        byte[] key = String.valueOf(userId).getBytes(StandardCharsets.UTF_8);
+        return Utils.toPositive(Utils.murmur2(key)) % partitionsCount;
     }
 }
@@ -16,7 +16,8 @@ public class KafkaCreateCommentProducer {
     private final KafkaTopicConfig kafkaTopicConfig;
 
     public void send(CacheCommentEvent event) {
-        kafkaTemplate.send(kafkaTopicConfig.commentTopic().name(), event);
+        String postId = String.valueOf(event.getCommentDto().getPostId());
+        kafkaTemplate.send(kafkaTopicConfig.commentTopic().name(), postId, event);
         log.info("Event comment created was sent, with comment Id: {}",
                 event.getCommentDto().getCommentId());
     }
@@ -16,7 +16,7 @@ public class KafkaPublishPostProducer {
     private final KafkaTopicConfig kafkaTopicConfig;
 
     public void send(PublishPostEvent event) {
-        kafkaTemplate.send(kafkaTopicConfig.postTopic().name(), event);
-        log.info("Sent event Post created, for post with id {}", event.getPostDto().getAuthorId());
+        kafkaTemplate.send(kafkaTopicConfig.postTopic().name(), String.valueOf(event.getPostId()), event);
+        log.info("Sent event Post created, for post with id {}", event.getPostId());
     }
 }
@@ -0,0 +1,30 @@
+package faang.school.postservice.publisher.redis.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import faang.school.postservice.event.post.PostCacheInvalidationEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostCacheInvalidationPublisher {
+
+    @Value("${spring.data.redis.channel.post-cache-invalidation}")
+    private String postCacheInvalidationTopic;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public void publish(PostCacheInvalidationEvent event) {
+        try {
+            stringRedisTemplate.convertAndSend(postCacheInvalidationTopic, objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize post cache invalidation event", e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package faang.school.postservice.repository;
 
+import faang.school.postservice.dto.comment.CacheCommentProjection;
 import faang.school.postservice.model.Comment;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -15,10 +16,19 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findAllByPostId(long postId);
 
     @Query(nativeQuery = true, value = """
-            SELECT * FROM comment
-            WHERE post_id = :postId
-            ORDER BY created_at DESC
-            LIMIT :batchSize
+            SELECT c.id AS commentId, c.author_id AS authorId, c.post_id AS postId, c.content AS content,
+                   (SELECT COUNT(*) FROM likes l WHERE l.comment_id = c.id) AS likesCount,
+                   c.created_at AS createdAt, c.updated_at AS updatedAt
+            FROM post p
+            CROSS JOIN LATERAL (
+                SELECT * FROM comment
+                WHERE post_id = p.id
+                ORDER BY created_at DESC
+                LIMIT :batchSize
+            ) c
+            WHERE p.id IN (:postsIds)
+            ORDER BY c.post_id, c.created_at DESC
             """)
-    List<Comment> findBatchNewestCommentsByPostId(@Param("postId") long postId, @Param("batchSize") int batchSize);
+    List<CacheCommentProjection> findBatchNewestCommentsByPostsIds(@Param("postsIds") List<Long> postsIds,
+                                                                   @Param("batchSize") int batchSize);
 }
@@ -0,0 +1,99 @@
+package faang.school.postservice.repository;
+
+import faang.school.postservice.dto.news_feed.FeedCursor;
+import faang.school.postservice.model.cache.PostCacheDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class FeedItemRepository {
+
+    public static final int PARTITIONS_COUNT = 16;
+
+    private static final String INSERT_FEED_ITEMS_QUERY = """
+            INSERT INTO feed_item (user_id, published_at, post_id)
+            SELECT * FROM unnest(CAST(? AS bigint[]), CAST(? AS timestamp[]), CAST(? AS bigint[]))
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String FIND_FEED_POSTS_IDS_QUERY = """
+            SELECT fi.post_id FROM feed_item fi
+            JOIN post p ON p.id = fi.post_id
+            WHERE fi.user_id = ?
+              AND p.deleted = false
+            ORDER BY fi.published_at DESC, fi.post_id DESC
+            LIMIT ?
+            """;
+
+    private static final String FIND_FEED_POSTS_IDS_PUBLISHED_BEFORE_QUERY = """
+            SELECT fi.post_id FROM feed_item fi
+            JOIN post p ON p.id = fi.post_id
+            WHERE fi.user_id = ?
+              AND (fi.published_at, fi.post_id) < (?, ?)
+              AND p.deleted = false
+            ORDER BY fi.published_at DESC, fi.post_id DESC
+            LIMIT ?
+            """;
+
+    private static final String DELETE_FEED_ITEMS_PUBLISHED_BEFORE_QUERY = """
+            DELETE FROM feed_item_p%1$d
+            WHERE ctid = ANY(ARRAY(SELECT ctid FROM feed_item_p%1$d WHERE published_at < ? LIMIT ?))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void saveFeedItems(long postId, LocalDateTime publishedAt, long[] usersIds) {
+        Timestamp[] publishedAts = new Timestamp[usersIds.length];
+        Long[] postsIds = new Long[usersIds.length];
+        Arrays.fill(publishedAts, Timestamp.valueOf(publishedAt));
+        Arrays.fill(postsIds, postId);
+        insertFeedItems(Arrays.stream(usersIds).boxed().toArray(Long[]::new), publishedAts, postsIds);
+    }
+
+    public void saveFeedsItems(Map<Long, ? extends Collection<PostCacheDto>> feedsByUsersIds) {
+        List<Long> usersIds = new ArrayList<>();
+        List<Timestamp> publishedAts = new ArrayList<>();
+        List<Long> postsIds = new ArrayList<>();
+        feedsByUsersIds.forEach((userId, posts) -> posts.forEach(post -> {
+            usersIds.add(userId);
+            publishedAts.add(Timestamp.valueOf(post.getPublishedAt()));
+            postsIds.add(post.getPostId());
+        }));
+        insertFeedItems(usersIds.toArray(Long[]::new), publishedAts.toArray(Timestamp[]::new),
+                postsIds.toArray(Long[]::new));
+    }
+
+    public List<Long> findFeedPostsIds(long userId, FeedCursor cursor, int limit) {
+        if (cursor == null) {
+            return jdbcTemplate.queryForList(FIND_FEED_POSTS_IDS_QUERY, Long.class, userId, limit);
+        }
+        return jdbcTemplate.queryForList(FIND_FEED_POSTS_IDS_PUBLISHED_BEFORE_QUERY, Long.class,
+                userId, Timestamp.valueOf(cursor.getPublishedAt()), cursor.getPostId(), limit);
+    }
+
+    public int deleteFeedItemsPublishedBefore(int partition, LocalDateTime publishedBefore, int limit) {
+        return jdbcTemplate.update(DELETE_FEED_ITEMS_PUBLISHED_BEFORE_QUERY.formatted(partition),
+                Timestamp.valueOf(publishedBefore), limit);
+    }
+
+    private void insertFeedItems(Long[] usersIds, Timestamp[] publishedAts, Long[] postsIds) {
+        if (usersIds.length == 0) {
+            return;
+        }
+        jdbcTemplate.update(INSERT_FEED_ITEMS_QUERY, preparedStatement -> {
+            preparedStatement.setArray(1, preparedStatement.getConnection().createArrayOf("bigint", usersIds));
+            preparedStatement.setArray(2, preparedStatement.getConnection().createArrayOf("timestamp", publishedAts));
+            preparedStatement.setArray(3, preparedStatement.getConnection().createArrayOf("bigint", postsIds));
+        });
+    }
+}
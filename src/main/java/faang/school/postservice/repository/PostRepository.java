@@ -1,13 +1,14 @@
 package faang.school.postservice.repository;
 
+import faang.school.postservice.dto.post.PostAuthorKeyProjection;
+import faang.school.postservice.dto.post.PostKeyProjection;
 import faang.school.postservice.model.Post;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -29,45 +30,92 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     @Query("SELECT p.authorId FROM Post p WHERE p.verified = false GROUP BY p.authorId HAVING COUNT(p) > :banCount")
     List<Long> findAuthorsIdsToBan(@Param("banCount") int banCount);
 
-    @Query(value = """
-            SELECT * FROM post
-            WHERE author_id IN :authorsIds
-            AND deleted = false
-            AND published = true
-            ORDER BY published_at DESC
+    @Query(nativeQuery = true, value = """
+            SELECT lp.id, lp.author_id AS authorId, lp.published_at AS publishedAt
+            FROM unnest(CAST(:authorsIds AS bigint[])) AS a(author_id)
+            CROSS JOIN LATERAL (
+                SELECT id, author_id, published_at FROM post
+                WHERE author_id = a.author_id
+                  AND deleted = false
+                  AND published = true
+                ORDER BY published_at DESC, id DESC
+                LIMIT :perAuthorLimit
+            ) lp
+            """)
+    List<PostAuthorKeyProjection> findNewestPostsKeysOfEachAuthor(
+            @Param("authorsIds") Long[] authorsIds,
+            @Param("perAuthorLimit") int perAuthorLimit
+    );
+
+    @Query(nativeQuery = true, value = """
+            SELECT lp.id, lp.author_id AS authorId, lp.published_at AS publishedAt
+            FROM unnest(CAST(:authorsIds AS bigint[])) AS a(author_id)
+            CROSS JOIN LATERAL (
+                SELECT id, author_id, published_at FROM post
+                WHERE author_id = a.author_id
+                  AND deleted = false
+                  AND published = true
+                ORDER BY published_at DESC, id DESC
+                LIMIT :batchSize
+            ) lp
+            ORDER BY lp.published_at DESC, lp.id DESC
+            LIMIT :batchSize
+            """)
+    List<PostAuthorKeyProjection> findBatchNewestPostsKeysByAuthorsIds(
+            @Param("authorsIds") Long[] authorsIds,
+            @Param("batchSize") int batchSize
+    );
+
+    @Query(nativeQuery = true, value = """
+            SELECT lp.id, lp.author_id AS authorId, lp.published_at AS publishedAt
+            FROM unnest(CAST(:authorsIds AS bigint[])) AS a(author_id)
+            CROSS JOIN LATERAL (
+                SELECT id, author_id, published_at FROM post
+                WHERE author_id = a.author_id
+                  AND deleted = false
+                  AND published = true
+                  AND (published_at, id) < (:publishedAt, :postId)
+                ORDER BY published_at DESC, id DESC
+                LIMIT :batchSize
+            ) lp
+            ORDER BY lp.published_at DESC, lp.id DESC
             LIMIT :batchSize
-            """, nativeQuery = true)
-    List<Post> findBatchNewestPostsForUserByFolloweesIds(@Param("authorsIds") List<Long> authorsIds,
-                                                         @Param("batchSize") int batchSize);
-
-    @Query(value = """
-            SELECT * FROM post
-            WHERE author_id IN :authorsIds
-              AND deleted = false
+            """)
+    List<PostAuthorKeyProjection> findBatchNewestPostsKeysByAuthorsIdsPublishedBefore(
+            @Param("authorsIds") Long[] authorsIds,
+            @Param("publishedAt") LocalDateTime publishedAt,
+            @Param("postId") long postId,
+            @Param("batchSize") int batchSize
+    );
+
+    @Query(nativeQuery = true, value = """
+            SELECT id, published_at AS publishedAt FROM post
+            WHERE deleted = false
               AND published = true
-              AND published_at > (
-                  SELECT published_at
-                  FROM post
-                  WHERE id = :particularPostId
-              )
-            ORDER BY published_at DESC
+              AND published_at >= :publishedAfter
+            ORDER BY published_at DESC, id DESC
             LIMIT :batchSize
-            """, nativeQuery = true)
-    List<Post> findBatchOrderedPostsAfterParticularPostIdInOrderByFolloweesIds(
-            @Param("authorsIds") List<Long> authorsIds,
-            @Param("particularPostId") long particularPostId,
+            """)
+    List<PostKeyProjection> findBatchPublishedPostsKeysPublishedAfter(
+            @Param("publishedAfter") LocalDateTime publishedAfter,
             @Param("batchSize") int batchSize
     );
 
     @Query(nativeQuery = true, value = """
-            SELECT id FROM post
-            WHERE published = true
-                AND deleted = false
-                AND published_at >= NOW() - INTERVAL :publishedDaysAgo DAY
-            ORDER BY published_at DESC
+            SELECT id, published_at AS publishedAt FROM post
+            WHERE deleted = false
+              AND published = true
+              AND published_at >= :publishedAfter
+              AND (published_at, id) < (:publishedAt, :postId)
+            ORDER BY published_at DESC, id DESC
+            LIMIT :batchSize
             """)
-    Page<Long> findAllPublishedNotDeletedPostsIdsPublishedNotLaterDaysAgo(
-            @Param("publishedDaysAgo") long publishedDaysAgo, Pageable pageable);
+    List<PostKeyProjection> findBatchPublishedPostsKeysPublishedAfterBefore(
+            @Param("publishedAfter") LocalDateTime publishedAfter,
+            @Param("publishedAt") LocalDateTime publishedAt,
+            @Param("postId") long postId,
+            @Param("batchSize") int batchSize
+    );
 
     @Query(nativeQuery = true, value = """
             SELECT EXISTS(
@@ -78,4 +126,23 @@ public interface PostRepository extends JpaRepository<Post, Long> {
                 )
             """)
     boolean isPostBelongUserFollowees(@Param("followeesIds") List<Long> followeesIds, @Param("postId") long postId);
+
+    boolean existsByIdAndDeletedFalse(long postId);
+
+    @Query(nativeQuery = true, value = "SELECT COALESCE(MAX(id), 0) FROM post")
+    long findMaxPostId();
+
+    @Query(nativeQuery = true, value = """
+            SELECT id FROM post
+            WHERE deleted = false
+              AND id > :postIdAfter
+              AND id <= :postIdUpTo
+            ORDER BY id
+            LIMIT :batchSize
+            """)
+    List<Long> findBatchLivePostsIds(
+            @Param("postIdAfter") long postIdAfter,
+            @Param("postIdUpTo") long postIdUpTo,
+            @Param("batchSize") int batchSize
+    );
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package faang.school.postservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class PostViewCounterRepository {
+
+    private static final String INCREMENT_POST_VIEW_COUNTER_QUERY =
+            "UPDATE post SET post_view_counter = post_view_counter + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void incrementPostViewCounters(Map<Long, Long> viewsByPostsIds) {
+        List<Object[]> args = new ArrayList<>(viewsByPostsIds.size());
+        viewsByPostsIds.forEach((postId, views) -> args.add(new Object[]{views, postId}));
+        jdbcTemplate.batchUpdate(INCREMENT_POST_VIEW_COUNTER_QUERY, args);
+    }
+}
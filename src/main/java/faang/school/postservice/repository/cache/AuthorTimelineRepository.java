@@ -0,0 +1,156 @@
+package faang.school.postservice.repository.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import faang.school.postservice.dto.news_feed.FeedCursor;
+import faang.school.postservice.model.cache.PostCacheDto;
+import faang.school.postservice.properties.RedisCacheProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static faang.school.postservice.repository.cache.CacheScores.toScore;
+
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class AuthorTimelineRepository {
+
+    private static final RedisScript<Long> ADD_POST_TO_TIMELINE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/scripts/add_post_to_timeline.lua"), Long.class);
+    private static final String PULL_AUTHORS_INDEX_KEY_SUFFIX = ":last-pulled-at";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisCacheProperties prop;
+
+    @Value(value = "${feed.pull.timeline-size}")
+    private int timelineSize;
+
+    @Value(value = "${feed.pull.authors-local-cache-seconds}")
+    private long pullAuthorsLocalCacheSeconds;
+
+    private LoadingCache<String, Set<Long>> pullAuthorsIdsCache;
+
+    @PostConstruct
+    private void initPullAuthorsIdsCache() {
+        pullAuthorsIdsCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(pullAuthorsLocalCacheSeconds))
+                .build(this::loadPullAuthorsIds);
+    }
+
+    public void addPostToTimeline(PostCacheDto post) {
+        stringRedisTemplate.execute(ADD_POST_TO_TIMELINE_SCRIPT, List.of(generateKey(post.getAuthorId())),
+                String.valueOf(toScore(post.getPublishedAt())),
+                String.valueOf(post.getPostId()),
+                String.valueOf(timelineSize),
+                String.valueOf(getTimelineTtl().toSeconds()));
+        log.info("Added post with id: {} to timeline of author with id: {}", post.getPostId(), post.getAuthorId());
+    }
+
+    public void saveTimeline(long authorId, Collection<PostCacheDto> posts) {
+        if (posts.isEmpty()) {
+            return;
+        }
+        Set<ZSetOperations.TypedTuple<String>> tuples = posts.stream()
+                .map(post -> ZSetOperations.TypedTuple.of(
+                        String.valueOf(post.getPostId()), (double) toScore(post.getPublishedAt())))
+                .collect(Collectors.toSet());
+        String key = generateKey(authorId);
+        stringRedisTemplate.opsForZSet().add(key, tuples);
+        stringRedisTemplate.expire(key, getTimelineTtl());
+        log.info("Saved timeline with {} posts for author with id: {}", tuples.size(), authorId);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<Long, Set<ZSetOperations.TypedTuple<String>>> getTimelines(List<Long> authorsIds,
+                                                                         FeedCursor cursor, int count) {
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            authorsIds.forEach(authorId -> {
+                String key = generateKey(authorId);
+                stringConnection.exists(key);
+                if (cursor == null) {
+                    stringConnection.zRevRangeByScoreWithScores(key, Double.NEGATIVE_INFINITY,
+                            Double.POSITIVE_INFINITY, 0, count);
+                } else {
+                    double cursorScore = toScore(cursor.getPublishedAt());
+                    stringConnection.zRangeByScoreWithScores(key, cursorScore, cursorScore);
+                    stringConnection.zRevRangeByScoreWithScores(key, Double.NEGATIVE_INFINITY, cursorScore - 1,
+                            0, count);
+                }
+            });
+            return null;
+        });
+
+        int commandsPerAuthor = cursor == null ? 2 : 3;
+        Map<Long, Set<ZSetOperations.TypedTuple<String>>> timelines = new HashMap<>();
+        for (int i = 0; i < authorsIds.size(); i++) {
+            int offset = i * commandsPerAuthor;
+            if (!Boolean.TRUE.equals(results.get(offset))) {
+                continue;
+            }
+            Set<ZSetOperations.TypedTuple<String>> timeline = new LinkedHashSet<>();
+            if (cursor != null) {
+                ((Set<ZSetOperations.TypedTuple<String>>) results.get(offset + 1)).stream()
+                        .filter(tuple -> Long.parseLong(tuple.getValue()) < cursor.getPostId())
+                        .forEach(timeline::add);
+            }
+            timeline.addAll((Set<ZSetOperations.TypedTuple<String>>) results.get(offset + commandsPerAuthor - 1));
+            timelines.put(authorsIds.get(i), timeline);
+        }
+        return timelines;
+    }
+
+    public void addPullAuthor(long authorId) {
+        stringRedisTemplate.opsForZSet().add(generatePullAuthorsIndexKey(), String.valueOf(authorId),
+                System.currentTimeMillis());
+    }
+
+    public void removePullAuthor(long authorId) {
+        stringRedisTemplate.opsForZSet().remove(generatePullAuthorsIndexKey(), String.valueOf(authorId));
+        pullAuthorsIdsCache.invalidateAll();
+    }
+
+    public Set<Long> getPullAuthorsIds() {
+        return pullAuthorsIdsCache.get(generatePullAuthorsIndexKey());
+    }
+
+    private Set<Long> loadPullAuthorsIds(String indexKey) {
+        Set<String> authorsIds = stringRedisTemplate.opsForZSet().range(indexKey, 0, -1);
+        if (authorsIds == null) {
+            return Set.of();
+        }
+        return authorsIds.stream()
+                .map(Long::valueOf)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private Duration getTimelineTtl() {
+        return Duration.ofHours(prop.getTimelinesHoursTtl());
+    }
+
+    private String generateKey(long authorId) {
+        return CacheKeys.of(prop.getTimelinesCacheName(), authorId);
+    }
+
+    private String generatePullAuthorsIndexKey() {
+        return prop.getPullAuthorsCacheName() + PULL_AUTHORS_INDEX_KEY_SUFFIX;
+    }
+}
@@ -0,0 +1,11 @@
+package faang.school.postservice.repository.cache;
+
+final class CacheKeys {
+
+    private CacheKeys() {
+    }
+
+    static String of(String cacheName, long id) {
+        return cacheName + "{" + id + "}";
+    }
+}
@@ -0,0 +1,17 @@
+package faang.school.postservice.repository.cache;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+final class CacheScores {
+
+    private CacheScores() {
+    }
+
+    static long toScore(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return 0;
+        }
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
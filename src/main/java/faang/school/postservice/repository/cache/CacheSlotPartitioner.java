@@ -0,0 +1,26 @@
+package faang.school.postservice.repository.cache;
+
+import io.lettuce.core.cluster.SlotHash;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class CacheSlotPartitioner {
+
+    private final boolean clusterMode;
+
+    public <T> Collection<List<T>> partition(Collection<T> items, Function<T, String> keyOf) {
+        if (!clusterMode) {
+            return List.of(List.copyOf(items));
+        }
+        return items.stream()
+                .collect(Collectors.groupingBy(item -> SlotHash.getSlot(keyOf.apply(item)),
+                        LinkedHashMap::new, Collectors.toList()))
+                .values();
+    }
+}
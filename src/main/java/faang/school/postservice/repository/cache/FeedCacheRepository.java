@@ -1,50 +1,180 @@
 package faang.school.postservice.repository.cache;
 
-import faang.school.postservice.model.cache.FeedCacheDto;
+import faang.school.postservice.dto.news_feed.FeedCursor;
+import faang.school.postservice.dto.news_feed.FeedPage;
+import faang.school.postservice.model.cache.PostCacheDto;
+import faang.school.postservice.properties.RedisCacheProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Repository;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static faang.school.postservice.repository.cache.CacheScores.toScore;
 
 @Slf4j
 @Repository
 @RequiredArgsConstructor
 public class FeedCacheRepository {
 
-    private final RedissonClient redissonClient;
-
-    @Cacheable(value = "#{redisCacheProperties.feedsCacheName}", key = "#userId")
-    public FeedCacheDto getFeedCacheByUserId(long userId) {
-        log.info("No news feed found in cache for user with id: {}", userId);
-        return null;
-    }
-
-    @CachePut(value = "#{redisCacheProperties.feedsCacheName}", key = "#feedCacheDto.userId")
-    public FeedCacheDto saveFeedCache(FeedCacheDto feedCacheDto) {
-        String lockKey = "lock:feed:" + feedCacheDto.getUserId();
-        RLock lock = redissonClient.getLock(lockKey);
-        try {
-            if (lock.tryLock(10, 5, TimeUnit.SECONDS)) {
-                try {
-                    return feedCacheDto;
-                } finally {
-                    lock.unlock();
-                }
-            } else {
-                throw new IllegalStateException("Failed to acquire lock");
-            }
-        } catch (InterruptedException e) {
-            throw new RuntimeException("Error during awaiting locking", e);
+    private static final RedisScript<List> ADD_POST_TO_FEEDS_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/scripts/add_post_to_feeds.lua"), List.class);
+    private static final RedisScript<Long> REPLACE_FEED_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/scripts/replace_feed.lua"), Long.class);
+    private static final RedisScript<List> GET_FEED_PAGE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/scripts/get_feed_page.lua"), List.class);
+    private static final RedisScript<Long> RELEASE_LEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/scripts/release_lease.lua"), Long.class);
+    private static final String REBUILD_LEASE_KEY_SUFFIX = ":rebuild-lease";
+    private static final String PENDING_POSTS_KEY_SUFFIX = ":pending";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisCacheProperties prop;
+    private final CacheSlotPartitioner cacheSlotPartitioner;
+
+    @Value(value = "${feed.post.quantity-posts-in-feed}")
+    private int quantityPostsInFeed;
+
+    @Value(value = "${feed.rebuild.lease-ttl-ms}")
+    private long rebuildLeaseTtlMillis;
+
+    @Value(value = "${feed.rebuild.ttl-jitter-percent}")
+    private int ttlJitterPercent;
+
+    public FeedPage getFeedPage(long userId, FeedCursor cursor, int pageSize) {
+        List<?> feedSizeTtlAndPostsIds = stringRedisTemplate.execute(GET_FEED_PAGE_SCRIPT,
+                List.of(generateKey(userId)),
+                cursor == null ? "" : String.valueOf(cursor.getPostId()),
+                cursor == null ? "" : String.valueOf(toScore(cursor.getPublishedAt())),
+                String.valueOf(pageSize));
+        if (feedSizeTtlAndPostsIds == null || (Long) feedSizeTtlAndPostsIds.get(0) == 0) {
+            log.info("No news feed found in cache for user with id: {}", userId);
+            return null;
         }
+        List<Long> postsIds = feedSizeTtlAndPostsIds.stream()
+                .skip(2)
+                .map(postId -> Long.valueOf((String) postId))
+                .toList();
+        return new FeedPage(postsIds, (Long) feedSizeTtlAndPostsIds.get(1));
+    }
+
+    public void saveFeedCache(long userId, Collection<PostCacheDto> posts) {
+        String key = generateKey(userId);
+        stringRedisTemplate.execute(REPLACE_FEED_SCRIPT, List.of(key, key + PENDING_POSTS_KEY_SUFFIX),
+                getReplaceFeedArgs(posts).toArray());
+        log.info("Saved feed with {} posts for user with id: {}", posts.size(), userId);
+    }
+
+    public boolean tryAcquireRebuildLease(long userId, String token) {
+        Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(
+                generateKey(userId) + REBUILD_LEASE_KEY_SUFFIX, token, Duration.ofMillis(rebuildLeaseTtlMillis));
+        return Boolean.TRUE.equals(acquired);
+    }
+
+    public void releaseRebuildLease(long userId, String token) {
+        Long released = stringRedisTemplate.execute(RELEASE_LEASE_SCRIPT,
+                List.of(generateKey(userId) + REBUILD_LEASE_KEY_SUFFIX), token);
+        if (released == null || released == 0) {
+            log.warn("Rebuild lease of feed of user with id: {} expired before release", userId);
+        }
+    }
+
+    public void saveFeedsCaches(Map<Long, ? extends Collection<PostCacheDto>> postsByUsersIds) {
+        String replaceFeedScript = REPLACE_FEED_SCRIPT.getScriptAsString();
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            postsByUsersIds.forEach((userId, posts) -> {
+                String key = generateKey(userId);
+                List<String> keysAndArgs = new ArrayList<>(List.of(key, key + PENDING_POSTS_KEY_SUFFIX));
+                keysAndArgs.addAll(getReplaceFeedArgs(posts));
+                stringConnection.eval(replaceFeedScript, ReturnType.INTEGER, 2, keysAndArgs.toArray(String[]::new));
+            });
+            return null;
+        });
+        log.info("Saved feeds of {} users", postsByUsersIds.size());
+    }
+
+    public boolean addPostToFeed(long userId, PostCacheDto post) {
+        return addPostToFeeds(List.of(userId), post).isEmpty();
+    }
+
+    public List<Long> addPostToFeeds(List<Long> usersIds, PostCacheDto post) {
+        if (usersIds.isEmpty()) {
+            return List.of();
+        }
+        String ttlInSeconds = getTtlInSeconds();
+        List<Long> missedUsersIds = new ArrayList<>();
+        cacheSlotPartitioner.partition(usersIds, this::generateKey).forEach(slotUsersIds ->
+                missedUsersIds.addAll(addPostToSlotFeeds(slotUsersIds, post, ttlInSeconds)));
+        return missedUsersIds;
+    }
+
+    public void deleteFeedsCaches(List<Long> usersIds) {
+        if (usersIds.isEmpty()) {
+            return;
+        }
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            usersIds.forEach(userId -> stringConnection.del(generateKey(userId)));
+            return null;
+        });
+    }
+
+    private List<Long> addPostToSlotFeeds(List<Long> usersIds, PostCacheDto post, String ttlInSeconds) {
+        List<String> keys = new ArrayList<>(usersIds.size() * 3);
+        usersIds.forEach(userId -> {
+            String key = generateKey(userId);
+            keys.add(key);
+            keys.add(key + REBUILD_LEASE_KEY_SUFFIX);
+            keys.add(key + PENDING_POSTS_KEY_SUFFIX);
+        });
+        List<?> missedIndexes = stringRedisTemplate.execute(ADD_POST_TO_FEEDS_SCRIPT, keys,
+                String.valueOf(toScore(post.getPublishedAt())),
+                String.valueOf(post.getPostId()),
+                String.valueOf(quantityPostsInFeed),
+                ttlInSeconds,
+                String.valueOf(rebuildLeaseTtlMillis));
+
+        if (missedIndexes == null) {
+            return List.of();
+        }
+        return missedIndexes.stream()
+                .map(index -> usersIds.get(((Long) index).intValue() - 1))
+                .toList();
+    }
+
+    private List<String> getReplaceFeedArgs(Collection<PostCacheDto> posts) {
+        List<String> args = new ArrayList<>(List.of(String.valueOf(quantityPostsInFeed), getTtlInSeconds()));
+        posts.forEach(post -> {
+            args.add(String.valueOf(toScore(post.getPublishedAt())));
+            args.add(String.valueOf(post.getPostId()));
+        });
+        return args;
+    }
+
+    private String getTtlInSeconds() {
+        return String.valueOf(getJitteredTtlInSeconds());
+    }
+
+    private long getJitteredTtlInSeconds() {
+        long ttlInSeconds = Duration.ofHours(prop.getFeedsHoursTtl()).toSeconds();
+        long maxJitterInSeconds = ttlInSeconds * ttlJitterPercent / 100;
+        return ttlInSeconds - ThreadLocalRandom.current().nextLong(maxJitterInSeconds + 1);
     }
 
-    @CacheEvict(value = "#{redisCacheProperties.feedsCacheName}", key = "#userId")
-    public void deleteFeedCache(long userId) {
+    private String generateKey(long userId) {
+        return CacheKeys.of(prop.getFeedsCacheName(), userId);
     }
 }
@@ -1,159 +1,277 @@
 package faang.school.postservice.repository.cache;
 
+import faang.school.postservice.dto.comment.CacheCommentDto;
+import faang.school.postservice.enums.PostCounter;
+import faang.school.postservice.event.post.PostCacheInvalidationEvent;
 import faang.school.postservice.model.cache.PostCacheDto;
 import faang.school.postservice.properties.RedisCacheProperties;
+import faang.school.postservice.publisher.redis.impl.PostCacheInvalidationPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
-import org.springframework.data.redis.core.Cursor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.zset.DefaultTuple;
+import org.springframework.data.redis.connection.zset.Tuple;
 import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Repository;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import static faang.school.postservice.repository.cache.CacheScores.toScore;
+
 @Slf4j
 @Repository
 @RequiredArgsConstructor
 public class PostCacheRepository {
 
+    private static final RedisScript<String> COMPARE_AND_SET_POSTS_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/scripts/compare_and_set_posts.lua"), String.class);
+    private static final String VERSION_KEY_SUFFIX = ":version";
+    private static final String PUBLISHED_AT_INDEX_KEY_SUFFIX = ":published-at";
+    private static final char WRITTEN_FLAG = '1';
+    private static final char REFRESHED_FLAG = '2';
+    private static final byte[][] COUNTERS_FIELDS = Arrays.stream(PostCounter.values())
+            .map(counter -> counter.getField().getBytes(StandardCharsets.UTF_8))
+            .toArray(byte[][]::new);
+
     private final RedisTemplate<String, Object> redisTemplate;
     private final RedisCacheProperties prop;
-    private final RedissonClient redissonClient;
+    private final PostNearCache postNearCache;
+    private final PostCacheInvalidationPublisher postCacheInvalidationPublisher;
+    private final MeterRegistry meterRegistry;
+    private final CacheSlotPartitioner cacheSlotPartitioner;
 
     public PostCacheDto getPostCache(long postId) {
+        PostCacheDto nearCachedPost = postNearCache.get(postId);
+        if (nearCachedPost != null) {
+            return nearCachedPost;
+        }
         String cacheKey = generateKey(postId);
         Object cachedValue = redisTemplate.opsForValue().get(cacheKey);
         if (cachedValue == null) {
             return null;
         }
-        return (PostCacheDto) cachedValue;
+        PostCacheDto post = (PostCacheDto) cachedValue;
+        postNearCache.put(post);
+        return post;
     }
 
     public void savePostCache(PostCacheDto postCacheDto) {
-        String cacheKey = generateKey(postCacheDto.getPostId());
-        String lockKey = "lock:post:" + postCacheDto.getPostId();
-        RLock lock = redissonClient.getLock(lockKey);
-        long ttlInSeconds = Duration.ofHours(prop.getPostsHoursTtl()).toSeconds();
-
-        try {
-            if (lock.tryLock(10, 5, TimeUnit.SECONDS)) {
-                try {
-                    redisTemplate.opsForValue().set(cacheKey, postCacheDto, ttlInSeconds, TimeUnit.SECONDS);
-                } finally {
-                    lock.unlock();
-                }
-            } else {
-                throw new IllegalStateException("Failed to acquire lock for post with id: " + postCacheDto.getPostId());
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Error during locking for post with id: " + postCacheDto.getPostId(), e);
-        }
+        saveBatchPostsToCache(Set.of(postCacheDto));
     }
 
     public void deletePostCache(long postId) {
-        String cacheKey = generateKey(postId);
-        String lockKey = "lock:post:" + postId;
-        RLock lock = redissonClient.getLock(lockKey);
-
-        try {
-            if (lock.tryLock(10, 5, TimeUnit.SECONDS)) {
-                try {
-                    redisTemplate.delete(cacheKey);
-                } finally {
-                    lock.unlock();
-                }
-            } else {
-                throw new IllegalStateException("Failed to acquire lock for post with id: " + postId);
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Error during locking for post with id: " + postId, e);
+        deleteBatchPostsCaches(List.of(postId));
+    }
+
+    public void deleteBatchPostsCaches(List<Long> postsIds) {
+        if (postsIds.isEmpty()) {
+            return;
         }
+        byte[][] indexMembers = postsIds.stream()
+                .map(postId -> toBytes(String.valueOf(postId)))
+                .toArray(byte[][]::new);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            postsIds.forEach(postId -> connection.keyCommands().del(
+                    toBytes(generateKey(postId)),
+                    toBytes(generateVersionKey(postId)),
+                    toBytes(generateCountersKey(postId)),
+                    toBytes(generateCommentsKey(postId))));
+            connection.zSetCommands().zRem(toBytes(generatePublishedAtIndexKey()), indexMembers);
+            return null;
+        }, null);
+        postNearCache.invalidate(postsIds);
+        publishInvalidation(postsIds);
+    }
+
+    public List<Long> getPostsIdsPublishedBefore(LocalDateTime publishedBefore, int limit) {
+        Set<byte[]> postsIds = redisTemplate.execute((RedisCallback<Set<byte[]>>) connection -> connection
+                .zSetCommands()
+                .zRangeByScore(toBytes(generatePublishedAtIndexKey()),
+                        Double.NEGATIVE_INFINITY, toScore(publishedBefore), 0, limit));
+        if (postsIds == null) {
+            return List.of();
+        }
+        return postsIds.stream()
+                .map(postId -> Long.valueOf(new String(postId, StandardCharsets.UTF_8)))
+                .toList();
     }
 
     public void saveBatchPostsToCache(Set<PostCacheDto> posts) {
-        long ttlInSeconds = Duration.ofHours(prop.getPostsHoursTtl()).toSeconds();
-
-        for (PostCacheDto post : posts) {
-            String lockKey = "lock:post:" + post.getPostId();
-            RLock lock = redissonClient.getLock(lockKey);
-
-            try {
-                if (lock.tryLock(10, 5, TimeUnit.SECONDS)) {
-                    try {
-                        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
-                            String key = generateKey(post.getPostId());
-                            redisTemplate.opsForValue().set(key, post, ttlInSeconds, TimeUnit.SECONDS);
-                            return null;
-                        });
-                    } finally {
-                        lock.unlock();
-                    }
+        if (posts.isEmpty()) {
+            return;
+        }
+        List<PostCacheDto> writtenPosts = new ArrayList<>();
+        List<PostCacheDto> refreshedPosts = new ArrayList<>();
+        List<Long> rejectedPostsIds = new ArrayList<>();
+        cacheSlotPartitioner.partition(posts, post -> generateKey(post.getPostId())).forEach(slotPosts -> {
+            String writtenFlags = compareAndSetPosts(slotPosts);
+            for (int i = 0; i < slotPosts.size(); i++) {
+                PostCacheDto post = slotPosts.get(i);
+                char writtenFlag = writtenFlags == null ? 0 : writtenFlags.charAt(i);
+                if (writtenFlag == WRITTEN_FLAG) {
+                    postNearCache.put(post);
+                    writtenPosts.add(post);
+                } else if (writtenFlag == REFRESHED_FLAG) {
+                    postNearCache.put(post);
+                    refreshedPosts.add(post);
                 } else {
-                    throw new IllegalStateException("Failed to acquire lock for post with id: " + post.getPostId());
+                    rejectedPostsIds.add(post.getPostId());
                 }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException("Error during awaiting locking for post with id: " + post.getPostId(), e);
             }
+        });
+        meterRegistry.counter("post.cache.writes", "result", "written").increment(writtenPosts.size());
+        meterRegistry.counter("post.cache.writes", "result", "refreshed").increment(refreshedPosts.size());
+        if (!rejectedPostsIds.isEmpty()) {
+            meterRegistry.counter("post.cache.writes", "result", "rejected").increment(rejectedPostsIds.size());
+            postNearCache.invalidate(rejectedPostsIds);
+            log.info("Skipped caching {} posts, newer versions of them are already cached", rejectedPostsIds.size());
+        }
+        if (!writtenPosts.isEmpty() || !refreshedPosts.isEmpty()) {
+            List<PostCacheDto> cachedPosts = new ArrayList<>(writtenPosts);
+            cachedPosts.addAll(refreshedPosts);
+            indexPublishedAt(cachedPosts);
+        }
+        if (!writtenPosts.isEmpty()) {
+            publishInvalidation(writtenPosts.stream()
+                    .map(PostCacheDto::getPostId)
+                    .toList());
         }
     }
 
-    public Set<PostCacheDto> getBatchPostsCaches(List<Long> postsIds, List<Long> postsIdsMissedInCache) {
-        List<String> keys = postsIds.stream()
-                .map(this::generateKey)
+    @SuppressWarnings("unchecked")
+    public LinkedHashSet<PostCacheDto> getBatchPostsCaches(List<Long> postsIds, int maxComments,
+                                                           List<Long> postsIdsMissedInCache) {
+        Map<Long, PostCacheDto> nearCachedPosts = postNearCache.getAll(postsIds);
+        List<Long> postsIdsMissedInNearCache = postsIds.stream()
+                .filter(postId -> !nearCachedPosts.containsKey(postId))
                 .toList();
-        List<Object> cachedPosts = redisTemplate.opsForValue().multiGet(keys);
 
-        for (int i = 0; i < cachedPosts.size(); i++) {
-            if (cachedPosts.get(i) == null) {
-                postsIdsMissedInCache.add(postsIds.get(i));
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            postsIdsMissedInNearCache.forEach(postId -> connection.stringCommands()
+                    .get(toBytes(generateKey(postId))));
+            postsIds.forEach(postId -> {
+                connection.hashCommands().hMGet(toBytes(generateCountersKey(postId)), COUNTERS_FIELDS);
+                connection.listCommands().lRange(toBytes(generateCommentsKey(postId)), 0, maxComments - 1);
+            });
+            return null;
+        }, null);
+
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        Map<Long, PostCacheDto> postsByIds = new HashMap<>(nearCachedPosts);
+        for (int i = 0; i < postsIdsMissedInNearCache.size(); i++) {
+            byte[] cachedPost = (byte[]) results.get(i);
+            if (cachedPost == null) {
+                postsIdsMissedInCache.add(postsIdsMissedInNearCache.get(i));
+            } else {
+                PostCacheDto post = (PostCacheDto) valueSerializer.deserialize(cachedPost);
+                postNearCache.put(post);
+                postsByIds.put(post.getPostId(), post);
             }
         }
 
-        return cachedPosts.stream()
-                .filter(Objects::nonNull)
-                .map(post -> (PostCacheDto) post)
-                .collect(Collectors.toSet());
+        LinkedHashSet<PostCacheDto> posts = new LinkedHashSet<>();
+        int resultIndex = postsIdsMissedInNearCache.size();
+        for (Long postId : postsIds) {
+            List<byte[]> counters = (List<byte[]>) results.get(resultIndex++);
+            List<byte[]> comments = (List<byte[]>) results.get(resultIndex++);
+            PostCacheDto post = postsByIds.get(postId);
+            if (post != null) {
+                mergeCounters(post, counters);
+                mergeComments(post, comments, valueSerializer);
+                posts.add(post);
+            }
+        }
+        return posts;
     }
 
-    public List<PostCacheDto> getAllCachesPosts(int size, long page) {
-        List<PostCacheDto> posts = new ArrayList<>();
-        long currentIndex = 0;
+    @SuppressWarnings("unchecked")
+    private String compareAndSetPosts(List<PostCacheDto> posts) {
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        List<String> keys = new ArrayList<>(posts.size() * 2);
+        List<byte[]> args = new ArrayList<>(posts.size() * 2 + 1);
+        args.add(toBytes(String.valueOf(Duration.ofHours(prop.getPostsHoursTtl()).toSeconds())));
+        posts.forEach(post -> {
+            keys.add(generateKey(post.getPostId()));
+            keys.add(generateVersionKey(post.getPostId()));
+            args.add(toBytes(String.valueOf(toScore(post.getUpdatedAt()))));
+            args.add(valueSerializer.serialize(post));
+        });
+        return redisTemplate.execute(COMPARE_AND_SET_POSTS_SCRIPT, RedisSerializer.byteArray(), RedisSerializer.string(),
+                keys, args.toArray());
+    }
 
-        try (Cursor<Map.Entry<Object, Object>> cursor = redisTemplate.opsForHash()
-                .scan(prop.getPostsCacheName(), ScanOptions.scanOptions().count(size).build())) {
+    private void indexPublishedAt(List<PostCacheDto> posts) {
+        Set<Tuple> tuples = posts.stream()
+                .map(post -> new DefaultTuple(toBytes(String.valueOf(post.getPostId())),
+                        (double) toScore(post.getPublishedAt())))
+                .collect(Collectors.toSet());
+        redisTemplate.execute((RedisCallback<Long>) connection -> connection.zSetCommands()
+                .zAdd(toBytes(generatePublishedAtIndexKey()), tuples));
+    }
 
-            while (cursor.hasNext()) {
-                Map.Entry<Object, Object> entry = cursor.next();
+    private void publishInvalidation(List<Long> postsIds) {
+        postCacheInvalidationPublisher.publish(PostCacheInvalidationEvent.builder()
+                .instanceId(postNearCache.getInstanceId())
+                .postsIds(postsIds)
+                .build());
+    }
 
-                if (currentIndex++ < page) {
-                    continue;
-                }
+    private void mergeCounters(PostCacheDto post, List<byte[]> counters) {
+        if (counters == null) {
+            return;
+        }
+        post.setLikesCount(toCounter(counters.get(PostCounter.LIKES.ordinal()), post.getLikesCount()));
+        post.setPostViewsCount(toCounter(counters.get(PostCounter.VIEWS.ordinal()), post.getPostViewsCount()));
+        post.setCommentsCount(toCounter(counters.get(PostCounter.COMMENTS.ordinal()), post.getCommentsCount()));
+    }
 
-                posts.add((PostCacheDto) entry.getValue());
-                if (posts.size() >= size) {
-                    break;
-                }
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to fetch posts from cache", e);
+    private void mergeComments(PostCacheDto post, List<byte[]> comments, RedisSerializer<Object> valueSerializer) {
+        LinkedHashSet<CacheCommentDto> postComments = new LinkedHashSet<>();
+        if (comments != null) {
+            comments.forEach(comment -> postComments.add((CacheCommentDto) valueSerializer.deserialize(comment)));
         }
-        return posts;
+        post.setComments(postComments);
+    }
+
+    private long toCounter(byte[] value, long defaultValue) {
+        return value == null ? defaultValue : Long.parseLong(new String(value, StandardCharsets.UTF_8));
+    }
+
+    private byte[] toBytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
     }
 
     private String generateKey(long postId) {
-        return prop.getPostsCacheName() + postId;
+        return CacheKeys.of(prop.getPostsCacheName(), postId);
+    }
+
+    private String generateVersionKey(long postId) {
+        return generateKey(postId) + VERSION_KEY_SUFFIX;
+    }
+
+    private String generateCountersKey(long postId) {
+        return CacheKeys.of(prop.getPostCountersCacheName(), postId);
+    }
+
+    private String generateCommentsKey(long postId) {
+        return CacheKeys.of(prop.getPostCommentsCacheName(), postId);
+    }
+
+    private String generatePublishedAtIndexKey() {
+        return prop.getPostsCacheName() + PUBLISHED_AT_INDEX_KEY_SUFFIX;
     }
 }
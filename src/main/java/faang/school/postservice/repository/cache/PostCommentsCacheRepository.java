@@ -0,0 +1,141 @@
+package faang.school.postservice.repository.cache;
+
+import faang.school.postservice.dto.comment.CacheCommentDto;
+import faang.school.postservice.model.cache.PostCacheDto;
+import faang.school.postservice.properties.RedisCacheProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class PostCommentsCacheRepository {
+
+    private static final RedisScript<Long> PUSH_POST_COMMENTS_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/scripts/push_post_comments.lua"), Long.class);
+    private static final RedisScript<Long> SEED_POST_COMMENTS_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/scripts/seed_post_comments.lua"), Long.class);
+    private static final RedisSerializer<Long> SCRIPT_RESULT_SERIALIZER = new GenericToStringSerializer<>(Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisCacheProperties prop;
+    private final CacheSlotPartitioner cacheSlotPartitioner;
+
+    public int pushComments(Map<Long, List<CacheCommentDto>> commentsByPostsIds, int maxComments) {
+        if (commentsByPostsIds.isEmpty()) {
+            return 0;
+        }
+        return cacheSlotPartitioner.partition(commentsByPostsIds.entrySet(), entry -> generateKey(entry.getKey()))
+                .stream()
+                .mapToInt(slotComments -> pushSlotComments(slotComments, maxComments))
+                .sum();
+    }
+
+    public void seedComments(Collection<PostCacheDto> posts, int maxComments) {
+        List<PostCacheDto> postsWithComments = posts.stream()
+                .filter(post -> post.getComments() != null && !post.getComments().isEmpty())
+                .toList();
+        if (postsWithComments.isEmpty()) {
+            return;
+        }
+        long seededPostsCount = cacheSlotPartitioner.partition(postsWithComments, post -> generateKey(post.getPostId()))
+                .stream()
+                .mapToLong(slotPosts -> seedSlotComments(slotPosts, maxComments))
+                .sum();
+        log.debug("Seeded latest comments of {} posts", seededPostsCount);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<Long, LinkedHashSet<CacheCommentDto>> getComments(List<Long> postsIds, int maxComments) {
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            postsIds.forEach(postId -> connection.listCommands()
+                    .lRange(generateKey(postId).getBytes(StandardCharsets.UTF_8), 0, maxComments - 1));
+            return null;
+        });
+
+        Map<Long, LinkedHashSet<CacheCommentDto>> commentsByPostsIds = new HashMap<>();
+        for (int i = 0; i < postsIds.size(); i++) {
+            List<Object> comments = (List<Object>) results.get(i);
+            if (comments != null && !comments.isEmpty()) {
+                LinkedHashSet<CacheCommentDto> postComments = new LinkedHashSet<>();
+                comments.forEach(comment -> postComments.add((CacheCommentDto) comment));
+                commentsByPostsIds.put(postsIds.get(i), postComments);
+            }
+        }
+        return commentsByPostsIds;
+    }
+
+    public void deleteComments(long postId) {
+        redisTemplate.delete(generateKey(postId));
+    }
+
+    private int pushSlotComments(List<Map.Entry<Long, List<CacheCommentDto>>> commentsByPostsIds, int maxComments) {
+        List<String> keys = new ArrayList<>(commentsByPostsIds.size() * 2);
+        List<byte[]> counts = new ArrayList<>(commentsByPostsIds.size());
+        List<byte[]> comments = new ArrayList<>();
+        commentsByPostsIds.forEach(entry -> {
+            keys.add(generateKey(entry.getKey()));
+            keys.add(CacheKeys.of(prop.getPostsCacheName(), entry.getKey()));
+            counts.add(toArg(entry.getValue().size()));
+            entry.getValue().forEach(comment -> comments.add(serialize(comment)));
+        });
+
+        Long pushedPostsCount = executeScript(PUSH_POST_COMMENTS_SCRIPT, keys, maxComments, counts, comments);
+        return pushedPostsCount == null ? 0 : pushedPostsCount.intValue();
+    }
+
+    private long seedSlotComments(List<PostCacheDto> posts, int maxComments) {
+        List<String> keys = new ArrayList<>(posts.size());
+        List<byte[]> counts = new ArrayList<>(posts.size());
+        List<byte[]> comments = new ArrayList<>();
+        posts.forEach(post -> {
+            keys.add(generateKey(post.getPostId()));
+            counts.add(toArg(post.getComments().size()));
+            post.getComments().forEach(comment -> comments.add(serialize(comment)));
+        });
+
+        Long seededPostsCount = executeScript(SEED_POST_COMMENTS_SCRIPT, keys, maxComments, counts, comments);
+        return seededPostsCount == null ? 0 : seededPostsCount;
+    }
+
+    private Long executeScript(RedisScript<Long> script, List<String> keys, int maxComments,
+                               List<byte[]> counts, List<byte[]> comments) {
+        long ttlInSeconds = Duration.ofHours(prop.getPostsHoursTtl()).toSeconds();
+        List<byte[]> args = new ArrayList<>(2 + counts.size() + comments.size());
+        args.add(toArg(maxComments));
+        args.add(toArg(ttlInSeconds));
+        args.addAll(counts);
+        args.addAll(comments);
+        return redisTemplate.execute(script, RedisSerializer.byteArray(), SCRIPT_RESULT_SERIALIZER,
+                keys, args.toArray());
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] serialize(CacheCommentDto comment) {
+        return ((RedisSerializer<Object>) redisTemplate.getValueSerializer()).serialize(comment);
+    }
+
+    private byte[] toArg(long value) {
+        return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String generateKey(long postId) {
+        return CacheKeys.of(prop.getPostCommentsCacheName(), postId);
+    }
+}
@@ -0,0 +1,117 @@
+package faang.school.postservice.repository.cache;
+
+import faang.school.postservice.enums.PostCounter;
+import faang.school.postservice.model.cache.PostCacheDto;
+import faang.school.postservice.properties.RedisCacheProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class PostCountersRepository {
+
+    private static final RedisScript<List> INCREMENT_POST_COUNTERS_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/scripts/increment_post_counters.lua"), List.class);
+    private static final String[] COUNTERS_FIELDS = Arrays.stream(PostCounter.values())
+            .map(PostCounter::getField)
+            .toArray(String[]::new);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisCacheProperties prop;
+    private final CacheSlotPartitioner cacheSlotPartitioner;
+
+    public int incrementCounters(PostCounter counter, Map<Long, Long> deltasByPostsIds) {
+        if (deltasByPostsIds.isEmpty()) {
+            return 0;
+        }
+        return cacheSlotPartitioner.partition(deltasByPostsIds.entrySet(), entry -> generateKey(entry.getKey()))
+                .stream()
+                .mapToInt(slotDeltas -> incrementSlotCounters(counter, slotDeltas))
+                .sum();
+    }
+
+    public void seedCounters(Collection<PostCacheDto> posts) {
+        if (posts.isEmpty()) {
+            return;
+        }
+        long ttlInSeconds = Duration.ofHours(prop.getPostsHoursTtl()).toSeconds();
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            posts.forEach(post -> {
+                String key = generateKey(post.getPostId());
+                stringConnection.hSetNX(key, PostCounter.LIKES.getField(), String.valueOf(post.getLikesCount()));
+                stringConnection.hSetNX(key, PostCounter.VIEWS.getField(), String.valueOf(post.getPostViewsCount()));
+                stringConnection.hSetNX(key, PostCounter.COMMENTS.getField(), String.valueOf(post.getCommentsCount()));
+                stringConnection.expire(key, ttlInSeconds);
+            });
+            return null;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<Long, Map<PostCounter, Long>> getCounters(List<Long> postsIds) {
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            postsIds.forEach(postId -> stringConnection.hMGet(generateKey(postId), COUNTERS_FIELDS));
+            return null;
+        });
+
+        Map<Long, Map<PostCounter, Long>> countersByPostsIds = new HashMap<>();
+        for (int i = 0; i < postsIds.size(); i++) {
+            List<String> values = (List<String>) results.get(i);
+            Map<PostCounter, Long> counters = new EnumMap<>(PostCounter.class);
+            for (PostCounter counter : PostCounter.values()) {
+                String value = values == null ? null : values.get(counter.ordinal());
+                if (value != null) {
+                    counters.put(counter, Long.valueOf(value));
+                }
+            }
+            if (!counters.isEmpty()) {
+                countersByPostsIds.put(postsIds.get(i), counters);
+            }
+        }
+        return countersByPostsIds;
+    }
+
+    public void deleteCounters(long postId) {
+        stringRedisTemplate.delete(generateKey(postId));
+    }
+
+    private int incrementSlotCounters(PostCounter counter, List<Map.Entry<Long, Long>> deltasByPostsIds) {
+        List<String> keys = new ArrayList<>(deltasByPostsIds.size());
+        List<String> args = new ArrayList<>(deltasByPostsIds.size() + 1);
+        args.add(counter.getField());
+        deltasByPostsIds.forEach(entry -> {
+            keys.add(generateKey(entry.getKey()));
+            args.add(String.valueOf(entry.getValue()));
+        });
+
+        List<?> values = stringRedisTemplate.execute(INCREMENT_POST_COUNTERS_SCRIPT, keys, args.toArray());
+        if (values == null) {
+            return 0;
+        }
+        return (int) values.stream()
+                .filter(value -> (Long) value >= 0)
+                .count();
+    }
+
+    private String generateKey(long postId) {
+        return CacheKeys.of(prop.getPostCountersCacheName(), postId);
+    }
+}
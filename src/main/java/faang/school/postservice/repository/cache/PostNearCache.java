@@ -0,0 +1,84 @@
+package faang.school.postservice.repository.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import faang.school.postservice.dto.comment.CacheCommentDto;
+import faang.school.postservice.mapper.post.PostMapper;
+import faang.school.postservice.model.cache.PostCacheDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class PostNearCache {
+
+    private static final String CACHE_NAME = "posts-near-cache";
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    @Getter
+    private final String instanceId = UUID.randomUUID().toString();
+    private final PostMapper postMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value(value = "${feed.post.near-cache.maximum-weight-bytes}")
+    private long maximumWeightBytes;
+
+    @Value(value = "${feed.post.near-cache.expire-after-write-seconds}")
+    private long expireAfterWriteSeconds;
+
+    private Cache<Long, PostCacheDto> cache;
+
+    @PostConstruct
+    private void initCache() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeightBytes)
+                .weigher((Long postId, PostCacheDto post) -> weigh(post))
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public PostCacheDto get(long postId) {
+        PostCacheDto post = cache.getIfPresent(postId);
+        return post == null ? null : postMapper.copyPostCacheDto(post);
+    }
+
+    public Map<Long, PostCacheDto> getAll(Collection<Long> postsIds) {
+        return cache.getAllPresent(postsIds).entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> postMapper.copyPostCacheDto(entry.getValue())));
+    }
+
+    public void put(PostCacheDto post) {
+        cache.put(post.getPostId(), postMapper.copyPostCacheDto(post));
+    }
+
+    public void invalidate(Collection<Long> postsIds) {
+        cache.invalidateAll(postsIds);
+    }
+
+    private int weigh(PostCacheDto post) {
+        int weight = ENTRY_OVERHEAD_BYTES + textWeight(post.getContent());
+        if (post.getComments() != null) {
+            for (CacheCommentDto comment : post.getComments()) {
+                weight += ENTRY_OVERHEAD_BYTES + textWeight(comment.getContent());
+            }
+        }
+        return weight;
+    }
+
+    private int textWeight(String text) {
+        return text == null ? 0 : text.length() * Character.BYTES;
+    }
+}
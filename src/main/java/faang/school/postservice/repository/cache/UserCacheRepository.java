@@ -1,59 +1,105 @@
 package faang.school.postservice.repository.cache;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import faang.school.postservice.model.cache.UserCacheDto;
 import faang.school.postservice.properties.RedisCacheProperties;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.core.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.zset.DefaultTuple;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.stereotype.Repository;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static faang.school.postservice.repository.cache.CacheScores.toScore;
 
 @Repository
 @RequiredArgsConstructor
 public class UserCacheRepository {
 
+    private static final String LAST_ACTIVE_INDEX_KEY_SUFFIX = ":last-active";
+
     private final RedisTemplate<String, Object> redisTemplate;
     private final RedisCacheProperties prop;
 
+    @Value(value = "${feed.last-active.record-interval-minutes}")
+    private long lastActiveRecordIntervalMinutes;
+
+    @Value(value = "${feed.last-active.recorded-users-maximum-size}")
+    private long recordedUsersMaximumSize;
+
+    private Cache<Long, Boolean> recentlyRecordedUsersIds;
+    private Cache<Long, Boolean> recentlyIndexedUsersIds;
+
+    @PostConstruct
+    private void initRecentlyRecordedUsersIds() {
+        recentlyRecordedUsersIds = Caffeine.newBuilder()
+                .maximumSize(recordedUsersMaximumSize)
+                .expireAfterWrite(Duration.ofMinutes(lastActiveRecordIntervalMinutes))
+                .build();
+        recentlyIndexedUsersIds = Caffeine.newBuilder()
+                .maximumSize(recordedUsersMaximumSize)
+                .expireAfterWrite(Duration.ofMinutes(lastActiveRecordIntervalMinutes))
+                .build();
+    }
+
     public UserCacheDto getCacheUserDto(long userId) {
         String key = generateKey(userId);
         Object cachedValue = redisTemplate.opsForValue().get(key);
         return cachedValue != null ? (UserCacheDto) cachedValue : null;
     }
 
-    public void deleteCacheUserDto(long userId) {
-        String key = generateKey(userId);
-        redisTemplate.delete(key);
+    public void saveLastActive(long userId, LocalDateTime lastActiveAt) {
+        if (recentlyRecordedUsersIds.asMap().putIfAbsent(userId, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.zSetCommands()
+                    .zAdd(toBytes(generateLastActiveIndexKey()), toScore(lastActiveAt),
+                            toBytes(String.valueOf(userId))));
+        } catch (RuntimeException e) {
+            recentlyRecordedUsersIds.invalidate(userId);
+            throw e;
+        }
     }
 
-    public List<UserCacheDto> getAllCachesUsers(int size, long page) {
-        List<UserCacheDto> users = new ArrayList<>();
-        long currentIndex = 0;
-
-        try (Cursor<Map.Entry<Object, Object>> cursor = redisTemplate.opsForHash()
-                .scan(prop.getUsersCacheName(), ScanOptions.scanOptions().count(size).build())) {
-
-            while (cursor.hasNext()) {
-                Map.Entry<Object, Object> entry = cursor.next();
-
-                if (currentIndex++ < page) {
-                    continue;
-                }
+    public List<Long> getUsersIdsLastActiveBefore(LocalDateTime lastActiveBefore, int limit) {
+        Set<byte[]> usersIds = redisTemplate.execute((RedisCallback<Set<byte[]>>) connection -> connection
+                .zSetCommands()
+                .zRangeByScore(toBytes(generateLastActiveIndexKey()),
+                        Double.NEGATIVE_INFINITY, toScore(lastActiveBefore), 0, limit));
+        if (usersIds == null) {
+            return List.of();
+        }
+        return usersIds.stream()
+                .map(userId -> Long.valueOf(new String(userId, StandardCharsets.UTF_8)))
+                .toList();
+    }
 
-                users.add((UserCacheDto) entry.getValue());
-                if (users.size() >= size) {
-                    break;
-                }
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to fetch users from cache", e);
+    public void deleteBatchCacheUsers(List<Long> usersIds) {
+        if (usersIds.isEmpty()) {
+            return;
         }
-        return users;
+        byte[][] indexMembers = usersIds.stream()
+                .map(userId -> toBytes(String.valueOf(userId)))
+                .toArray(byte[][]::new);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            usersIds.forEach(userId -> connection.keyCommands().del(toBytes(generateKey(userId))));
+            connection.zSetCommands().zRem(toBytes(generateLastActiveIndexKey()), indexMembers);
+            return null;
+        }, null);
     }
 
     public List<UserCacheDto> getBatchCacheUserDto(List<Long> userIds, List<Long> usersIdsMissedInCache) {
@@ -63,11 +109,15 @@ public class UserCacheRepository {
 
         List<Object> cachedUsers = redisTemplate.opsForValue().multiGet(keys);
 
+        List<Long> cachedUsersIds = new ArrayList<>();
         for (int i = 0; i < cachedUsers.size(); i++) {
             if (cachedUsers.get(i) == null) {
                 usersIdsMissedInCache.add(userIds.get(i));
+            } else {
+                cachedUsersIds.add(userIds.get(i));
             }
         }
+        indexCachedUsers(cachedUsersIds);
 
         return cachedUsers.stream()
                 .filter(Objects::nonNull)
@@ -75,7 +125,35 @@ public class UserCacheRepository {
                 .toList();
     }
 
+    private void indexCachedUsers(List<Long> usersIds) {
+        List<Long> usersIdsToIndex = usersIds.stream()
+                .filter(userId -> recentlyIndexedUsersIds.asMap().putIfAbsent(userId, Boolean.TRUE) == null)
+                .toList();
+        if (usersIdsToIndex.isEmpty()) {
+            return;
+        }
+        double now = toScore(LocalDateTime.now());
+        Set<Tuple> tuples = usersIdsToIndex.stream()
+                .map(userId -> new DefaultTuple(toBytes(String.valueOf(userId)), now))
+                .collect(Collectors.toSet());
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.zSetCommands()
+                    .zAdd(toBytes(generateLastActiveIndexKey()), tuples, RedisZSetCommands.ZAddArgs.ifNotExists()));
+        } catch (RuntimeException e) {
+            recentlyIndexedUsersIds.invalidateAll(usersIdsToIndex);
+            throw e;
+        }
+    }
+
+    private byte[] toBytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
     private String generateKey(long userId) {
         return prop.getUsersCacheName() + userId;
     }
+
+    private String generateLastActiveIndexKey() {
+        return prop.getUsersCacheName() + LAST_ACTIVE_INDEX_KEY_SUFFIX;
+    }
 }
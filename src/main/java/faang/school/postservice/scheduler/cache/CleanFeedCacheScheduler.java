@@ -1,8 +1,7 @@
 package faang.school.postservice.scheduler.cache;
 
 import faang.school.postservice.config.async.ThreadPoolConfig;
-import faang.school.postservice.model.cache.PostCacheDto;
-import faang.school.postservice.model.cache.UserCacheDto;
+import faang.school.postservice.repository.FeedItemRepository;
 import faang.school.postservice.repository.cache.FeedCacheRepository;
 import faang.school.postservice.repository.cache.PostCacheRepository;
 import faang.school.postservice.repository.cache.UserCacheRepository;
@@ -23,6 +22,7 @@ public class CleanFeedCacheScheduler {
     private final PostCacheRepository postCacheRepository;
     private final UserCacheRepository userCacheRepository;
     private final FeedCacheRepository feedCacheRepository;
+    private final FeedItemRepository feedItemRepository;
     private final ThreadPoolConfig poolConfig;
 
     @Value("${feed.clean-cache.clean-cache-batch}")
@@ -31,6 +31,15 @@ public class CleanFeedCacheScheduler {
     @Value("${feed.clean-cache.post-published-days-ago}")
     private int heaterPostPublishedDaysAgo;
 
+    @Value("${feed.clean-cache.user-inactive-days}")
+    private int userInactiveDays;
+
+    @Value("${feed.store.retention-days}")
+    private int feedStoreRetentionDays;
+
+    @Value("${feed.store.delete-batch-size}")
+    private int feedStoreDeleteBatchSize;
+
     @Scheduled(cron = "${cron.clean-feed-cache}")
     public void cleanCache() {
         log.info("Start cleaning unused cache");
@@ -39,43 +48,47 @@ public class CleanFeedCacheScheduler {
         log.info("Finish cleaning unused cache");
     }
 
+    @Scheduled(cron = "${cron.clean-feed-store}")
+    public void cleanFeedStore() {
+        LocalDateTime thresholdDate = LocalDateTime.now().minusDays(feedStoreRetentionDays);
+        long deletedItems = 0;
+        for (int partition = 0; partition < FeedItemRepository.PARTITIONS_COUNT; partition++) {
+            int deletedBatch;
+            do {
+                deletedBatch = feedItemRepository.deleteFeedItemsPublishedBefore(partition, thresholdDate,
+                        feedStoreDeleteBatchSize);
+                deletedItems += deletedBatch;
+            } while (deletedBatch == feedStoreDeleteBatchSize);
+        }
+        log.info("Deleted {} feed items published before {}", deletedItems, thresholdDate);
+    }
+
     private void cleanFeedAndUsersCache() {
-        List<UserCacheDto> batchUsers;
-        long usersOffset = 0;
-        do {
-            batchUsers = userCacheRepository.getAllCachesUsers(batchSize, usersOffset);
-            batchUsers.forEach(userCacheDto -> {
-                try {
-                    if (!userCacheDto.isActive()) {
-                        userCacheRepository.deleteCacheUserDto(userCacheDto.getUserId());
-                        feedCacheRepository.deleteFeedCache(userCacheDto.getUserId());
-                        log.info("User with id {} was deleted from cache", userCacheDto.getUserId());
-                    }
-                } catch (Exception e) {
-                    log.error("Failed to clean cache for userId: {}", userCacheDto.getUserId(), e);
-                }
-            });
-            usersOffset += batchSize;
-        } while (!batchUsers.isEmpty());
+        LocalDateTime thresholdDate = LocalDateTime.now().minusDays(userInactiveDays);
+        List<Long> usersIds;
+        try {
+            do {
+                usersIds = userCacheRepository.getUsersIdsLastActiveBefore(thresholdDate, batchSize);
+                feedCacheRepository.deleteFeedsCaches(usersIds);
+                userCacheRepository.deleteBatchCacheUsers(usersIds);
+                log.info("{} users inactive since {} were deleted from cache", usersIds.size(), thresholdDate);
+            } while (usersIds.size() == batchSize);
+        } catch (Exception e) {
+            log.error("Failed to clean cache of users inactive since {}", thresholdDate, e);
+        }
     }
 
     private void cleanPostsCache() {
-        List<PostCacheDto> batchPosts;
-        long postsOffset = 0;
-        do {
-            batchPosts = postCacheRepository.getAllCachesPosts(batchSize, postsOffset);
-            batchPosts.forEach(postCacheDto -> {
-                LocalDateTime thresholdDate = LocalDateTime.now().minusDays(heaterPostPublishedDaysAgo);
-                try {
-                    if (postCacheDto.getPublishedAt().isBefore(thresholdDate)) {
-                        postCacheRepository.deletePostCache(postCacheDto.getPostId());
-                        log.info("Post with id {} was deleted from cache", postCacheDto.getPostId());
-                    }
-                } catch (Exception e) {
-                    log.error("Failed to clean cache for postId: {}", postCacheDto.getPostId(), e);
-                }
-            });
-            postsOffset += batchSize;
-        } while (!batchPosts.isEmpty());
+        LocalDateTime thresholdDate = LocalDateTime.now().minusDays(heaterPostPublishedDaysAgo);
+        List<Long> postsIds;
+        try {
+            do {
+                postsIds = postCacheRepository.getPostsIdsPublishedBefore(thresholdDate, batchSize);
+                postCacheRepository.deleteBatchPostsCaches(postsIds);
+                log.info("{} posts published before {} were deleted from cache", postsIds.size(), thresholdDate);
+            } while (postsIds.size() == batchSize);
+        } catch (Exception e) {
+            log.error("Failed to clean cache of posts published before {}", thresholdDate, e);
+        }
     }
 }
@@ -0,0 +1,25 @@
+package faang.school.postservice.scheduler.post_existence;
+
+import faang.school.postservice.config.async.ThreadPoolConfig;
+import faang.school.postservice.service.post.PostExistenceFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class PostExistenceFilterScheduler {
+
+    private final PostExistenceFilter postExistenceFilter;
+    private final ThreadPoolConfig poolConfig;
+
+    @Scheduled(fixedDelayString = "${feed.post.existence-filter.refresh-interval-ms}")
+    public void refreshPostExistenceFilter() {
+        poolConfig.postTaskExecutor().execute(postExistenceFilter::refresh);
+    }
+
+    @Scheduled(cron = "${cron.rebuild-post-existence-filter}")
+    public void rebuildPostExistenceFilter() {
+        poolConfig.postTaskExecutor().execute(postExistenceFilter::rebuild);
+    }
+}
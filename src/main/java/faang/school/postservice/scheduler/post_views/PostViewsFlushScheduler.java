@@ -0,0 +1,18 @@
+package faang.school.postservice.scheduler.post_views;
+
+import faang.school.postservice.service.post.PostViewAggregator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class PostViewsFlushScheduler {
+
+    private final PostViewAggregator postViewAggregator;
+
+    @Scheduled(fixedDelayString = "${feed.post.views.flush-interval-ms}")
+    public void flushPostViews() {
+        postViewAggregator.flush();
+    }
+}
@@ -0,0 +1,20 @@
+package faang.school.postservice.scheduler.pull_authors;
+
+import faang.school.postservice.config.async.ThreadPoolConfig;
+import faang.school.postservice.service.post.PostService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class PullAuthorsRefreshScheduler {
+
+    private final PostService postService;
+    private final ThreadPoolConfig poolConfig;
+
+    @Scheduled(cron = "${cron.refresh-pull-authors}")
+    public void refreshPullAuthors() {
+        poolConfig.postTaskExecutor().execute(postService::refreshPullAuthors);
+    }
+}
@@ -0,0 +1,14 @@
+package faang.school.postservice.serializer;
+
+public interface BinaryCodec<T> {
+
+    byte getTypeId();
+
+    byte getSchemaVersion();
+
+    Class<T> getType();
+
+    void write(T value, BinaryWriter writer, byte schemaVersion);
+
+    T read(BinaryReader reader, byte schemaVersion);
+}
@@ -0,0 +1,76 @@
+package faang.school.postservice.serializer;
+
+import faang.school.postservice.exception.BinaryFormatException;
+import faang.school.postservice.properties.BinaryCodecProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class BinaryCodecRegistry {
+
+    private final Map<Class<?>, BinaryCodec<?>> codecsByTypes = new HashMap<>();
+    private final Map<Byte, BinaryCodec<?>> codecsByTypesIds = new HashMap<>();
+    private final Map<Byte, Byte> writeVersionsByTypesIds = new HashMap<>();
+
+    public BinaryCodecRegistry(List<BinaryCodec<?>> codecs) {
+        this(codecs, new BinaryCodecProperties());
+    }
+
+    @Autowired
+    public BinaryCodecRegistry(List<BinaryCodec<?>> codecs, BinaryCodecProperties properties) {
+        Map<String, BinaryCodec<?>> codecsByTypesNames = new HashMap<>();
+        codecs.forEach(codec -> {
+            if (codecsByTypesIds.put(codec.getTypeId(), codec) != null) {
+                throw new IllegalStateException("Duplicated binary codec type id: " + codec.getTypeId());
+            }
+            codecsByTypes.put(codec.getType(), codec);
+            codecsByTypesNames.put(codec.getType().getSimpleName(), codec);
+        });
+        properties.getWriteVersions().forEach((typeName, writeVersion) -> {
+            BinaryCodec<?> codec = codecsByTypesNames.get(typeName);
+            if (codec == null) {
+                throw new IllegalStateException("Write version configured for unknown binary codec type: " + typeName);
+            }
+            if (writeVersion < 1 || writeVersion > codec.getSchemaVersion()) {
+                throw new IllegalStateException("Unsupported write version %d of %s, latest known is %d"
+                        .formatted(writeVersion, typeName, codec.getSchemaVersion()));
+            }
+            writeVersionsByTypesIds.put(codec.getTypeId(), writeVersion);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> BinaryCodec<T> findCodec(Class<T> type) {
+        return (BinaryCodec<T>) codecsByTypes.get(type);
+    }
+
+    public BinaryCodec<?> getCodec(byte typeId) {
+        BinaryCodec<?> codec = codecsByTypesIds.get(typeId);
+        if (codec == null) {
+            throw new BinaryFormatException("Unknown binary codec type id: " + typeId);
+        }
+        return codec;
+    }
+
+    public byte getWriteVersion(BinaryCodec<?> codec) {
+        return writeVersionsByTypesIds.getOrDefault(codec.getTypeId(), codec.getSchemaVersion());
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> byte[] write(BinaryCodec<T> codec, byte schemaVersion, Object value, byte... header) {
+        BinaryWriter writer = new BinaryWriter(writeVersionsByTypesIds);
+        for (byte headerByte : header) {
+            writer.writeByte(headerByte);
+        }
+        codec.write((T) value, writer, schemaVersion);
+        return writer.toByteArray();
+    }
+
+    public Object read(BinaryCodec<?> codec, byte schemaVersion, byte[] bytes, int offset) {
+        return new BinaryReader(bytes, offset).readVersioned(codec, schemaVersion);
+    }
+}
@@ -0,0 +1,90 @@
+package faang.school.postservice.serializer;
+
+import faang.school.postservice.exception.BinaryFormatException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+public class BinaryReader {
+
+    private final byte[] buffer;
+    private int position;
+
+    public BinaryReader(byte[] buffer, int offset) {
+        this.buffer = buffer;
+        this.position = offset;
+    }
+
+    public int readByte() {
+        if (position >= buffer.length) {
+            throw new BinaryFormatException("Unexpected end of binary payload");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public long readVarLong() {
+        long zigZag = 0;
+        int shift = 0;
+        int current;
+        do {
+            current = readByte();
+            zigZag |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+
+    public Long readNullableLong() {
+        return readBoolean() ? readVarLong() : null;
+    }
+
+    public String readString() {
+        byte[] value = readBytes();
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    public byte[] readBytes() {
+        int length = (int) readVarLong();
+        if (length < 0) {
+            return null;
+        }
+        if (position + length > buffer.length) {
+            throw new BinaryFormatException("Unexpected end of binary payload");
+        }
+        byte[] value = new byte[length];
+        System.arraycopy(buffer, position, value, 0, length);
+        position += length;
+        return value;
+    }
+
+    public LocalDateTime readDateTime() {
+        if (!readBoolean()) {
+            return null;
+        }
+        long epochSecond = readVarLong();
+        int nano = (int) readVarLong();
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    public <T> T readFramed(BinaryCodec<T> codec) {
+        byte schemaVersion = (byte) readByte();
+        byte[] frame = readBytes();
+        if (frame == null) {
+            throw new BinaryFormatException("Missing frame of binary codec type id: " + codec.getTypeId());
+        }
+        return new BinaryReader(frame, 0).readVersioned(codec, schemaVersion);
+    }
+
+    public <T> T readVersioned(BinaryCodec<T> codec, byte schemaVersion) {
+        if (schemaVersion < 1) {
+            throw new BinaryFormatException("Unsupported schema version %d of binary codec type id: %d"
+                    .formatted(schemaVersion, codec.getTypeId()));
+        }
+        return codec.read(this, (byte) Math.min(schemaVersion, codec.getSchemaVersion()));
+    }
+}
@@ -0,0 +1,54 @@
+package faang.school.postservice.serializer;
+
+import faang.school.postservice.exception.BinaryFormatException;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+public class BinaryRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xB1;
+    private static final int HEADER_LENGTH = 3;
+
+    private final BinaryCodecRegistry codecRegistry;
+    private final RedisSerializer<Object> fallbackSerializer;
+    private final SerializationFormat format;
+
+    public BinaryRedisSerializer(BinaryCodecRegistry codecRegistry,
+                                 RedisSerializer<Object> fallbackSerializer,
+                                 SerializationFormat format) {
+        this.codecRegistry = codecRegistry;
+        this.fallbackSerializer = fallbackSerializer;
+        this.format = format;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        BinaryCodec<?> codec = value == null || format != SerializationFormat.BINARY
+                ? null
+                : codecRegistry.findCodec(value.getClass());
+        if (codec == null) {
+            return fallbackSerializer.serialize(value);
+        }
+        byte schemaVersion = codecRegistry.getWriteVersion(codec);
+        return codecRegistry.write(codec, schemaVersion, value, MAGIC, codec.getTypeId(), schemaVersion);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return fallbackSerializer.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH) {
+            throw new SerializationException("Binary payload is shorter than its header");
+        }
+        try {
+            BinaryCodec<?> codec = codecRegistry.getCodec(bytes[1]);
+            return codecRegistry.read(codec, bytes[2], bytes, HEADER_LENGTH);
+        } catch (BinaryFormatException e) {
+            throw new SerializationException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package faang.school.postservice.serializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Map;
+
+public class BinaryWriter {
+
+    private static final int INITIAL_CAPACITY = 128;
+
+    private final Map<Byte, Byte> writeVersionsByTypesIds;
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int position;
+
+    public BinaryWriter() {
+        this(Map.of());
+    }
+
+    public BinaryWriter(Map<Byte, Byte> writeVersionsByTypesIds) {
+        this.writeVersionsByTypesIds = writeVersionsByTypesIds;
+    }
+
+    public BinaryWriter writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+        return this;
+    }
+
+    public BinaryWriter writeBoolean(boolean value) {
+        return writeByte(value ? 1 : 0);
+    }
+
+    public BinaryWriter writeVarLong(long value) {
+        long zigZag = (value << 1) ^ (value >> 63);
+        ensureCapacity(10);
+        while ((zigZag & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((zigZag & 0x7F) | 0x80);
+            zigZag >>>= 7;
+        }
+        buffer[position++] = (byte) zigZag;
+        return this;
+    }
+
+    public BinaryWriter writeNullableLong(Long value) {
+        writeBoolean(value != null);
+        return value == null ? this : writeVarLong(value);
+    }
+
+    public BinaryWriter writeString(String value) {
+        return writeBytes(value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public BinaryWriter writeBytes(byte[] value) {
+        if (value == null) {
+            return writeVarLong(-1);
+        }
+        writeVarLong(value.length);
+        ensureCapacity(value.length);
+        System.arraycopy(value, 0, buffer, position, value.length);
+        position += value.length;
+        return this;
+    }
+
+    public BinaryWriter writeDateTime(LocalDateTime value) {
+        writeBoolean(value != null);
+        if (value == null) {
+            return this;
+        }
+        return writeVarLong(value.toEpochSecond(ZoneOffset.UTC)).writeVarLong(value.getNano());
+    }
+
+    public <T> BinaryWriter writeFramed(BinaryCodec<T> codec, T value) {
+        byte schemaVersion = writeVersionsByTypesIds.getOrDefault(codec.getTypeId(), codec.getSchemaVersion());
+        BinaryWriter frame = new BinaryWriter(writeVersionsByTypesIds);
+        codec.write(value, frame, schemaVersion);
+        writeByte(schemaVersion);
+        return writeBytes(frame.toByteArray());
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void ensureCapacity(int additionalBytes) {
+        if (position + additionalBytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + additionalBytes));
+        }
+    }
+}
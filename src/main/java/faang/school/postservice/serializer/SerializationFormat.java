@@ -0,0 +1,6 @@
+package faang.school.postservice.serializer;
+
+public enum SerializationFormat {
+    JSON,
+    BINARY
+}
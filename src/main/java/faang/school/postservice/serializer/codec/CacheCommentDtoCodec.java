@@ -0,0 +1,50 @@
+package faang.school.postservice.serializer.codec;
+
+import faang.school.postservice.dto.comment.CacheCommentDto;
+import faang.school.postservice.serializer.BinaryCodec;
+import faang.school.postservice.serializer.BinaryReader;
+import faang.school.postservice.serializer.BinaryWriter;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CacheCommentDtoCodec implements BinaryCodec<CacheCommentDto> {
+
+    @Override
+    public byte getTypeId() {
+        return 2;
+    }
+
+    @Override
+    public byte getSchemaVersion() {
+        return 1;
+    }
+
+    @Override
+    public Class<CacheCommentDto> getType() {
+        return CacheCommentDto.class;
+    }
+
+    @Override
+    public void write(CacheCommentDto comment, BinaryWriter writer, byte schemaVersion) {
+        writer.writeNullableLong(comment.getCommentId())
+                .writeNullableLong(comment.getAuthorId())
+                .writeNullableLong(comment.getPostId())
+                .writeString(comment.getContent())
+                .writeNullableLong(comment.getLikesCount())
+                .writeDateTime(comment.getCreatedAt())
+                .writeDateTime(comment.getUpdatedAt());
+    }
+
+    @Override
+    public CacheCommentDto read(BinaryReader reader, byte schemaVersion) {
+        return CacheCommentDto.builder()
+                .commentId(reader.readNullableLong())
+                .authorId(reader.readNullableLong())
+                .postId(reader.readNullableLong())
+                .content(reader.readString())
+                .likesCount(reader.readNullableLong())
+                .createdAt(reader.readDateTime())
+                .updatedAt(reader.readDateTime())
+                .build();
+    }
+}
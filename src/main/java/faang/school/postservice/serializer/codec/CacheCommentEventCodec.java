@@ -0,0 +1,53 @@
+package faang.school.postservice.serializer.codec;
+
+import faang.school.postservice.event.comment.CacheCommentEvent;
+import faang.school.postservice.serializer.BinaryCodec;
+import faang.school.postservice.serializer.BinaryReader;
+import faang.school.postservice.serializer.BinaryWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CacheCommentEventCodec implements BinaryCodec<CacheCommentEvent> {
+
+    private final CacheCommentDtoCodec commentCodec;
+
+    @Override
+    public byte getTypeId() {
+        return 5;
+    }
+
+    @Override
+    public byte getSchemaVersion() {
+        return 2;
+    }
+
+    @Override
+    public Class<CacheCommentEvent> getType() {
+        return CacheCommentEvent.class;
+    }
+
+    @Override
+    public void write(CacheCommentEvent event, BinaryWriter writer, byte schemaVersion) {
+        writer.writeBoolean(event.getCommentDto() != null);
+        if (event.getCommentDto() != null) {
+            if (schemaVersion < 2) {
+                commentCodec.write(event.getCommentDto(), writer, (byte) 1);
+            } else {
+                writer.writeFramed(commentCodec, event.getCommentDto());
+            }
+        }
+    }
+
+    @Override
+    public CacheCommentEvent read(BinaryReader reader, byte schemaVersion) {
+        CacheCommentEvent event = new CacheCommentEvent();
+        if (reader.readBoolean()) {
+            event.setCommentDto(schemaVersion < 2
+                    ? commentCodec.read(reader, (byte) 1)
+                    : reader.readFramed(commentCodec));
+        }
+        return event;
+    }
+}
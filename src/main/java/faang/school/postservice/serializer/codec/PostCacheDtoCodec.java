@@ -0,0 +1,88 @@
+package faang.school.postservice.serializer.codec;
+
+import faang.school.postservice.dto.comment.CacheCommentDto;
+import faang.school.postservice.model.cache.PostCacheDto;
+import faang.school.postservice.serializer.BinaryCodec;
+import faang.school.postservice.serializer.BinaryReader;
+import faang.school.postservice.serializer.BinaryWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class PostCacheDtoCodec implements BinaryCodec<PostCacheDto> {
+
+    private final CacheCommentDtoCodec commentCodec;
+
+    @Override
+    public byte getTypeId() {
+        return 1;
+    }
+
+    @Override
+    public byte getSchemaVersion() {
+        return 2;
+    }
+
+    @Override
+    public Class<PostCacheDto> getType() {
+        return PostCacheDto.class;
+    }
+
+    @Override
+    public void write(PostCacheDto post, BinaryWriter writer, byte schemaVersion) {
+        writer.writeNullableLong(post.getPostId())
+                .writeString(post.getContent())
+                .writeNullableLong(post.getAuthorId())
+                .writeNullableLong(post.getProjectId())
+                .writeVarLong(post.getLikesCount())
+                .writeVarLong(post.getCommentsCount())
+                .writeVarLong(post.getPostViewsCount())
+                .writeDateTime(post.getPublishedAt())
+                .writeDateTime(post.getUpdatedAt());
+
+        Set<CacheCommentDto> comments = post.getComments();
+        writer.writeVarLong(comments == null ? 0 : comments.size());
+        if (comments != null) {
+            comments.forEach(comment -> writeComment(comment, writer, schemaVersion));
+        }
+    }
+
+    @Override
+    public PostCacheDto read(BinaryReader reader, byte schemaVersion) {
+        PostCacheDto post = PostCacheDto.builder()
+                .postId(reader.readNullableLong())
+                .content(reader.readString())
+                .authorId(reader.readNullableLong())
+                .projectId(reader.readNullableLong())
+                .likesCount(reader.readVarLong())
+                .commentsCount(reader.readVarLong())
+                .postViewsCount(reader.readVarLong())
+                .publishedAt(reader.readDateTime())
+                .updatedAt(reader.readDateTime())
+                .build();
+
+        long commentsCount = reader.readVarLong();
+        Set<CacheCommentDto> comments = new LinkedHashSet<>();
+        for (long i = 0; i < commentsCount; i++) {
+            comments.add(readComment(reader, schemaVersion));
+        }
+        post.setComments(comments);
+        return post;
+    }
+
+    private void writeComment(CacheCommentDto comment, BinaryWriter writer, byte schemaVersion) {
+        if (schemaVersion < 2) {
+            commentCodec.write(comment, writer, (byte) 1);
+        } else {
+            writer.writeFramed(commentCodec, comment);
+        }
+    }
+
+    private CacheCommentDto readComment(BinaryReader reader, byte schemaVersion) {
+        return schemaVersion < 2 ? commentCodec.read(reader, (byte) 1) : reader.readFramed(commentCodec);
+    }
+}
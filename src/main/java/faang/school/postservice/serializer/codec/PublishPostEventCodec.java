@@ -0,0 +1,44 @@
+package faang.school.postservice.serializer.codec;
+
+import faang.school.postservice.event.post.PublishPostEvent;
+import faang.school.postservice.serializer.BinaryCodec;
+import faang.school.postservice.serializer.BinaryReader;
+import faang.school.postservice.serializer.BinaryWriter;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PublishPostEventCodec implements BinaryCodec<PublishPostEvent> {
+
+    @Override
+    public byte getTypeId() {
+        return 4;
+    }
+
+    @Override
+    public byte getSchemaVersion() {
+        return 1;
+    }
+
+    @Override
+    public Class<PublishPostEvent> getType() {
+        return PublishPostEvent.class;
+    }
+
+    @Override
+    public void write(PublishPostEvent event, BinaryWriter writer, byte schemaVersion) {
+        writer.writeVarLong(event.getPostId())
+                .writeNullableLong(event.getAuthorId())
+                .writeDateTime(event.getPublishedAt())
+                .writeBytes(event.getFollowersIds());
+    }
+
+    @Override
+    public PublishPostEvent read(BinaryReader reader, byte schemaVersion) {
+        return PublishPostEvent.builder()
+                .postId(reader.readVarLong())
+                .authorId(reader.readNullableLong())
+                .publishedAt(reader.readDateTime())
+                .followersIds(reader.readBytes())
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package faang.school.postservice.serializer.codec;
+
+import faang.school.postservice.dto.user.UserProfilePictureDto;
+import faang.school.postservice.model.cache.UserCacheDto;
+import faang.school.postservice.serializer.BinaryCodec;
+import faang.school.postservice.serializer.BinaryReader;
+import faang.school.postservice.serializer.BinaryWriter;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserCacheDtoCodec implements BinaryCodec<UserCacheDto> {
+
+    @Override
+    public byte getTypeId() {
+        return 3;
+    }
+
+    @Override
+    public byte getSchemaVersion() {
+        return 1;
+    }
+
+    @Override
+    public Class<UserCacheDto> getType() {
+        return UserCacheDto.class;
+    }
+
+    @Override
+    public void write(UserCacheDto user, BinaryWriter writer, byte schemaVersion) {
+        writer.writeVarLong(user.getUserId())
+                .writeString(user.getUsername())
+                .writeBoolean(user.isActive());
+
+        UserProfilePictureDto profilePicture = user.getProfilePicture();
+        writer.writeBoolean(profilePicture != null);
+        if (profilePicture != null) {
+            writer.writeVarLong(profilePicture.getUserId())
+                    .writeBytes(profilePicture.getProfilePictureData());
+        }
+    }
+
+    @Override
+    public UserCacheDto read(BinaryReader reader, byte schemaVersion) {
+        UserCacheDto user = UserCacheDto.builder()
+                .userId(reader.readVarLong())
+                .username(reader.readString())
+                .active(reader.readBoolean())
+                .build();
+
+        if (reader.readBoolean()) {
+            user.setProfilePicture(UserProfilePictureDto.builder()
+                    .userId(reader.readVarLong())
+                    .profilePictureData(reader.readBytes())
+                    .build());
+        }
+        return user;
+    }
+}
@@ -0,0 +1,58 @@
+package faang.school.postservice.serializer.kafka;
+
+import faang.school.postservice.exception.BinaryFormatException;
+import faang.school.postservice.serializer.BinaryCodec;
+import faang.school.postservice.serializer.BinaryCodecRegistry;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.Map;
+
+import static faang.school.postservice.serializer.kafka.BinaryKafkaSerializer.SCHEMA_TYPE_HEADER;
+import static faang.school.postservice.serializer.kafka.BinaryKafkaSerializer.SCHEMA_VERSION_HEADER;
+
+public class BinaryKafkaDeserializer implements Deserializer<Object> {
+
+    private final BinaryCodecRegistry codecRegistry;
+    private final Deserializer<Object> fallbackDeserializer;
+
+    public BinaryKafkaDeserializer(BinaryCodecRegistry codecRegistry, Deserializer<Object> fallbackDeserializer) {
+        this.codecRegistry = codecRegistry;
+        this.fallbackDeserializer = fallbackDeserializer;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        fallbackDeserializer.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return fallbackDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        Header typeHeader = headers.lastHeader(SCHEMA_TYPE_HEADER);
+        if (typeHeader == null) {
+            return fallbackDeserializer.deserialize(topic, headers, data);
+        }
+        Header versionHeader = headers.lastHeader(SCHEMA_VERSION_HEADER);
+        if (versionHeader == null || versionHeader.value().length != 1 || typeHeader.value().length != 1) {
+            throw new SerializationException("Malformed binary schema headers in topic " + topic);
+        }
+        try {
+            BinaryCodec<?> codec = codecRegistry.getCodec(typeHeader.value()[0]);
+            return codecRegistry.read(codec, versionHeader.value()[0], data, 0);
+        } catch (BinaryFormatException e) {
+            throw new SerializationException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        fallbackDeserializer.close();
+    }
+}
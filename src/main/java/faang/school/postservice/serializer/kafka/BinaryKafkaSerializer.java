@@ -0,0 +1,49 @@
+package faang.school.postservice.serializer.kafka;
+
+import faang.school.postservice.serializer.BinaryCodec;
+import faang.school.postservice.serializer.BinaryCodecRegistry;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+
+public class BinaryKafkaSerializer implements Serializer<Object> {
+
+    public static final String SCHEMA_TYPE_HEADER = "schema-type";
+    public static final String SCHEMA_VERSION_HEADER = "schema-version";
+
+    private final BinaryCodecRegistry codecRegistry;
+    private final Serializer<Object> fallbackSerializer;
+
+    public BinaryKafkaSerializer(BinaryCodecRegistry codecRegistry, Serializer<Object> fallbackSerializer) {
+        this.codecRegistry = codecRegistry;
+        this.fallbackSerializer = fallbackSerializer;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        fallbackSerializer.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return fallbackSerializer.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        BinaryCodec<?> codec = data == null ? null : codecRegistry.findCodec(data.getClass());
+        if (codec == null) {
+            return fallbackSerializer.serialize(topic, headers, data);
+        }
+        byte schemaVersion = codecRegistry.getWriteVersion(codec);
+        headers.add(SCHEMA_TYPE_HEADER, new byte[]{codec.getTypeId()});
+        headers.add(SCHEMA_VERSION_HEADER, new byte[]{schemaVersion});
+        return codecRegistry.write(codec, schemaVersion, data);
+    }
+
+    @Override
+    public void close() {
+        fallbackSerializer.close();
+    }
+}
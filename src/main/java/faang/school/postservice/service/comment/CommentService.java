@@ -1,6 +1,7 @@
 package faang.school.postservice.service.comment;
 
 import faang.school.postservice.dto.comment.CacheCommentDto;
+import faang.school.postservice.dto.comment.CacheCommentProjection;
 import faang.school.postservice.dto.comment.CommentDto;
 import faang.school.postservice.event.comment.CacheCommentEvent;
 import faang.school.postservice.event.comment.CommentEventDto;
@@ -25,6 +26,7 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -113,12 +115,17 @@ public class CommentService {
         return comment;
     }
 
-    public LinkedHashSet<CacheCommentDto> getBatchNewestComments(long postId, int batchSize) {
-        LinkedHashSet<Comment> comments =
-                new LinkedHashSet<>(commentRepository.findBatchNewestCommentsByPostId(postId, batchSize));
+    public Map<Long, LinkedHashSet<CacheCommentDto>> getBatchNewestComments(List<Long> postsIds, int batchSize) {
+        if (postsIds.isEmpty()) {
+            return Map.of();
+        }
+        List<CacheCommentProjection> comments =
+                commentRepository.findBatchNewestCommentsByPostsIds(postsIds, batchSize);
+        log.info("Got {} newest comments for {} posts", comments.size(), postsIds.size());
         return comments.stream()
-                .map(commentMapper::toCacheCommentDto)
-                .collect(Collectors.toCollection(LinkedHashSet::new));
+                .map(commentMapper::projectionToCacheCommentDto)
+                .collect(Collectors.groupingBy(CacheCommentDto::getPostId,
+                        Collectors.toCollection(LinkedHashSet::new)));
     }
 
     private void sendRedisCommentEvent(Comment comment) {
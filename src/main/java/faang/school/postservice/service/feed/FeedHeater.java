@@ -1,27 +1,31 @@
 package faang.school.postservice.service.feed;
 
 import faang.school.postservice.client.UserServiceClient;
+import faang.school.postservice.dto.news_feed.FeedCursor;
+import faang.school.postservice.dto.post.PostKeyProjection;
 import faang.school.postservice.model.cache.PostCacheDto;
 import faang.school.postservice.publisher.kafka.KafkaCacheUserProducer;
 import faang.school.postservice.publisher.kafka.KafkaHeatCacheProducer;
 import faang.school.postservice.service.post.PostCacheService;
 import faang.school.postservice.service.post.PostService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class FeedHeater {
 
+    private static final int PROGRESS_LOG_BATCHES_INTERVAL = 100;
+
     @Value(value = "${feed.heater.post-published-days-ago}")
     private long publishedDaysAgo;
 
@@ -35,18 +39,29 @@ public class FeedHeater {
     private final NewsFeedService newsFeedService;
     private final UserServiceClient userServiceClient;
 
-    @Transactional
     public void startHeatFeedCache() {
         userServiceClient.heatCache();
-        Pageable pageable = PageRequest.of(0, eventBatchSize);
-        Page<Long> page;
+        LocalDateTime publishedAfter = LocalDateTime.now().minusDays(publishedDaysAgo);
+        long startTime = System.currentTimeMillis();
+        long sentPostsCount = 0;
+        int sentBatchesCount = 0;
+        FeedCursor cursor = null;
+        List<PostKeyProjection> postsKeys;
         do {
-            page = postService.getAllPostsIdsPublishedNotLaterDaysAgo(publishedDaysAgo, pageable);
-            if (page.hasContent()) {
-                kafkaHeatPostCacheProducer.send(page.getContent());
+            postsKeys = postService.getBatchPublishedPostsKeysPublishedAfter(publishedAfter, cursor, eventBatchSize);
+            if (postsKeys.isEmpty()) {
+                break;
+            }
+            kafkaHeatPostCacheProducer.send(postsKeys.stream().map(PostKeyProjection::getId).toList());
+
+            PostKeyProjection lastPostKey = postsKeys.get(postsKeys.size() - 1);
+            cursor = new FeedCursor(lastPostKey.getPublishedAt(), lastPostKey.getId());
+            sentPostsCount += postsKeys.size();
+            if (++sentBatchesCount % PROGRESS_LOG_BATCHES_INTERVAL == 0) {
+                logProgress("Heat cache in progress", sentPostsCount, sentBatchesCount, startTime);
             }
-            pageable = pageable.next();
-        } while (!page.isLast());
+        } while (postsKeys.size() == eventBatchSize);
+        logProgress("Heat cache finished", sentPostsCount, sentBatchesCount, startTime);
     }
 
     @Transactional
@@ -61,4 +76,10 @@ public class FeedHeater {
 
         kafkaCacheUserProducer.send(authorIdsToCache);
     }
+
+    private void logProgress(String stage, long sentPostsCount, int sentBatchesCount, long startTime) {
+        long elapsedMillis = Math.max(System.currentTimeMillis() - startTime, 1);
+        log.info("{}: sent {} posts ids in {} batches in {} ms ({} posts/s)", stage, sentPostsCount,
+                sentBatchesCount, elapsedMillis, sentPostsCount * 1000 / elapsedMillis);
+    }
 }
@@ -0,0 +1,105 @@
+package faang.school.postservice.service.feed;
+
+import faang.school.postservice.repository.cache.FeedCacheRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FeedRebuildCoordinator {
+
+    private static final double REBUILD_MILLIS_SMOOTHING = 0.2;
+
+    private final FeedCacheRepository feedCacheRepository;
+    private final MeterRegistry meterRegistry;
+    private final Map<Long, CompletableFuture<Void>> rebuildsByUsersIds = new ConcurrentHashMap<>();
+
+    @Value(value = "${feed.rebuild.lease-ttl-ms}")
+    private long leaseTtlMillis;
+
+    @Value(value = "${feed.rebuild.early-refresh-beta}")
+    private double earlyRefreshBeta;
+
+    private volatile double rebuildMillis;
+
+    public void rebuild(long userId, Runnable rebuildTask) {
+        CompletableFuture<Void> rebuild = new CompletableFuture<>();
+        CompletableFuture<Void> runningRebuild = rebuildsByUsersIds.putIfAbsent(userId, rebuild);
+        if (runningRebuild != null) {
+            meterRegistry.counter("feed.rebuilds", "result", "coalesced").increment();
+            awaitRebuild(userId, runningRebuild);
+            return;
+        }
+
+        try {
+            rebuildLeased(userId, rebuildTask);
+            rebuild.complete(null);
+        } catch (RuntimeException e) {
+            rebuild.completeExceptionally(e);
+            throw e;
+        } finally {
+            rebuildsByUsersIds.remove(userId, rebuild);
+        }
+    }
+
+    public void rebuildAsync(long userId, Runnable rebuildTask, Executor executor) {
+        if (rebuildsByUsersIds.containsKey(userId)) {
+            meterRegistry.counter("feed.rebuilds", "result", "coalesced").increment();
+            return;
+        }
+        executor.execute(() -> rebuild(userId, rebuildTask));
+    }
+
+    public boolean shouldRefreshEarly(long ttlMillis) {
+        if (ttlMillis < 0) {
+            return false;
+        }
+        double random = 1 - ThreadLocalRandom.current().nextDouble();
+        return -rebuildMillis * earlyRefreshBeta * Math.log(random) >= ttlMillis;
+    }
+
+    private void rebuildLeased(long userId, Runnable rebuildTask) {
+        String leaseToken = UUID.randomUUID().toString();
+        if (!feedCacheRepository.tryAcquireRebuildLease(userId, leaseToken)) {
+            meterRegistry.counter("feed.rebuilds", "result", "leased-elsewhere").increment();
+            log.info("Feed of user with id: {} is rebuilt by another instance", userId);
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        try {
+            rebuildTask.run();
+        } finally {
+            feedCacheRepository.releaseRebuildLease(userId, leaseToken);
+        }
+        long elapsedMillis = System.currentTimeMillis() - startTime;
+        rebuildMillis = rebuildMillis == 0
+                ? elapsedMillis
+                : rebuildMillis + REBUILD_MILLIS_SMOOTHING * (elapsedMillis - rebuildMillis);
+        meterRegistry.counter("feed.rebuilds", "result", "rebuilt").increment();
+    }
+
+    private void awaitRebuild(long userId, CompletableFuture<Void> runningRebuild) {
+        try {
+            runningRebuild.get(leaseTtlMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Waiting for rebuild of feed of user with id: {} failed", userId, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,29 +3,42 @@ package faang.school.postservice.service.feed;
 import faang.school.postservice.client.UserServiceClient;
 import faang.school.postservice.config.async.ThreadPoolConfig;
 import faang.school.postservice.dto.comment.CacheCommentDto;
+import faang.school.postservice.dto.news_feed.FeedCursor;
+import faang.school.postservice.dto.news_feed.FeedPage;
 import faang.school.postservice.dto.news_feed.NewsFeedResponseDto;
+import faang.school.postservice.dto.post.PostAuthorKeyProjection;
 import faang.school.postservice.event.post.PublishPostEvent;
 import faang.school.postservice.model.cache.FeedCacheDto;
 import faang.school.postservice.model.cache.PostCacheDto;
 import faang.school.postservice.model.cache.UserCacheDto;
+import faang.school.postservice.repository.FeedItemRepository;
+import faang.school.postservice.repository.cache.AuthorTimelineRepository;
 import faang.school.postservice.repository.cache.FeedCacheRepository;
 import faang.school.postservice.repository.cache.UserCacheRepository;
 import faang.school.postservice.service.comment.CommentService;
 import faang.school.postservice.service.post.PostCacheService;
 import faang.school.postservice.service.post.PostService;
+import faang.school.postservice.service.subscription.FollowGraphCache;
+import faang.school.postservice.util.DeltaVarintCodec;
+import faang.school.postservice.util.TimelineMerger;
 import faang.school.postservice.validator.news_feed.NewsFeedValidator;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.AbstractMap;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
@@ -36,6 +49,11 @@ import java.util.stream.Stream;
 @RequiredArgsConstructor
 public class NewsFeedService {
 
+    private static final Comparator<PostCacheDto> FEED_ORDER = Comparator
+            .comparing(PostCacheDto::getPublishedAt)
+            .thenComparing(PostCacheDto::getPostId)
+            .reversed();
+
     @Value(value = "${feed.post.quantity-posts-in-feed}")
     private int quantityPostsInFeed;
 
@@ -45,261 +63,363 @@ public class NewsFeedService {
     @Value(value = "${feed.page.size}")
     private int pageSize;
 
+    @Value(value = "${feed.fan-out.batch-size}")
+    private int fanOutBatchSize;
+
+    @Value(value = "${feed.pull.timeline-size}")
+    private int timelineSize;
+
     private final PostService postService;
     private final PostCacheService postCacheService;
     private final UserServiceClient userServiceClient;
     private final FeedCacheRepository feedCacheRepository;
+    private final FeedItemRepository feedItemRepository;
     private final ThreadPoolConfig poolConfig;
     private final UserCacheRepository userCacheRepository;
     private final CommentService commentService;
     private final NewsFeedValidator newsFeedValidator;
+    private final AuthorTimelineRepository authorTimelineRepository;
+    private final MeterRegistry meterRegistry;
+    private final FollowGraphCache followGraphCache;
+    private final FeedRebuildCoordinator feedRebuildCoordinator;
 
     @Transactional
     public FeedCacheDto fillFeed(Long userId, int batchSize) {
         log.info("Start filling cache for user with id: {}", userId);
-        Set<PostCacheDto> postsSaveToCache = new LinkedHashSet<>();
-        FeedCacheDto feedCacheDto = getFeed(userId, batchSize, postsSaveToCache);
+        List<Long> storedPostsIds = feedItemRepository.findFeedPostsIds(userId, null, batchSize);
+        Set<PostCacheDto> newestPosts = storedPostsIds.isEmpty()
+                ? new LinkedHashSet<>()
+                : addLatestCommentsToPosts(postService.getBatchPostsFromCache(storedPostsIds));
+        if (newestPosts.size() < batchSize) {
+            newestPosts.addAll(getMissingNewestPostsOfFollowees(userId, newestPosts, batchSize));
+        }
 
-        postCacheService.saveBatchPostsToCache(postsSaveToCache);
-        feedCacheRepository.saveFeedCache(feedCacheDto);
+        postCacheService.saveBatchPostsToCache(newestPosts);
+        feedCacheRepository.saveFeedCache(userId, newestPosts);
         log.info("Feed cache for user with id: {} filled", userId);
-        return feedCacheDto;
+        return FeedCacheDto.builder()
+                .userId(userId)
+                .postsIds(newestPosts.stream()
+                        .map(PostCacheDto::getPostId)
+                        .collect(Collectors.toCollection(LinkedHashSet::new)))
+                .build();
     }
 
-    private FeedCacheDto getFeed(long userId, int batchSize, Set<PostCacheDto> postsSaveToCache) {
-        FeedCacheDto feedCacheDto = new FeedCacheDto();
-        List<Long> followeesIds = userServiceClient.getFolloweesIds(userId);
-        Set<PostCacheDto> newestPosts = getBatchNewestPosts(followeesIds, batchSize);
-        Set<Long> postsIds = newestPosts.stream()
-                .peek(postsSaveToCache::add)
-                .map(PostCacheDto::getPostId)
+    @Transactional
+    public void fillFeeds(List<Long> usersIds, int batchSize) {
+        long startTime = System.currentTimeMillis();
+        Map<Long, List<Long>> followeesIdsByUsersIds = followGraphCache.getFolloweesIdsByUsersIds(usersIds);
+        Set<Long> authorsIds = followeesIdsByUsersIds.values().stream()
+                .flatMap(List::stream)
                 .collect(Collectors.toSet());
-        feedCacheDto.setPostsIds(postsIds);
-        feedCacheDto.setUserId(userId);
-        return feedCacheDto;
+        Map<Long, List<PostAuthorKeyProjection>> timelinesByAuthorsIds = new HashMap<>();
+        getAuthorsIdsByPerAuthorLimits(followeesIdsByUsersIds, batchSize).forEach((perAuthorLimit, limitAuthorsIds) ->
+                timelinesByAuthorsIds.putAll(TimelineMerger.groupByAuthors(
+                        postService.getNewestPostsKeysOfEachAuthor(limitAuthorsIds, perAuthorLimit))));
+
+        Map<Long, List<Long>> feedsPostsIdsByUsersIds = new HashMap<>();
+        usersIds.forEach(userId -> feedsPostsIdsByUsersIds.put(userId, TimelineMerger.mergeNewestPostsIds(
+                followeesIdsByUsersIds.getOrDefault(userId, List.of()).stream()
+                        .map(followeeId -> timelinesByAuthorsIds.getOrDefault(followeeId, List.of()))
+                        .toList(),
+                batchSize)));
+
+        List<Long> feedsPostsIds = feedsPostsIdsByUsersIds.values().stream()
+                .flatMap(List::stream)
+                .distinct()
+                .toList();
+        Set<PostCacheDto> posts = feedsPostsIds.isEmpty()
+                ? Set.of()
+                : addLatestCommentsToPosts(new LinkedHashSet<>(postService.getPostCacheDtoList(feedsPostsIds)));
+        postCacheService.saveBatchPostsToCache(posts);
+
+        Map<Long, PostCacheDto> postsByIds = posts.stream()
+                .collect(Collectors.toMap(PostCacheDto::getPostId, post -> post));
+        Map<Long, List<PostCacheDto>> feedsByUsersIds = new HashMap<>();
+        feedsPostsIdsByUsersIds.forEach((userId, postsIds) -> feedsByUsersIds.put(userId, postsIds.stream()
+                .map(postsByIds::get)
+                .filter(Objects::nonNull)
+                .toList()));
+        feedItemRepository.saveFeedsItems(feedsByUsersIds);
+        feedCacheRepository.saveFeedsCaches(feedsByUsersIds);
+
+        log.info("Filled feeds of {} users from {} posts of {} authors in {} ms", usersIds.size(),
+                posts.size(), authorsIds.size(), System.currentTimeMillis() - startTime);
+    }
+
+    private Map<Integer, Set<Long>> getAuthorsIdsByPerAuthorLimits(Map<Long, List<Long>> followeesIdsByUsersIds,
+                                                                    int batchSize) {
+        Map<Long, Integer> perAuthorLimits = new HashMap<>();
+        followeesIdsByUsersIds.values().forEach(followeesIds -> {
+            if (followeesIds.isEmpty()) {
+                return;
+            }
+            int perAuthorLimit = Math.min(batchSize,
+                    Math.max(pageSize, (batchSize + followeesIds.size() - 1) / followeesIds.size()));
+            followeesIds.forEach(followeeId -> perAuthorLimits.merge(followeeId, perAuthorLimit, Math::max));
+        });
+        return perAuthorLimits.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toSet())));
     }
 
-    @Transactional
     public CompletableFuture<Void> addPostToFeeds(PublishPostEvent event) {
-        PostCacheDto postToCache = event.getPostDto();
-
-        List<CompletableFuture<Void>> futures = event.getFollowersIds().stream()
-                .map(followerId -> CompletableFuture.runAsync(() -> {
-                    FeedCacheDto feedCacheDto = feedCacheRepository.getFeedCacheByUserId(followerId);
-
-                    UserCacheDto userDto = userCacheRepository.getCacheUserDto(followerId);
-                    if (userDto == null) {
-                        userDto = new UserCacheDto();
-                        boolean isUserActive = userServiceClient.isUserActive(followerId);
-                        userDto.setActive(isUserActive);
-                    }
-
-                    if (feedCacheDto == null && userDto.isActive()) {
-                        feedCacheDto = fillFeed(followerId, quantityPostsInFeed);
-                    } else if (!userDto.isActive()) {
-                        log.info("User with id: {} is inactive, feed isn't saving", followerId);
-                        return;
-                    }
-                    Set<Long> postsIds = feedCacheDto.getPostsIds();
-                    int replacementNumber = 1;
-                    if (postsIds.size() >= quantityPostsInFeed) {
-                        postsIds.stream()
-                                .limit(replacementNumber)
-                                .forEach(postsIds::remove);
-                    }
-                    postsIds.add(postToCache.getPostId());
-                    feedCacheRepository.saveFeedCache(feedCacheDto);
-                    postCacheService.savePostToCache(postToCache);
-                    log.info("Added post with Id: {} to feed cache with key: {}",
-                            postToCache.getPostId(), followerId);
-                }, poolConfig.newsFeedTaskExecutor()))
-                .toList();
+        PostCacheDto post = PostCacheDto.builder()
+                .postId(event.getPostId())
+                .authorId(event.getAuthorId())
+                .publishedAt(event.getPublishedAt())
+                .build();
+        long[] followersIds = DeltaVarintCodec.decode(event.getFollowersIds());
+        long startTime = System.currentTimeMillis();
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < followersIds.length; i += fanOutBatchSize) {
+            long[] batch = Arrays.copyOfRange(followersIds, i, Math.min(i + fanOutBatchSize, followersIds.length));
+            futures.add(CompletableFuture.runAsync(() -> addPostToFeedsBatch(post, batch),
+                    poolConfig.newsFeedTaskExecutor()));
+        }
 
-        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenRun(() -> {
+                    long elapsedMillis = Math.max(System.currentTimeMillis() - startTime, 1);
+                    log.info("Fan-out of post with id: {} to {} followers took {} ms ({} followers/s)",
+                            post.getPostId(), followersIds.length, elapsedMillis,
+                            followersIds.length * 1000L / elapsedMillis);
+                });
     }
 
-    @Transactional
-    public NewsFeedResponseDto getNewsFeedBatch(Long lastViewedPostId, long userId) {
-        newsFeedValidator.isUserExists(userId);
-        newsFeedValidator.isLastViewedPostExists(lastViewedPostId);
-        newsFeedValidator.isLastViewedPostShouldBeShownToUser(userId, lastViewedPostId);
-        FeedCacheDto feed = feedCacheRepository.getFeedCacheByUserId(userId);
-
-        if (feed == null) {
-            if (lastViewedPostId == null) {
-                return getFeedFromRepositoryReturnFirstPage(userId);
-            } else {
-                NewsFeedResponseDto responseDto =
-                        getFeedFromRepositoryReturnParticularPage(userId, lastViewedPostId);
-                poolConfig.newsFeedTaskExecutor().execute(() -> fillFeed(userId, quantityPostsInFeed));
-                return responseDto;
-            }
-        }
+    private void addPostToFeedsBatch(PostCacheDto post, long[] followersIds) {
+        feedItemRepository.saveFeedItems(post.getPostId(), post.getPublishedAt(), followersIds);
+        List<Long> activeFollowersIds = getActiveUsersIds(Arrays.stream(followersIds).boxed().toList());
+        List<Long> followersWithoutFeed = feedCacheRepository.addPostToFeeds(activeFollowersIds, post);
+        followersWithoutFeed.forEach(followerId -> {
+            feedRebuildCoordinator.rebuild(followerId, () -> fillFeed(followerId, quantityPostsInFeed));
+            feedCacheRepository.addPostToFeed(followerId, post);
+        });
+        log.info("Added post with id: {} to {} feeds, {} of them filled from repository",
+                post.getPostId(), activeFollowersIds.size(), followersWithoutFeed.size());
+    }
 
-        if (lastViewedPostId == null) {
-            return getNewsFeedFromCacheReturnFirstPage(feed);
-        }
+    private List<Long> getActiveUsersIds(List<Long> usersIds) {
+        List<Long> usersIdsMissedInCache = new ArrayList<>();
+        List<UserCacheDto> users =
+                new ArrayList<>(userCacheRepository.getBatchCacheUserDto(usersIds, usersIdsMissedInCache));
 
-        LinkedHashSet<Long> postsIds = new LinkedHashSet<>(feed.getPostsIds());
-        Map.Entry<Integer, Integer> numberToSkipAndRemaining =
-                findNumberToSkipAndRemaining(postsIds, lastViewedPostId);
+        if (!usersIdsMissedInCache.isEmpty()) {
+            users.addAll(userServiceClient.getUsersCachesByIds(usersIdsMissedInCache));
+        }
+        return users.stream()
+                .filter(UserCacheDto::isActive)
+                .map(UserCacheDto::getUserId)
+                .toList();
+    }
 
-        if (numberToSkipAndRemaining.getValue() == null) {
-            return getFeedFromRepositoryReturnParticularPage(userId, lastViewedPostId);
+    @Transactional
+    public NewsFeedResponseDto getNewsFeedBatch(String cursor, long userId) {
+        newsFeedValidator.isUserExists(userId);
+        userCacheRepository.saveLastActive(userId, LocalDateTime.now());
+        FeedCursor feedCursor = cursor == null ? null : FeedCursor.decode(cursor);
+        if (feedCursor != null) {
+            newsFeedValidator.isLastViewedPostExists(feedCursor.getPostId());
+            newsFeedValidator.isLastViewedPostShouldBeShownToUser(userId, feedCursor.getPostId());
         }
 
-        if (numberToSkipAndRemaining.getValue() >= pageSize) {
-            return getNewsFeedFromCacheReturnParticularPage(postsIds, numberToSkipAndRemaining.getKey());
+        CompletableFuture<List<PostCacheDto>> postsOfPullAuthors = getPostsOfPullAuthorsAsync(userId, feedCursor);
+        FeedPage feedPage = feedCacheRepository.getFeedPage(userId, feedCursor, pageSize);
+        LinkedHashSet<PostCacheDto> posts;
+        if (feedPage == null) {
+            posts = getFeedPageFromStore(userId, feedCursor, pageSize);
+            rebuildFeedAsync(userId);
+        } else {
+            posts = getNewsFeedPageFromCache(userId, feedPage.getPostsIds(), feedCursor);
+            if (feedRebuildCoordinator.shouldRefreshEarly(feedPage.getTtlMillis())) {
+                log.info("Refreshing feed of user with id: {} before it expires", userId);
+                rebuildFeedAsync(userId);
+            }
         }
+        return buildNewsFeedResponse(mergePostsOfPullAuthors(userId, posts, postsOfPullAuthors));
+    }
 
-        return getPartOfFeedFromCacheAndLackPartFromRepository(
-                postsIds, numberToSkipAndRemaining.getKey(), userId, lastViewedPostId);
+    private void rebuildFeedAsync(long userId) {
+        feedRebuildCoordinator.rebuildAsync(userId, () -> fillFeed(userId, quantityPostsInFeed),
+                poolConfig.newsFeedTaskExecutor());
     }
 
     @Transactional
     public Set<PostCacheDto> addLatestCommentsToPosts(Set<PostCacheDto> posts) {
-        return posts.stream()
-                .peek(this::addLatestCommentsToPost)
-                .collect(Collectors.toCollection(LinkedHashSet::new));
-    }
-
-    private PostCacheDto addLatestCommentsToPost(PostCacheDto post) {
-        LinkedHashSet<CacheCommentDto> comments =
-                commentService.getBatchNewestComments(post.getPostId(), quantityCommentsInPost);
-        post.setComments(comments);
-        return post;
+        List<Long> postsIds = posts.stream()
+                .map(PostCacheDto::getPostId)
+                .toList();
+        Map<Long, LinkedHashSet<CacheCommentDto>> commentsByPostsIds =
+                commentService.getBatchNewestComments(postsIds, quantityCommentsInPost);
+        posts.forEach(post -> post.setComments(
+                commentsByPostsIds.getOrDefault(post.getPostId(), new LinkedHashSet<>())));
+        return posts;
     }
 
     @Transactional
     public PostCacheDto getPostCacheDtoWithComments(Long postId) {
-        PostCacheDto post;
-        post = postCacheService.getPostCache(postId);
+        PostCacheDto post = postCacheService.getPostCache(postId);
         if (post == null) {
             post = postService.getPostCacheDto(postId);
+            addLatestCommentsToPosts(Set.of(post));
         }
-        PostCacheDto postWithComments = addLatestCommentsToPost(post);
         log.info("Got post with latest comments, postId: {}", post.getPostId());
-        return postWithComments;
+        return post;
     }
 
-    private NewsFeedResponseDto getFeedFromRepositoryReturnFirstPage(long userId) {
-        NewsFeedResponseDto newsFeedResponseDto = new NewsFeedResponseDto();
-        List<Long> followeesIds = userServiceClient.getFolloweesIds(userId);
-        Set<PostCacheDto> posts = getBatchNewestPosts(followeesIds, quantityPostsInFeed);
-        newsFeedResponseDto.setPosts((LinkedHashSet<PostCacheDto>) posts);
-
-        List<UserCacheDto> postsAuthors = getPostsAuthors(posts);
-        newsFeedResponseDto.setPostsAuthors(postsAuthors);
+    private LinkedHashSet<PostCacheDto> getNewsFeedPageFromCache(long userId, List<Long> postsIds,
+                                                                 FeedCursor cursor) {
+        LinkedHashSet<PostCacheDto> posts = postService.getBatchPostsFromCache(postsIds).stream()
+                .sorted(FEED_ORDER)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
 
-        poolConfig.newsFeedTaskExecutor().execute(() -> fillFeed(userId, quantityPostsInFeed));
-        return newsFeedResponseDto;
+        if (posts.size() < pageSize) {
+            FeedCursor lastCachedPosition = posts.isEmpty() ? cursor : FeedCursor.of(getLastPost(posts));
+            posts.addAll(getFeedPageFromStore(userId, lastCachedPosition, pageSize - posts.size()));
+        }
+        return posts;
     }
 
-    private NewsFeedResponseDto getFeedFromRepositoryReturnParticularPage(Long userId, long lastViewedPostId) {
-        NewsFeedResponseDto newsFeedResponseDto = new NewsFeedResponseDto();
-        List<Long> followeesIds = userServiceClient.getFolloweesIds(userId);
-        Set<PostCacheDto> posts = getBatchNewestPostsPublishedAfterParticularPost(
-                followeesIds, lastViewedPostId, pageSize);
-        newsFeedResponseDto.setPosts((LinkedHashSet<PostCacheDto>) posts);
+    private LinkedHashSet<PostCacheDto> getFeedPageFromStore(long userId, FeedCursor cursor, int batchSize) {
+        List<Long> storedPostsIds = feedItemRepository.findFeedPostsIds(userId, cursor, batchSize);
+        LinkedHashSet<PostCacheDto> posts = storedPostsIds.isEmpty()
+                ? new LinkedHashSet<>()
+                : postService.getBatchPostsFromCache(storedPostsIds).stream()
+                .sorted(FEED_ORDER)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
 
-        List<UserCacheDto> postsAuthors = getPostsAuthors(posts);
-        newsFeedResponseDto.setPostsAuthors(postsAuthors);
-        return newsFeedResponseDto;
+        if (posts.size() < batchSize) {
+            FeedCursor lastStoredPosition = posts.isEmpty() ? cursor : FeedCursor.of(getLastPost(posts));
+            posts.addAll(getBatchNewestPostsFromRepository(userId, lastStoredPosition, batchSize - posts.size()));
+        }
+        return posts;
     }
 
-    private NewsFeedResponseDto getNewsFeedFromCacheReturnFirstPage(FeedCacheDto feed) {
-        NewsFeedResponseDto newsFeedResponseDto = new NewsFeedResponseDto();
-        Set<Long> postIds = feed.getPostsIds();
-
-        List<Long> batchToBring = postIds.stream()
-                .limit(pageSize)
-                .toList();
-        LinkedHashSet<PostCacheDto> sortedPosts = postService.getBatchPostsFromCache(batchToBring);
+    private LinkedHashSet<PostCacheDto> getBatchNewestPostsFromRepository(long userId, FeedCursor cursor,
+                                                                          int batchSize) {
+        List<Long> followeesIds = followGraphCache.getFolloweesIds(userId);
+        LinkedHashSet<PostCacheDto> posts = cursor == null
+                ? postService.getBatchNewestPosts(followeesIds, batchSize)
+                : postService.getBatchNewestPostsPublishedBefore(followeesIds, cursor, batchSize);
+        return new LinkedHashSet<>(addLatestCommentsToPosts(posts));
+    }
 
-        List<UserCacheDto> postsAuthors = getPostsAuthors(sortedPosts);
-        newsFeedResponseDto.setPosts(sortedPosts);
-        newsFeedResponseDto.setPostsAuthors(postsAuthors);
+    private NewsFeedResponseDto buildNewsFeedResponse(LinkedHashSet<PostCacheDto> posts) {
+        NewsFeedResponseDto newsFeedResponseDto = new NewsFeedResponseDto();
+        newsFeedResponseDto.setPosts(posts);
+        newsFeedResponseDto.setPostsAuthors(getPostsAuthors(posts));
+        if (posts.size() >= pageSize) {
+            newsFeedResponseDto.setNextCursor(FeedCursor.of(getLastPost(posts)).encode());
+        }
         return newsFeedResponseDto;
     }
 
-    private NewsFeedResponseDto getNewsFeedFromCacheReturnParticularPage(Set<Long> postsIds, int postsToSkip) {
-        NewsFeedResponseDto newsFeedResponseDto = new NewsFeedResponseDto();
-        List<Long> batchToBring = postsIds.stream()
-                .skip(postsToSkip)
-                .limit(pageSize)
+    private PostCacheDto getLastPost(Set<PostCacheDto> posts) {
+        PostCacheDto lastPost = null;
+        for (PostCacheDto post : posts) {
+            lastPost = post;
+        }
+        return lastPost;
+    }
+
+    private CompletableFuture<List<PostCacheDto>> getPostsOfPullAuthorsAsync(long userId, FeedCursor cursor) {
+        Set<Long> pullAuthorsIds = authorTimelineRepository.getPullAuthorsIds();
+        if (pullAuthorsIds.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        List<Long> followedPullAuthorsIds = followGraphCache.getFolloweesIds(userId).stream()
+                .filter(pullAuthorsIds::contains)
                 .toList();
+        if (followedPullAuthorsIds.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
 
-        LinkedHashSet<PostCacheDto> sortedPosts = postService.getBatchPostsFromCache(batchToBring);
-        List<UserCacheDto> postsAuthors = getPostsAuthors(sortedPosts);
-        newsFeedResponseDto.setPosts(sortedPosts);
-        newsFeedResponseDto.setPostsAuthors(postsAuthors);
-        return newsFeedResponseDto;
+        return CompletableFuture.supplyAsync(() -> {
+            List<Long> pulledPostsIds = getNewestPostsIdsOfPullAuthors(followedPullAuthorsIds, cursor);
+            return pulledPostsIds.isEmpty()
+                    ? List.of()
+                    : List.copyOf(postService.getBatchPostsFromCache(pulledPostsIds));
+        }, poolConfig.newsFeedTaskExecutor());
     }
 
-    private NewsFeedResponseDto getPartOfFeedFromCacheAndLackPartFromRepository(
-            Set<Long> postsIds, int numbersToSkip, Long userId, Long lastViewedPostId) {
-        int quantityToTakeFromCache = postsIds.size() - numbersToSkip ;
-        int quantityToTakeFromRepository = pageSize - quantityToTakeFromCache;
-        List<Long> batchToBringFromCache = postsIds.stream()
-                .skip(numbersToSkip)
-                .limit(quantityToTakeFromCache)
+    private LinkedHashSet<PostCacheDto> mergePostsOfPullAuthors(long userId, LinkedHashSet<PostCacheDto> posts,
+                                                                CompletableFuture<List<PostCacheDto>> postsOfPullAuthors) {
+        Set<Long> postsIdsOnPage = posts.stream()
+                .map(PostCacheDto::getPostId)
+                .collect(Collectors.toSet());
+        List<PostCacheDto> pulledPosts = postsOfPullAuthors.join().stream()
+                .filter(post -> !postsIdsOnPage.contains(post.getPostId()))
                 .toList();
-        List<Long> followeesIds = userServiceClient.getFolloweesIds(userId);
+        if (pulledPosts.isEmpty()) {
+            return posts;
+        }
 
-        Set<PostCacheDto> postsFromRepository = getBatchNewestPostsPublishedAfterParticularPost(
-                followeesIds, lastViewedPostId, quantityToTakeFromRepository);
-        Set<PostCacheDto> postsFromCache = postService.getBatchPostsFromCache(batchToBringFromCache);
-        LinkedHashSet<PostCacheDto> sortedPosts = Stream.concat(postsFromRepository.stream(), postsFromCache.stream())
-                .sorted(Comparator.comparing(PostCacheDto::getPublishedAt).reversed())
+        LinkedHashSet<PostCacheDto> mergedPosts = Stream.concat(posts.stream(), pulledPosts.stream())
+                .sorted(FEED_ORDER)
+                .limit(pageSize)
                 .collect(Collectors.toCollection(LinkedHashSet::new));
 
-        List<UserCacheDto> postsAuthors = getPostsAuthors(sortedPosts);
-        NewsFeedResponseDto newsFeedResponseDto = new NewsFeedResponseDto();
-        newsFeedResponseDto.setPosts(sortedPosts);
-        newsFeedResponseDto.setPostsAuthors(postsAuthors);
-        return newsFeedResponseDto;
+        long pulledDeliveries = pulledPosts.stream()
+                .filter(mergedPosts::contains)
+                .count();
+        meterRegistry.counter("feed.deliveries", "mode", "pull").increment(pulledDeliveries);
+        log.info("Merged {} posts of pull authors into feed page of user with id: {}", pulledDeliveries, userId);
+        return mergedPosts;
     }
 
-    private Set<PostCacheDto> getBatchNewestPostsPublishedAfterParticularPost(List<Long> followeesIds,
-                                                                              long particularPostId, int batchSize) {
-        LinkedHashSet<PostCacheDto> posts = postService.getBatchNewestPostsPublishedAfterParticularPost(
-                followeesIds, particularPostId, batchSize);
-        return addLatestCommentsToPosts(posts);
-    }
+    private List<Long> getNewestPostsIdsOfPullAuthors(List<Long> authorsIds, FeedCursor cursor) {
+        Map<Long, Set<ZSetOperations.TypedTuple<String>>> timelines =
+                new HashMap<>(authorTimelineRepository.getTimelines(authorsIds, cursor, pageSize));
+        List<Long> authorsIdsWithoutTimeline = authorsIds.stream()
+                .filter(authorId -> !timelines.containsKey(authorId))
+                .toList();
+        if (!authorsIdsWithoutTimeline.isEmpty()) {
+            authorsIdsWithoutTimeline.forEach(this::fillTimeline);
+            timelines.putAll(authorTimelineRepository.getTimelines(authorsIdsWithoutTimeline, cursor, pageSize));
+        }
 
-    private Set<PostCacheDto> getBatchNewestPosts(List<Long> followeesIds, int batchSize) {
-        Set<PostCacheDto> posts = postService.getBatchNewestPosts(followeesIds, batchSize);
-        return addLatestCommentsToPosts(posts);
+        Map<Long, Double> scoresByPostsIds = new HashMap<>();
+        timelines.values().forEach(timeline -> timeline.forEach(tuple ->
+                scoresByPostsIds.put(Long.valueOf(tuple.getValue()), tuple.getScore())));
+        return scoresByPostsIds.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue()
+                        .thenComparing(Map.Entry.<Long, Double>comparingByKey())
+                        .reversed())
+                .limit(pageSize)
+                .map(Map.Entry::getKey)
+                .toList();
     }
 
-    private Map.Entry<Integer, Integer> findNumberToSkipAndRemaining(Set<Long> postIds, long postIdToFind) {
-        int skipped = 0;
-        Integer remaining = 0;
-        boolean found = false;
-
-        for (Long postId : postIds) {
-            if (!found) {
-                skipped++;
-            } else {
-                remaining++;
-            }
-
-            if (postId.equals(postIdToFind)) {
-                found = true;
-            }
-        }
-
-        if (!found) {
-            remaining = null;
-        }
+    private void fillTimeline(long authorId) {
+        LinkedHashSet<PostCacheDto> posts = postService.getBatchNewestPosts(List.of(authorId), timelineSize);
+        postCacheService.saveBatchPostsToCache(posts);
+        authorTimelineRepository.saveTimeline(authorId, posts);
+        log.info("Timeline of author with id: {} filled with {} posts", authorId, posts.size());
+    }
 
-        return new AbstractMap.SimpleEntry<>(skipped , remaining);
+    private Set<PostCacheDto> getMissingNewestPostsOfFollowees(long userId, Set<PostCacheDto> storedPosts,
+                                                               int batchSize) {
+        Set<Long> storedPostsIds = storedPosts.stream()
+                .map(PostCacheDto::getPostId)
+                .collect(Collectors.toSet());
+        Set<PostCacheDto> missingPosts = postService.getBatchNewestPosts(followGraphCache.getFolloweesIds(userId),
+                        batchSize).stream()
+                .filter(post -> !storedPostsIds.contains(post.getPostId()))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        feedItemRepository.saveFeedsItems(Map.of(userId, missingPosts));
+        return addLatestCommentsToPosts(missingPosts);
     }
 
     private List<UserCacheDto> getPostsAuthors(Set<PostCacheDto> posts) {
         List<Long> usersIdsMissedInCache = new ArrayList<>();
-        List<Long> postsAuthorsIds = posts.stream().map(PostCacheDto::getAuthorId).toList();
-        List<UserCacheDto> usersDto = userCacheRepository.getBatchCacheUserDto(postsAuthorsIds, usersIdsMissedInCache);
+        List<Long> postsAuthorsIds = posts.stream()
+                .map(PostCacheDto::getAuthorId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        List<UserCacheDto> usersDto =
+                new ArrayList<>(userCacheRepository.getBatchCacheUserDto(postsAuthorsIds, usersIdsMissedInCache));
 
         if (!usersIdsMissedInCache.isEmpty()) {
             List<UserCacheDto> users = userServiceClient.getUsersCachesByIds(usersIdsMissedInCache);
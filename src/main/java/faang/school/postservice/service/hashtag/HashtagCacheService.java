@@ -95,6 +95,6 @@ public class HashtagCacheService {
     }
 
     protected void cleanCache() {
-        Objects.requireNonNull(redisTemplate.getConnectionFactory()).getConnection().flushDb();
+        redisTemplate.delete(List.of(HASHTAGS, POPULAR_HASHTAGS, HASHTAGS_SCORES));
     }
 }
\ No newline at end of file
@@ -83,7 +83,7 @@ public class HashtagService {
     @PreDestroy
     private void cleaningCache() {
         hashtagCacheService.cleanCache();
-        log.info("Achievement cache cleaned");
+        log.info("Hashtag cache cleaned");
     }
 
     private Map<String, Set<PostDto>> findAllHashtagsWithPostIds() {
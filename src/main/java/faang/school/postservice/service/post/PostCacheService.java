@@ -1,19 +1,25 @@
 package faang.school.postservice.service.post;
 
 import faang.school.postservice.dto.comment.CacheCommentDto;
+import faang.school.postservice.enums.PostCounter;
 import faang.school.postservice.mapper.post.PostMapper;
 import faang.school.postservice.model.Post;
 import faang.school.postservice.model.cache.PostCacheDto;
 import faang.school.postservice.repository.cache.PostCacheRepository;
+import faang.school.postservice.repository.cache.PostCommentsCacheRepository;
+import faang.school.postservice.repository.cache.PostCountersRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -21,6 +27,8 @@ import java.util.function.Consumer;
 public class PostCacheService {
 
     private final PostCacheRepository postCacheRepository;
+    private final PostCountersRepository postCountersRepository;
+    private final PostCommentsCacheRepository postCommentsCacheRepository;
     private final PostMapper postMapper;
 
     @Value(value = "${feed.comment.quantity-comments-in-post}")
@@ -32,52 +40,86 @@ public class PostCacheService {
     }
 
     public void saveBatchPostsToCache(Set<PostCacheDto> posts) {
-        postCacheRepository.saveBatchPostsToCache(posts);
+        postCommentsCacheRepository.seedComments(posts, commentQuantityInPost);
+        postCacheRepository.saveBatchPostsToCache(posts.stream()
+                .map(postMapper::toPostCacheBody)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+        postCountersRepository.seedCounters(posts);
         log.info("Save posts {} to cache", posts.size());
     }
 
     public void savePostToCache(PostCacheDto postCacheDto) {
-        postCacheRepository.savePostCache(postCacheDto);
+        postCommentsCacheRepository.seedComments(List.of(postCacheDto), commentQuantityInPost);
+        postCacheRepository.savePostCache(postMapper.toPostCacheBody(postCacheDto));
+        postCountersRepository.seedCounters(List.of(postCacheDto));
         log.info("Saving post with id: {} to post cache", postCacheDto.getPostId());
     }
 
-    public void addPostViewToPostCache(PostCacheDto postCacheDto) {
-        updatePostCache(postCacheDto, PostCacheDto::incrementPostViewsCount);
-        log.info("Added postView to postCache, for post with id: {}", postCacheDto.getPostId());
+    public void addPostViewsToPostCache(Map<Long, Long> viewsByPostsIds) {
+        int cachedPostsCount = postCountersRepository.incrementCounters(PostCounter.VIEWS, viewsByPostsIds);
+        log.info("Added postViews to postCache, for {} of {} posts", cachedPostsCount, viewsByPostsIds.size());
     }
 
-    public void addLikeToCachePost(PostCacheDto postCacheDto) {
-        updatePostCache(postCacheDto, PostCacheDto::incrementLikesCount);
-        log.info("Added like to postCache, for post with id: {}", postCacheDto.getPostId());
+    public void addLikesToPostCache(Map<Long, Long> likesByPostsIds) {
+        int cachedPostsCount = postCountersRepository.incrementCounters(PostCounter.LIKES, likesByPostsIds);
+        log.info("Added likes to postCache, for {} of {} posts", cachedPostsCount, likesByPostsIds.size());
     }
 
-    public Set<PostCacheDto> getBatchPostsCaches(List<Long> postIds, List<Long> postsMissedInCache) {
-        Set<PostCacheDto> dtos = postCacheRepository.getBatchPostsCaches(new ArrayList<>(postIds), postsMissedInCache);
+    public LinkedHashSet<PostCacheDto> getBatchPostsCaches(List<Long> postIds, List<Long> postsMissedInCache) {
+        LinkedHashSet<PostCacheDto> dtos =
+                postCacheRepository.getBatchPostsCaches(postIds, commentQuantityInPost, postsMissedInCache);
         log.info("Fetching {} posts from cache", dtos.size());
         return dtos;
     }
 
-    public void addCommentToPostCache(CacheCommentDto commentDto, PostCacheDto postCacheDto) {
-        postCacheDto.incrementCommentsCount();
-        Set<CacheCommentDto> comments = postCacheDto.getComments();
-        if (comments.size() >= commentQuantityInPost) {
-            comments.stream().limit(1).forEach(comments::remove);
-        }
-        comments.add(commentDto);
-        postCacheDto.setComments(comments);
-        postCacheRepository.savePostCache(postCacheDto);
-        log.info("Added comment with id: {} to postCache, for post with id: {}",
-                commentDto.getCommentId(), commentDto.getPostId());
+    public void addCommentsToPostCache(Map<Long, List<CacheCommentDto>> commentsByPostsIds) {
+        Map<Long, Long> commentsCountByPostsIds = new HashMap<>();
+        commentsByPostsIds.forEach((postId, comments) -> commentsCountByPostsIds.put(postId, (long) comments.size()));
+        postCountersRepository.incrementCounters(PostCounter.COMMENTS, commentsCountByPostsIds);
+
+        int cachedPostsCount = postCommentsCacheRepository.pushComments(commentsByPostsIds, commentQuantityInPost);
+        log.info("Added comments to postCache, for {} posts, {} posts are not cached",
+                cachedPostsCount, commentsByPostsIds.size() - cachedPostsCount);
     }
 
     public PostCacheDto getPostCache(long postId) {
         PostCacheDto postCache = postCacheRepository.getPostCache(postId);
+        if (postCache == null) {
+            log.info("Post with id: {} not found in cache", postId);
+            return null;
+        }
+        mergeCounters(List.of(postCache));
+        mergeComments(List.of(postCache));
         log.info("Fetching post with id: {} from cache", postCache.getPostId());
         return postCache;
     }
 
-    private void updatePostCache(PostCacheDto postCache, Consumer<PostCacheDto> updater) {
-        updater.accept(postCache);
-        postCacheRepository.savePostCache(postCache);
+    private void mergeComments(Collection<PostCacheDto> posts) {
+        if (posts.isEmpty()) {
+            return;
+        }
+        List<Long> postsIds = posts.stream()
+                .map(PostCacheDto::getPostId)
+                .toList();
+        Map<Long, LinkedHashSet<CacheCommentDto>> commentsByPostsIds =
+                postCommentsCacheRepository.getComments(postsIds, commentQuantityInPost);
+        posts.forEach(post -> post.setComments(
+                commentsByPostsIds.getOrDefault(post.getPostId(), new LinkedHashSet<>())));
+    }
+
+    private void mergeCounters(Collection<PostCacheDto> posts) {
+        if (posts.isEmpty()) {
+            return;
+        }
+        List<Long> postsIds = posts.stream()
+                .map(PostCacheDto::getPostId)
+                .toList();
+        Map<Long, Map<PostCounter, Long>> countersByPostsIds = postCountersRepository.getCounters(postsIds);
+        posts.forEach(post -> {
+            Map<PostCounter, Long> counters = countersByPostsIds.getOrDefault(post.getPostId(), Map.of());
+            post.setLikesCount(counters.getOrDefault(PostCounter.LIKES, post.getLikesCount()));
+            post.setPostViewsCount(counters.getOrDefault(PostCounter.VIEWS, post.getPostViewsCount()));
+            post.setCommentsCount(counters.getOrDefault(PostCounter.COMMENTS, post.getCommentsCount()));
+        });
     }
 }
@@ -0,0 +1,166 @@
+package faang.school.postservice.service.post;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import faang.school.postservice.event.post.PostCacheInvalidationEvent;
+import faang.school.postservice.publisher.redis.impl.PostCacheInvalidationPublisher;
+import faang.school.postservice.repository.PostRepository;
+import faang.school.postservice.repository.cache.PostNearCache;
+import faang.school.postservice.util.BloomFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostExistenceFilter {
+
+    private final PostRepository postRepository;
+    private final MeterRegistry meterRegistry;
+    private final PostCacheInvalidationPublisher postCacheInvalidationPublisher;
+    private final PostNearCache postNearCache;
+    private final ReentrantLock indexLock = new ReentrantLock();
+
+    @Value(value = "${feed.post.existence-filter.minimum-expected-posts}")
+    private long minimumExpectedPosts;
+
+    @Value(value = "${feed.post.existence-filter.false-positive-probability}")
+    private double falsePositiveProbability;
+
+    @Value(value = "${feed.post.existence-filter.batch-size}")
+    private int batchSize;
+
+    @Value(value = "${feed.post.existence-filter.late-commit-ids-window}")
+    private long lateCommitIdsWindow;
+
+    @Value(value = "${feed.post.existence-filter.missing-ids-maximum-size}")
+    private long missingIdsMaximumSize;
+
+    @Value(value = "${feed.post.existence-filter.missing-ids-expire-after-write-seconds}")
+    private long missingIdsExpireAfterWriteSeconds;
+
+    private Cache<Long, Boolean> missingPostsIds;
+    private volatile PostsIdsIndex index;
+    private long observedMaxPostId;
+
+    @PostConstruct
+    private void initMissingPostsIds() {
+        missingPostsIds = Caffeine.newBuilder()
+                .maximumSize(missingIdsMaximumSize)
+                .expireAfterWrite(Duration.ofSeconds(missingIdsExpireAfterWriteSeconds))
+                .build();
+    }
+
+    public boolean mightExist(long postId) {
+        if (missingPostsIds.getIfPresent(postId) != null) {
+            meterRegistry.counter("post.existence.lookups", "result", "missing-cached").increment();
+            return false;
+        }
+        PostsIdsIndex currentIndex = index;
+        if (currentIndex != null && postId <= getTrustedUpToPostId(currentIndex)
+                && !currentIndex.filter().mightContain(postId)) {
+            meterRegistry.counter("post.existence.lookups", "result", "filtered").increment();
+            return false;
+        }
+        meterRegistry.counter("post.existence.lookups", "result", "unknown").increment();
+        return true;
+    }
+
+    public void markMissing(long postId) {
+        PostsIdsIndex currentIndex = index;
+        if (currentIndex != null && postId <= getTrustedUpToPostId(currentIndex)) {
+            missingPostsIds.put(postId, Boolean.TRUE);
+        }
+    }
+
+    public void markCreated(long postId) {
+        missingPostsIds.invalidate(postId);
+        PostsIdsIndex currentIndex = index;
+        if (currentIndex != null) {
+            currentIndex.filter().put(postId);
+        }
+        postCacheInvalidationPublisher.publish(PostCacheInvalidationEvent.builder()
+                .instanceId(postNearCache.getInstanceId())
+                .postsIds(List.of(postId))
+                .build());
+    }
+
+    public void forgetMissing(Collection<Long> postsIds) {
+        missingPostsIds.invalidateAll(postsIds);
+    }
+
+    public void refresh() {
+        if (!indexLock.tryLock()) {
+            log.info("Posts ids index is being built, refresh skipped");
+            return;
+        }
+        try {
+            long maxPostId = postRepository.findMaxPostId();
+            PostsIdsIndex currentIndex = index;
+            if (currentIndex == null) {
+                buildIndex();
+            } else if (observedMaxPostId > currentIndex.indexedUpToPostId()) {
+                int addedPostsCount = addPostsIds(currentIndex.filter(),
+                        Math.max(0, currentIndex.indexedUpToPostId() - lateCommitIdsWindow), observedMaxPostId);
+                index = new PostsIdsIndex(currentIndex.filter(), observedMaxPostId);
+                log.info("Added {} posts ids to the index, indexed up to post with id: {}",
+                        addedPostsCount, observedMaxPostId);
+            }
+            observedMaxPostId = maxPostId;
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    public void rebuild() {
+        indexLock.lock();
+        try {
+            buildIndex();
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    private void buildIndex() {
+        if (observedMaxPostId == 0) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        long expectedPosts = Math.max(minimumExpectedPosts, observedMaxPostId + observedMaxPostId / 4);
+        BloomFilter filter = BloomFilter.create(expectedPosts, falsePositiveProbability);
+        int indexedPostsCount = addPostsIds(filter, 0, observedMaxPostId);
+        index = new PostsIdsIndex(filter, observedMaxPostId);
+        log.info("Built index of {} posts ids up to post with id: {}, {} bits in {} ms", indexedPostsCount,
+                observedMaxPostId, filter.getBitsCount(), System.currentTimeMillis() - startTime);
+    }
+
+    private long getTrustedUpToPostId(PostsIdsIndex currentIndex) {
+        return currentIndex.indexedUpToPostId() - lateCommitIdsWindow;
+    }
+
+    private int addPostsIds(BloomFilter filter, long postIdAfter, long postIdUpTo) {
+        int addedPostsCount = 0;
+        List<Long> postsIds;
+        do {
+            postsIds = postRepository.findBatchLivePostsIds(postIdAfter, postIdUpTo, batchSize);
+            postsIds.forEach(filter::put);
+            addedPostsCount += postsIds.size();
+            if (!postsIds.isEmpty()) {
+                postIdAfter = postsIds.get(postsIds.size() - 1);
+            }
+        } while (postsIds.size() == batchSize);
+        return addedPostsCount;
+    }
+
+    private record PostsIdsIndex(BloomFilter filter, long indexedUpToPostId) {
+    }
+}
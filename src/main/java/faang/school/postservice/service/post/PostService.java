@@ -2,10 +2,12 @@ package faang.school.postservice.service.post;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import faang.school.postservice.client.UserServiceClient;
 import faang.school.postservice.config.async.ThreadPoolConfig;
 import faang.school.postservice.config.context.UserContext;
+import faang.school.postservice.dto.news_feed.FeedCursor;
+import faang.school.postservice.dto.post.PostAuthorKeyProjection;
 import faang.school.postservice.dto.post.PostDto;
+import faang.school.postservice.dto.post.PostKeyProjection;
 import faang.school.postservice.dto.post.PostRequestDto;
 import faang.school.postservice.event.post.PublishPostEvent;
 import faang.school.postservice.exception.EntityNotFoundException;
@@ -14,27 +16,33 @@ import faang.school.postservice.model.Like;
 import faang.school.postservice.model.Post;
 import faang.school.postservice.model.cache.PostCacheDto;
 import faang.school.postservice.publisher.kafka.KafkaCacheUserProducer;
-import faang.school.postservice.publisher.kafka.KafkaPostViewProducer;
 import faang.school.postservice.publisher.kafka.KafkaPublishPostProducer;
 import faang.school.postservice.publisher.redis.impl.RedisMessagePublisher;
 import faang.school.postservice.repository.PostRepository;
+import faang.school.postservice.repository.cache.AuthorTimelineRepository;
 import faang.school.postservice.service.hashtag.HashtagService;
+import faang.school.postservice.service.subscription.FollowGraphCache;
+import faang.school.postservice.util.DeltaVarintCodec;
+import faang.school.postservice.util.TimelineMerger;
 import faang.school.postservice.validator.post.PostValidator;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
@@ -52,12 +60,15 @@ public class PostService {
     private final ObjectMapper objectMapper;
     private final ThreadPoolConfig poolConfig;
     private final HashtagService hashtagService;
-    private final UserServiceClient userServiceClient;
-    private final KafkaPostViewProducer kafkaPostViewProducer;
+    private final PostViewAggregator postViewAggregator;
     private final KafkaCacheUserProducer kafkaCacheUserProducer;
     private final KafkaPublishPostProducer kafkaPublishPostProducer;
     private final UserContext userContext;
     private final PostCacheService postCacheService;
+    private final AuthorTimelineRepository authorTimelineRepository;
+    private final MeterRegistry meterRegistry;
+    private final FollowGraphCache followGraphCache;
+    private final PostExistenceFilter postExistenceFilter;
 
     @Value("${post.unverified-posts-ban-count}")
     private Integer unverifiedPostsBanCount;
@@ -71,6 +82,12 @@ public class PostService {
     @Value(value = "${feed.comment.quantity-comments-in-post}")
     int commentQuantityInPost;
 
+    @Value(value = "${feed.pull.follower-threshold}")
+    private int pullFollowersThreshold;
+
+    @Value(value = "${feed.pull.timeline-size}")
+    private int timelineSize;
+
     public PostDto createPost(PostRequestDto postRequestDtoDto) {
         postValidator.checkCreator(postRequestDtoDto);
 
@@ -79,6 +96,7 @@ public class PostService {
         createPost.setDeleted(false);
 
         createPost = postRepository.save(createPost);
+        postExistenceFilter.markCreated(createPost.getId());
         log.info("Post with id {} - created", createPost.getId());
         hashtagService.takeHashtags(createPost);
         return postMapper.toDto(createPost);
@@ -102,6 +120,7 @@ public class PostService {
 
         log.info("Post with id {} - deleted", deletePost.getId());
         postRepository.save(deletePost);
+        postExistenceFilter.markMissing(postId);
     }
 
     public List<PostDto> getAllNoPublishPostsByUserId(Long userId) {
@@ -196,7 +215,7 @@ public class PostService {
     @Transactional
     public PostDto getPostById(Long postId) {
         Post post = getPost(postId);
-        kafkaPostViewProducer.send(post.getId());
+        postViewAggregator.addView(post.getId());
         log.info("Post with id {} - got", postId);
         return postMapper.toDto(post);
     }
@@ -238,14 +257,36 @@ public class PostService {
 
     @Transactional
     public LinkedHashSet<PostCacheDto> getBatchNewestPosts(List<Long> followeesIds, int batchSize) {
-        List<Post> post = postRepository.findBatchNewestPostsForUserByFolloweesIds(followeesIds, batchSize);
-        log.info("Start getting batch newest Posts: {}, from post repository", post.size());
-        return new LinkedHashSet<>(postMapper.toPostCacheDtoList(post));
+        List<PostAuthorKeyProjection> postsKeys = followeesIds.isEmpty()
+                ? List.of()
+                : postRepository.findBatchNewestPostsKeysByAuthorsIds(followeesIds.toArray(Long[]::new), batchSize);
+        LinkedHashSet<PostCacheDto> posts = getPostsOfMergedTimelines(postsKeys, batchSize);
+        log.info("Start getting batch newest Posts: {}, from post repository", posts.size());
+        return posts;
+    }
+
+    @Transactional
+    public List<PostAuthorKeyProjection> getNewestPostsKeysOfEachAuthor(Collection<Long> authorsIds,
+                                                                        int perAuthorLimit) {
+        if (authorsIds.isEmpty()) {
+            return List.of();
+        }
+        List<PostAuthorKeyProjection> postsKeys =
+                postRepository.findNewestPostsKeysOfEachAuthor(authorsIds.toArray(Long[]::new), perAuthorLimit);
+        log.info("Got {} newest posts keys of {} authors", postsKeys.size(), authorsIds.size());
+        return postsKeys;
     }
 
     @Transactional
     public boolean isPostExists(Long postId) {
-        boolean isPostExists = postRepository.existsById(postId);
+        if (!postExistenceFilter.mightExist(postId)) {
+            log.info("Post with id: {} does not exist", postId);
+            return false;
+        }
+        boolean isPostExists = postRepository.existsByIdAndDeletedFalse(postId);
+        if (!isPostExists) {
+            postExistenceFilter.markMissing(postId);
+        }
         log.info(isPostExists ? "Post with id: {} exists" : "Post with id: {} does not exist", postId);
         return isPostExists;
     }
@@ -259,67 +300,129 @@ public class PostService {
 
     @Transactional
     public PostCacheDto getPostCacheDto(Long postId) {
+        if (!postExistenceFilter.mightExist(postId)) {
+            throw new EntityNotFoundException(POST, postId);
+        }
         Post post = getPost(postId);
         return postMapper.toPostCacheDto(post);
     }
 
     @Transactional
-    public Page<Long> getAllPostsIdsPublishedNotLaterDaysAgo(long publishedDaysAgo, Pageable pageable) {
-        Page<Long> postIds = postRepository.findAllPublishedNotDeletedPostsIdsPublishedNotLaterDaysAgo(
-                publishedDaysAgo, pageable);
-        log.info("Getting published not deleted posts ids: {}, published not later {} days ago",
-                postIds.getContent().size(), publishedDaysAgo);
-        return postIds;
+    public List<PostKeyProjection> getBatchPublishedPostsKeysPublishedAfter(LocalDateTime publishedAfter,
+                                                                            FeedCursor cursor, int batchSize) {
+        if (cursor == null) {
+            return postRepository.findBatchPublishedPostsKeysPublishedAfter(publishedAfter, batchSize);
+        }
+        return postRepository.findBatchPublishedPostsKeysPublishedAfterBefore(
+                publishedAfter, cursor.getPublishedAt(), cursor.getPostId(), batchSize);
     }
 
     @Transactional
-    public LinkedHashSet<PostCacheDto> getBatchNewestPostsPublishedAfterParticularPost(
-            List<Long> followeesIds, long particularPostId, int batchSize) {
-        List<Post> posts = postRepository.findBatchOrderedPostsAfterParticularPostIdInOrderByFolloweesIds(
-                followeesIds, particularPostId, batchSize);
-        log.info("Start getting batch newest Posts: {}, after particular post with id: {} from post repository",
-                posts.size(), particularPostId);
+    public LinkedHashSet<PostCacheDto> getBatchNewestPostsPublishedBefore(
+            List<Long> followeesIds, FeedCursor cursor, int batchSize) {
+        List<PostAuthorKeyProjection> postsKeys = followeesIds.isEmpty()
+                ? List.of()
+                : postRepository.findBatchNewestPostsKeysByAuthorsIdsPublishedBefore(followeesIds.toArray(Long[]::new),
+                cursor.getPublishedAt(), cursor.getPostId(), batchSize);
+        LinkedHashSet<PostCacheDto> posts = getPostsOfMergedTimelines(postsKeys, batchSize);
+        log.info("Start getting batch newest Posts: {}, published before post with id: {} from post repository",
+                posts.size(), cursor.getPostId());
+        return posts;
+    }
+
+    private LinkedHashSet<PostCacheDto> getPostsOfMergedTimelines(List<PostAuthorKeyProjection> postsKeys,
+                                                                  int batchSize) {
+        List<Long> postsIds = TimelineMerger.mergeNewestPostsIds(
+                TimelineMerger.groupByAuthors(postsKeys).values(), batchSize);
+        if (postsIds.isEmpty()) {
+            return new LinkedHashSet<>();
+        }
+        Map<Long, Post> postsByIds = postRepository.findAllById(postsIds).stream()
+                .collect(Collectors.toMap(Post::getId, post -> post));
+        List<Post> posts = postsIds.stream()
+                .map(postsByIds::get)
+                .filter(Objects::nonNull)
+                .toList();
         return new LinkedHashSet<>(postMapper.toPostCacheDtoList(posts));
     }
 
     @Transactional
     public LinkedHashSet<PostCacheDto> getBatchPostsFromCache(List<Long> postsIds) {
         List<Long> missedPostsIdsInCache = new ArrayList<>();
-        Set<PostCacheDto> postsCaches = postCacheService.getBatchPostsCaches(postsIds, missedPostsIdsInCache);
+        LinkedHashSet<PostCacheDto> postsCaches = postCacheService.getBatchPostsCaches(postsIds, missedPostsIdsInCache);
         if (!missedPostsIdsInCache.isEmpty()) {
             List<Post> posts = postRepository.findAllById(missedPostsIdsInCache);
-            List<PostCacheDto> postCachesFromRepository = postMapper.toPostCacheDtoList(posts);
-            postsCaches.addAll(postCachesFromRepository);
-            return postsCaches.stream()
-                    .sorted(Comparator.comparing(PostCacheDto::getPublishedAt, Comparator.nullsLast(Comparator.naturalOrder()))
-                            .reversed())
+            Map<Long, PostCacheDto> postsByIds = new HashMap<>();
+            postsCaches.forEach(post -> postsByIds.put(post.getPostId(), post));
+            postMapper.toPostCacheDtoList(posts).forEach(post -> postsByIds.put(post.getPostId(), post));
+            return postsIds.stream()
+                    .map(postsByIds::get)
+                    .filter(Objects::nonNull)
                     .collect(Collectors.toCollection(LinkedHashSet::new));
         }
         log.info("Got batch postsCachesDtos : {}", postsCaches.size());
-        return new LinkedHashSet<>(postsCaches);
+        return postsCaches;
+    }
+
+    public void refreshPullAuthors() {
+        authorTimelineRepository.getPullAuthorsIds().forEach(authorId -> {
+            List<Long> followersIds = followGraphCache.getFollowersIds(authorId);
+            if (followersIds.size() > pullFollowersThreshold) {
+                return;
+            }
+            LinkedHashSet<PostCacheDto> recentPosts = getBatchNewestPosts(List.of(authorId), timelineSize);
+            recentPosts.forEach(post -> pushPostToFollowers(post.getPostId(), post.getAuthorId(),
+                    post.getPublishedAt(), followersIds));
+            authorTimelineRepository.removePullAuthor(authorId);
+            log.info("Author with id: {} has {} followers, moved to push delivery with {} recent posts",
+                    authorId, followersIds.size(), recentPosts.size());
+        });
     }
 
     private void sendPostPublishedEvent(Post post) {
         Long userId = userContext.getUserId();
         poolConfig.postTaskExecutor().execute(() -> {
             userContext.setUserId(userId);
-            List<Long> followersIds = userServiceClient.getFollowersIds(post.getAuthorId());
-            List<List<Long>> subLists = divideListToSubLists(followersIds, postEventBatchSize);
-            subLists.forEach(ids -> kafkaPublishPostProducer.send(createPostEvent(post, ids)));
+            List<Long> followersIds = followGraphCache.getFollowersIds(post.getAuthorId());
+            if (followersIds.size() > pullFollowersThreshold) {
+                authorTimelineRepository.addPostToTimeline(postMapper.toPostCacheDto(post));
+                authorTimelineRepository.addPullAuthor(post.getAuthorId());
+                log.info("Post with id {} - published to timeline of author with {} followers",
+                        post.getId(), followersIds.size());
+                return;
+            }
+            pushPostToFollowers(post.getId(), post.getAuthorId(), post.getPublishedAt(), followersIds);
             log.info("Post with id {} - published", post.getId());
         });
     }
 
+    private void pushPostToFollowers(long postId, Long authorId, LocalDateTime publishedAt, List<Long> followersIds) {
+        long[] sortedFollowersIds = followersIds.stream()
+                .mapToLong(Long::longValue)
+                .sorted()
+                .distinct()
+                .toArray();
+        for (int i = 0; i < sortedFollowersIds.length; i += postEventBatchSize) {
+            long[] chunk = Arrays.copyOfRange(sortedFollowersIds, i,
+                    Math.min(i + postEventBatchSize, sortedFollowersIds.length));
+            kafkaPublishPostProducer.send(createPostEvent(postId, authorId, publishedAt, chunk));
+        }
+        meterRegistry.counter("feed.deliveries", "mode", "push").increment(followersIds.size());
+    }
+
     private Post setPublished(Post post) {
         post.setPublished(true);
         post.setPublishedAt(LocalDateTime.now());
         return post;
     }
 
-    private PublishPostEvent createPostEvent(Post post, List<Long> followersIds) {
+    private PublishPostEvent createPostEvent(long postId, Long authorId, LocalDateTime publishedAt,
+                                             long[] sortedFollowersIds) {
         return PublishPostEvent.builder()
-                .postDto(postMapper.toPostCacheDto(post))
-                .followersIds(followersIds)
+                .postId(postId)
+                .authorId(authorId)
+                .publishedAt(publishedAt)
+                .followersIds(DeltaVarintCodec.encode(sortedFollowersIds))
                 .build();
     }
 
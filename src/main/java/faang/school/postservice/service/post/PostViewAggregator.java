@@ -0,0 +1,60 @@
+package faang.school.postservice.service.post;
+
+import faang.school.postservice.repository.PostViewCounterRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostViewAggregator {
+
+    private final Map<Long, LongAdder> viewsByPostsIds = new ConcurrentHashMap<>();
+    private final PostViewCounterRepository postViewCounterRepository;
+    private final PostCacheService postCacheService;
+
+    public void addView(long postId) {
+        LongAdder views;
+        do {
+            views = viewsByPostsIds.computeIfAbsent(postId, id -> new LongAdder());
+            views.increment();
+        } while (viewsByPostsIds.get(postId) != views);
+    }
+
+    @PreDestroy
+    public synchronized void flush() {
+        Map<Long, Long> deltas = drainViews();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            postViewCounterRepository.incrementPostViewCounters(deltas);
+        } catch (RuntimeException e) {
+            log.error("Failed to flush views of {} posts, they will be retried with the next flush", deltas.size(), e);
+            deltas.forEach((postId, views) -> viewsByPostsIds.computeIfAbsent(postId, id -> new LongAdder()).add(views));
+            return;
+        }
+        postCacheService.addPostViewsToPostCache(deltas);
+        log.info("Flushed views of {} posts", deltas.size());
+    }
+
+    private Map<Long, Long> drainViews() {
+        Map<Long, Long> deltas = new HashMap<>();
+        viewsByPostsIds.forEach((postId, views) -> {
+            long delta = views.sumThenReset();
+            if (delta > 0) {
+                deltas.put(postId, delta);
+            } else {
+                viewsByPostsIds.computeIfPresent(postId, (id, idleViews) -> idleViews.sum() == 0 ? null : idleViews);
+            }
+        });
+        return deltas;
+    }
+}
@@ -0,0 +1,111 @@
+package faang.school.postservice.service.subscription;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import faang.school.postservice.client.UserServiceClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FollowGraphCache {
+
+    private static final String FOLLOWEES_CACHE_NAME = "followees";
+    private static final String FOLLOWERS_CACHE_NAME = "followers";
+
+    private final UserServiceClient userServiceClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value(value = "${feed.follow-graph.maximum-ids}")
+    private long maximumIds;
+
+    @Value(value = "${feed.follow-graph.expire-after-write-minutes}")
+    private long expireAfterWriteMinutes;
+
+    private LoadingCache<Long, long[]> followeesCache;
+    private LoadingCache<Long, long[]> followersCache;
+
+    @PostConstruct
+    private void initCaches() {
+        followeesCache = buildCache(FOLLOWEES_CACHE_NAME, new CacheLoader<>() {
+            @Override
+            public long[] load(Long userId) {
+                return toArray(userServiceClient.getFolloweesIds(userId));
+            }
+
+            @Override
+            public Map<Long, long[]> loadAll(Set<? extends Long> usersIds) {
+                Map<Long, List<Long>> followeesIds =
+                        userServiceClient.getFolloweesIdsByFollowersIds(new ArrayList<>(usersIds));
+                Map<Long, long[]> loaded = new HashMap<>();
+                usersIds.forEach(userId -> loaded.put(userId, toArray(followeesIds.get(userId))));
+                log.info("Loaded followees of {} users", usersIds.size());
+                return loaded;
+            }
+        });
+        followersCache = buildCache(FOLLOWERS_CACHE_NAME,
+                authorId -> toArray(userServiceClient.getFollowersIds(authorId)));
+    }
+
+    public List<Long> getFolloweesIds(long userId) {
+        return toList(followeesCache.get(userId));
+    }
+
+    public Map<Long, List<Long>> getFolloweesIdsByUsersIds(Collection<Long> usersIds) {
+        return followeesCache.getAll(usersIds).entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> toList(entry.getValue())));
+    }
+
+    public List<Long> getFollowersIds(long authorId) {
+        return toList(followersCache.get(authorId));
+    }
+
+    public void invalidateSubscription(long followerId, long followeeId) {
+        followeesCache.invalidate(followerId);
+        followersCache.invalidate(followeeId);
+        log.info("Invalidated follow graph of follower with id: {} and followee with id: {}", followerId, followeeId);
+    }
+
+    private LoadingCache<Long, long[]> buildCache(String name, CacheLoader<Long, long[]> loader) {
+        LoadingCache<Long, long[]> cache = Caffeine.newBuilder()
+                .maximumWeight(maximumIds)
+                .weigher((Long id, long[] ids) -> ids.length + 1)
+                .expireAfterWrite(Duration.ofMinutes(expireAfterWriteMinutes))
+                .recordStats()
+                .build(loader);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        return cache;
+    }
+
+    private long[] toArray(List<Long> ids) {
+        if (ids == null) {
+            return new long[0];
+        }
+        return ids.stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    private List<Long> toList(long[] ids) {
+        return Arrays.stream(ids)
+                .boxed()
+                .toList();
+    }
+}
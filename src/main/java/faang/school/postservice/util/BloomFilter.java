@@ -0,0 +1,73 @@
+package faang.school.postservice.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public final class BloomFilter {
+
+    private static final double LN_2 = Math.log(2);
+    private static final long SECOND_HASH_SEED = 0x9E3779B97F4A7C15L;
+
+    private final AtomicLongArray words;
+    private final long bitsCount;
+    private final int hashFunctionsCount;
+
+    private BloomFilter(long bitsCount, int hashFunctionsCount) {
+        this.words = new AtomicLongArray(Math.toIntExact((bitsCount + Long.SIZE - 1) / Long.SIZE));
+        this.bitsCount = (long) words.length() * Long.SIZE;
+        this.hashFunctionsCount = hashFunctionsCount;
+    }
+
+    public static BloomFilter create(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions <= 0 || falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("Invalid bloom filter parameters: %d insertions, %f probability"
+                    .formatted(expectedInsertions, falsePositiveProbability));
+        }
+        long bitsCount = Math.max(Long.SIZE,
+                (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (LN_2 * LN_2)));
+        int hashFunctionsCount = Math.max(1, (int) Math.round((double) bitsCount / expectedInsertions * LN_2));
+        return new BloomFilter(bitsCount, hashFunctionsCount);
+    }
+
+    public void put(long value) {
+        long firstHash = mix(value);
+        long secondHash = mix(value ^ SECOND_HASH_SEED);
+        for (int i = 1; i <= hashFunctionsCount; i++) {
+            long bitIndex = ((firstHash + i * secondHash) & Long.MAX_VALUE) % bitsCount;
+            setBit(bitIndex);
+        }
+    }
+
+    public boolean mightContain(long value) {
+        long firstHash = mix(value);
+        long secondHash = mix(value ^ SECOND_HASH_SEED);
+        for (int i = 1; i <= hashFunctionsCount; i++) {
+            long bitIndex = ((firstHash + i * secondHash) & Long.MAX_VALUE) % bitsCount;
+            if ((words.get((int) (bitIndex >>> 6)) & (1L << bitIndex)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getBitsCount() {
+        return bitsCount;
+    }
+
+    private void setBit(long bitIndex) {
+        int wordIndex = (int) (bitIndex >>> 6);
+        long mask = 1L << bitIndex;
+        long word;
+        do {
+            word = words.get(wordIndex);
+            if ((word & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(wordIndex, word, word | mask));
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
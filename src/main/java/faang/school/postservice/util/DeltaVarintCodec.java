@@ -0,0 +1,66 @@
+package faang.school.postservice.util;
+
+import java.util.Arrays;
+
+public final class DeltaVarintCodec {
+
+    private static final int MAX_VARINT_BYTES = 10;
+    private static final int PAYLOAD_BITS = 7;
+    private static final int PAYLOAD_MASK = 0x7F;
+    private static final int CONTINUATION_BIT = 0x80;
+
+    private DeltaVarintCodec() {
+    }
+
+    public static byte[] encode(long[] sortedIds) {
+        byte[] buffer = new byte[(sortedIds.length + 1) * MAX_VARINT_BYTES];
+        int position = writeVarint(buffer, 0, sortedIds.length);
+        long previousId = 0;
+        for (long id : sortedIds) {
+            if (id < previousId) {
+                throw new IllegalArgumentException("Ids must be sorted in ascending order");
+            }
+            position = writeVarint(buffer, position, id - previousId);
+            previousId = id;
+        }
+        return Arrays.copyOf(buffer, position);
+    }
+
+    public static long[] decode(byte[] encodedIds) {
+        if (encodedIds == null || encodedIds.length == 0) {
+            return new long[0];
+        }
+        int[] position = {0};
+        long[] ids = new long[(int) readVarint(encodedIds, position)];
+        long previousId = 0;
+        for (int i = 0; i < ids.length; i++) {
+            previousId += readVarint(encodedIds, position);
+            ids[i] = previousId;
+        }
+        return ids;
+    }
+
+    private static int writeVarint(byte[] buffer, int position, long value) {
+        while ((value & ~PAYLOAD_MASK) != 0) {
+            buffer[position++] = (byte) ((value & PAYLOAD_MASK) | CONTINUATION_BIT);
+            value >>>= PAYLOAD_BITS;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    private static long readVarint(byte[] buffer, int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            if (position[0] >= buffer.length) {
+                throw new IllegalArgumentException("Malformed delta-varint payload");
+            }
+            current = buffer[position[0]++];
+            value |= (long) (current & PAYLOAD_MASK) << shift;
+            shift += PAYLOAD_BITS;
+        } while ((current & CONTINUATION_BIT) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,75 @@
+package faang.school.postservice.util;
+
+import faang.school.postservice.dto.post.PostAuthorKeyProjection;
+import faang.school.postservice.dto.post.PostKeyProjection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+public final class TimelineMerger {
+
+    public static final Comparator<PostKeyProjection> POST_KEY_FEED_ORDER = Comparator
+            .comparing(PostKeyProjection::getPublishedAt)
+            .thenComparing(PostKeyProjection::getId)
+            .reversed();
+
+    private TimelineMerger() {
+    }
+
+    public static Map<Long, List<PostAuthorKeyProjection>> groupByAuthors(List<PostAuthorKeyProjection> postsKeys) {
+        Map<Long, List<PostAuthorKeyProjection>> timelinesByAuthorsIds = postsKeys.stream()
+                .collect(Collectors.groupingBy(PostAuthorKeyProjection::getAuthorId));
+        timelinesByAuthorsIds.values().forEach(timeline -> timeline.sort(POST_KEY_FEED_ORDER));
+        return timelinesByAuthorsIds;
+    }
+
+    public static List<Long> mergeNewestPostsIds(Collection<List<PostAuthorKeyProjection>> authorsTimelines,
+                                                 int limit) {
+        return mergeNewest(authorsTimelines, POST_KEY_FEED_ORDER, limit).stream()
+                .map(PostKeyProjection::getId)
+                .toList();
+    }
+
+    public static <T> List<T> mergeNewest(Collection<? extends List<T>> timelines, Comparator<? super T> order,
+                                          int limit) {
+        PriorityQueue<TimelineCursor<T>> heap =
+                new PriorityQueue<>(Math.max(timelines.size(), 1), (first, second) ->
+                        order.compare(first.current(), second.current()));
+        timelines.stream()
+                .filter(timeline -> !timeline.isEmpty())
+                .forEach(timeline -> heap.add(new TimelineCursor<>(timeline)));
+
+        List<T> merged = new ArrayList<>(Math.min(limit, 1024));
+        while (merged.size() < limit && !heap.isEmpty()) {
+            TimelineCursor<T> cursor = heap.poll();
+            merged.add(cursor.current());
+            if (cursor.advance()) {
+                heap.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    private static final class TimelineCursor<T> {
+
+        private final List<T> timeline;
+        private int position;
+
+        private TimelineCursor(List<T> timeline) {
+            this.timeline = timeline;
+        }
+
+        private T current() {
+            return timeline.get(position);
+        }
+
+        private boolean advance() {
+            return ++position < timeline.size();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package faang.school.postservice.validator.news_feed;
 
 import faang.school.postservice.client.UserServiceClient;
 import faang.school.postservice.service.post.PostService;
+import faang.school.postservice.service.subscription.FollowGraphCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -13,6 +14,7 @@ public class NewsFeedValidator {
 
     private final PostService postService;
     private final UserServiceClient userServiceClient;
+    private final FollowGraphCache followGraphCache;
 
     public void isUserExists(long userId) {
         boolean isUserExists = userServiceClient.isUserExists(userId);
@@ -28,7 +30,7 @@ public class NewsFeedValidator {
     }
 
     public void isLastViewedPostShouldBeShownToUser(Long userId, Long postId) {
-        List<Long> users = userServiceClient.getFolloweesIds(userId);
+        List<Long> users = followGraphCache.getFolloweesIds(userId);
         if (!postService.isPostBelongUserFollowees(users, postId)) {
             throw new IllegalStateException("Last viewed post doesn't belong to user's follows");
         }
@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS idx_comment_post_id_created_at
+    ON comment (post_id, created_at DESC);
+
+CREATE INDEX IF NOT EXISTS idx_likes_comment_id
+    ON likes (comment_id);
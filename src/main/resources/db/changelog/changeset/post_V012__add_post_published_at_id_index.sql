@@ -0,0 +1,4 @@
+CREATE INDEX IF NOT EXISTS idx_post_published_at_id_filter
+    ON post (deleted, published, published_at DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_post_published_at_filter;
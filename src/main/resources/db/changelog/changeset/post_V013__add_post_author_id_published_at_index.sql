@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS idx_post_author_id_published_at
+    ON post (author_id, published_at DESC, id DESC)
+    WHERE deleted = false AND published = true;
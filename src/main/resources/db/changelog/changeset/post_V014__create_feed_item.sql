@@ -0,0 +1,26 @@
+CREATE TABLE IF NOT EXISTS feed_item
+(
+    user_id      bigint    NOT NULL,
+    published_at timestamp NOT NULL,
+    post_id      bigint    NOT NULL,
+    PRIMARY KEY (user_id, published_at, post_id)
+) PARTITION BY HASH (user_id);
+
+CREATE TABLE IF NOT EXISTS feed_item_p0 PARTITION OF feed_item FOR VALUES WITH (MODULUS 16, REMAINDER 0);
+CREATE TABLE IF NOT EXISTS feed_item_p1 PARTITION OF feed_item FOR VALUES WITH (MODULUS 16, REMAINDER 1);
+CREATE TABLE IF NOT EXISTS feed_item_p2 PARTITION OF feed_item FOR VALUES WITH (MODULUS 16, REMAINDER 2);
+CREATE TABLE IF NOT EXISTS feed_item_p3 PARTITION OF feed_item FOR VALUES WITH (MODULUS 16, REMAINDER 3);
+CREATE TABLE IF NOT EXISTS feed_item_p4 PARTITION OF feed_item FOR VALUES WITH (MODULUS 16, REMAINDER 4);
+CREATE TABLE IF NOT EXISTS feed_item_p5 PARTITION OF feed_item FOR VALUES WITH (MODULUS 16, REMAINDER 5);
+CREATE TABLE IF NOT EXISTS feed_item_p6 PARTITION OF feed_item FOR VALUES WITH (MODULUS 16, REMAINDER 6);
+CREATE TABLE IF NOT EXISTS feed_item_p7 PARTITION OF feed_item FOR VALUES WITH (MODULUS 16, REMAINDER 7);
+CREATE TABLE IF NOT EXISTS feed_item_p8 PARTITION OF feed_item FOR VALUES WITH (MODULUS 16, REMAINDER 8);
+CREATE TABLE IF NOT EXISTS feed_item_p9 PARTITION OF feed_item FOR VALUES WITH (MODULUS 16, REMAINDER 9);
+CREATE TABLE IF NOT EXISTS feed_item_p10 PARTITION OF feed_item FOR VALUES WITH (MODULUS 16, REMAINDER 10);
+CREATE TABLE IF NOT EXISTS feed_item_p11 PARTITION OF feed_item FOR VALUES WITH (MODULUS 16, REMAINDER 11);
+CREATE TABLE IF NOT EXISTS feed_item_p12 PARTITION OF feed_item FOR VALUES WITH (MODULUS 16, REMAINDER 12);
+CREATE TABLE IF NOT EXISTS feed_item_p13 PARTITION OF feed_item FOR VALUES WITH (MODULUS 16, REMAINDER 13);
+CREATE TABLE IF NOT EXISTS feed_item_p14 PARTITION OF feed_item FOR VALUES WITH (MODULUS 16, REMAINDER 14);
+CREATE TABLE IF NOT EXISTS feed_item_p15 PARTITION OF feed_item FOR VALUES WITH (MODULUS 16, REMAINDER 15);
+
+CREATE INDEX IF NOT EXISTS idx_feed_item_published_at ON feed_item USING brin (published_at);
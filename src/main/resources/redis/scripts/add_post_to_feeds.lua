@@ -0,0 +1,20 @@
+-- KEYS[3i - 2] - feed key of the i-th user, KEYS[3i - 1] - its rebuild lease key, KEYS[3i] - its pending posts key
+-- ARGV[1] - post score (published at, epoch millis), ARGV[2] - post id
+-- ARGV[3] - max posts in feed, ARGV[4] - feed ttl in seconds, ARGV[5] - rebuild lease ttl in milliseconds
+-- posts of feeds being rebuilt are kept as pending and merged in when the rebuilt feed is saved
+-- Returns 1-based indexes of the users which have no feed in cache and no rebuild in progress
+local missed = {}
+for i = 1, #KEYS / 3 do
+    local key = KEYS[3 * i - 2]
+    if redis.call('EXISTS', key) == 1 then
+        redis.call('ZADD', key, ARGV[1], ARGV[2])
+        redis.call('ZREMRANGEBYRANK', key, 0, -(tonumber(ARGV[3]) + 1))
+        redis.call('EXPIRE', key, ARGV[4])
+    elseif redis.call('EXISTS', KEYS[3 * i - 1]) == 1 then
+        redis.call('ZADD', KEYS[3 * i], ARGV[1], ARGV[2])
+        redis.call('PEXPIRE', KEYS[3 * i], ARGV[5])
+    else
+        missed[#missed + 1] = i
+    end
+end
+return missed
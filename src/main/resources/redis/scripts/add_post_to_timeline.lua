@@ -0,0 +1,7 @@
+-- KEYS[1] - author timeline key
+-- ARGV[1] - post score (published at, epoch millis), ARGV[2] - post id
+-- ARGV[3] - max posts in timeline, ARGV[4] - timeline ttl in seconds
+redis.call('ZADD', KEYS[1], ARGV[1], ARGV[2])
+redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(tonumber(ARGV[3]) + 1))
+redis.call('EXPIRE', KEYS[1], ARGV[4])
+return redis.call('ZCARD', KEYS[1])
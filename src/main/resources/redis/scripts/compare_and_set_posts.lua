@@ -0,0 +1,22 @@
+-- KEYS[2i - 1] - key of the i-th post, KEYS[2i] - its version key
+-- ARGV[1] - ttl in seconds, ARGV[2i] - version of the i-th post (updated at, epoch millis), ARGV[2i + 1] - serialized post
+-- a post is never overwritten by an older version of it, the same cached version only gets its ttl refreshed
+-- Returns a string of flags, '1' for each written post, '2' for each post with the same version already cached
+-- and '0' for each post with a newer version already cached
+local written = {}
+for i = 1, #KEYS / 2 do
+    local version = ARGV[2 * i]
+    local cachedVersion = redis.call('GET', KEYS[2 * i])
+    if cachedVersion and tonumber(cachedVersion) > tonumber(version) then
+        written[i] = '0'
+    elseif cachedVersion and tonumber(cachedVersion) == tonumber(version)
+            and redis.call('EXPIRE', KEYS[2 * i - 1], ARGV[1]) == 1 then
+        redis.call('EXPIRE', KEYS[2 * i], ARGV[1])
+        written[i] = '2'
+    else
+        redis.call('SET', KEYS[2 * i - 1], ARGV[2 * i + 1], 'EX', ARGV[1])
+        redis.call('SET', KEYS[2 * i], version, 'EX', ARGV[1])
+        written[i] = '1'
+    end
+end
+return table.concat(written)
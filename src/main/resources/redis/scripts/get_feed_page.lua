@@ -0,0 +1,47 @@
+-- KEYS[1] - feed key
+-- ARGV[1] - id of the last viewed post (empty for the first page), ARGV[2] - its score, ARGV[3] - page size
+-- Returns the feed size (0 when there is no feed in cache) and its ttl in milliseconds,
+-- followed by ids of the posts after the last viewed one
+-- when the last viewed post has left the feed, posts with its score and a lower id are kept before older ones
+-- the empty feed marker written by replace_feed.lua is counted in the size but never returned as a post
+local EMPTY_FEED_MEMBER = '0'
+local size = redis.call('ZCARD', KEYS[1])
+if size == 0 then
+    return {0, -2}
+end
+
+local count = tonumber(ARGV[3])
+local page
+if ARGV[1] == '' then
+    page = redis.call('ZREVRANGE', KEYS[1], 0, count - 1)
+else
+    local rank = redis.call('ZREVRANK', KEYS[1], ARGV[1])
+    if rank then
+        page = redis.call('ZREVRANGE', KEYS[1], rank + 1, rank + count)
+    else
+        local cursorPostId = tonumber(ARGV[1])
+        page = {}
+        for _, postId in ipairs(redis.call('ZRANGEBYSCORE', KEYS[1], ARGV[2], ARGV[2])) do
+            if tonumber(postId) < cursorPostId then
+                page[#page + 1] = postId
+            end
+        end
+        table.sort(page, function(a, b) return tonumber(a) > tonumber(b) end)
+        while #page > count do
+            table.remove(page)
+        end
+        if #page < count then
+            local older = redis.call('ZREVRANGEBYSCORE', KEYS[1], '(' .. ARGV[2], '(-inf', 'LIMIT', 0, count - #page)
+            for _, postId in ipairs(older) do
+                page[#page + 1] = postId
+            end
+        end
+    end
+end
+local result = {size, redis.call('PTTL', KEYS[1])}
+for _, postId in ipairs(page) do
+    if postId ~= EMPTY_FEED_MEMBER then
+        result[#result + 1] = postId
+    end
+end
+return result
@@ -0,0 +1,12 @@
+-- KEYS - post counters keys
+-- ARGV[1] - counter field, ARGV[i + 1] - delta for KEYS[i]
+-- counters are seeded together with the post cache, missing ones are left to the next seed (-1 is returned)
+local values = {}
+for i, key in ipairs(KEYS) do
+    if redis.call('EXISTS', key) == 1 then
+        values[i] = redis.call('HINCRBY', key, ARGV[1], ARGV[i + 1])
+    else
+        values[i] = -1
+    end
+end
+return values
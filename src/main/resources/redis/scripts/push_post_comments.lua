@@ -0,0 +1,19 @@
+-- KEYS[2i - 1] - comments key of the i-th post, KEYS[2i] - its post key
+-- ARGV[1] - max comments per post, ARGV[2] - comments ttl in seconds
+-- ARGV[2 + i] - number of new comments of the i-th post, followed by all new comments, oldest first
+-- comments are pushed only to posts whose list or body is cached, the number of such posts is returned
+local posts = #KEYS / 2
+local offset = 2 + posts
+local pushed = 0
+for i = 1, posts do
+    local count = tonumber(ARGV[2 + i])
+    local key = KEYS[2 * i - 1]
+    if count > 0 and (redis.call('EXISTS', key) == 1 or redis.call('EXISTS', KEYS[2 * i]) == 1) then
+        redis.call('LPUSH', key, unpack(ARGV, offset + 1, offset + count))
+        redis.call('LTRIM', key, 0, tonumber(ARGV[1]) - 1)
+        redis.call('EXPIRE', key, ARGV[2])
+        pushed = pushed + 1
+    end
+    offset = offset + count
+end
+return pushed
@@ -0,0 +1,7 @@
+-- KEYS[1] - lease key
+-- ARGV[1] - token of the lease owner
+-- the lease is deleted only by its owner, an expired and re-acquired lease is kept
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
@@ -0,0 +1,18 @@
+-- KEYS[1] - feed key, KEYS[2] - pending posts key
+-- ARGV[1] - max posts in feed, ARGV[2] - feed ttl in seconds
+-- ARGV[3..n] - pairs of post score (published at, epoch millis) and post id
+-- posts added while the feed was being rebuilt are merged into it
+-- an empty feed keeps the marker member so that the key exists and later fan-out posts are added to it
+local EMPTY_FEED_MEMBER = '0'
+redis.call('DEL', KEYS[1])
+redis.call('ZADD', KEYS[1], '-inf', EMPTY_FEED_MEMBER)
+if #ARGV >= 4 then
+    redis.call('ZADD', KEYS[1], unpack(ARGV, 3))
+end
+if redis.call('EXISTS', KEYS[2]) == 1 then
+    redis.call('ZUNIONSTORE', KEYS[1], 2, KEYS[1], KEYS[2], 'AGGREGATE', 'MAX')
+    redis.call('DEL', KEYS[2])
+end
+redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(tonumber(ARGV[1]) + 1))
+redis.call('EXPIRE', KEYS[1], ARGV[2])
+return redis.call('ZCARD', KEYS[1])
@@ -0,0 +1,17 @@
+-- KEYS - comments keys of the posts
+-- ARGV[1] - max comments per post, ARGV[2] - comments ttl in seconds
+-- ARGV[2 + i] - number of comments of KEYS[i], followed by all comments, newest first
+-- lists which are already cached are kept, they are maintained by pushes of new comments
+local offset = 2 + #KEYS
+local seeded = 0
+for i, key in ipairs(KEYS) do
+    local count = tonumber(ARGV[2 + i])
+    if count > 0 and redis.call('EXISTS', key) == 0 then
+        redis.call('RPUSH', key, unpack(ARGV, offset + 1, offset + count))
+        redis.call('LTRIM', key, 0, tonumber(ARGV[1]) - 1)
+        redis.call('EXPIRE', key, ARGV[2])
+        seeded = seeded + 1
+    end
+    offset = offset + count
+end
+return seeded
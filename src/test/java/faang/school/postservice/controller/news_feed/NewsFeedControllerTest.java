@@ -2,6 +2,7 @@ package faang.school.postservice.controller.news_feed;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import faang.school.postservice.config.context.UserContext;
+import faang.school.postservice.dto.news_feed.FeedCursor;
 import faang.school.postservice.dto.news_feed.NewsFeedResponseDto;
 import faang.school.postservice.service.feed.FeedHeater;
 import faang.school.postservice.service.feed.NewsFeedService;
@@ -12,6 +13,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 
@@ -41,7 +43,7 @@ class NewsFeedControllerTest {
     private UserContext userContext;
 
     @Test
-    void getNewsFeedBatchWithoutLastViewedPostIdTest() throws Exception {
+    void getNewsFeedBatchWithoutCursorTest() throws Exception {
         long userId = 1L;
 
         NewsFeedResponseDto responseDto = NewsFeedResponseDto.builder()
@@ -62,9 +64,9 @@ class NewsFeedControllerTest {
     }
 
     @Test
-    void getNewsFeedBatchWithLastViewedPostIdTest() throws Exception {
+    void getNewsFeedBatchWithCursorTest() throws Exception {
         long userId = 1L;
-        long lastViewedPostId = 2L;
+        String cursor = new FeedCursor(LocalDateTime.now(), 2L).encode();
 
         NewsFeedResponseDto responseDto = NewsFeedResponseDto.builder()
                 .posts(new LinkedHashSet<>())
@@ -72,16 +74,16 @@ class NewsFeedControllerTest {
                 .build();
 
         when(userContext.getUserId()).thenReturn(userId);
-        when(newsFeedService.getNewsFeedBatch(lastViewedPostId, userId)).thenReturn(responseDto);
+        when(newsFeedService.getNewsFeedBatch(cursor, userId)).thenReturn(responseDto);
 
         mockMvc.perform(get("/feeds")
-                        .param("lastViewedPostId", String.valueOf(lastViewedPostId))
+                        .param("cursor", cursor)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().json(objectMapper.writeValueAsString(responseDto)));
 
         verify(userContext).getUserId();
-        verify(newsFeedService).getNewsFeedBatch(lastViewedPostId, userId);
+        verify(newsFeedService).getNewsFeedBatch(cursor, userId);
     }
 
     @Test
@@ -0,0 +1,178 @@
+package faang.school.postservice.listener.kafka;
+
+import faang.school.postservice.config.async.ThreadPoolConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class KeyOrderedRecordProcessorTest {
+
+    private static final String TOPIC = "post";
+    private static final String LISTENER_ID = "post-consumer";
+
+    @Mock
+    private ThreadPoolConfig poolConfig;
+
+    @Mock
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Mock
+    private DeadLetterPublishingRecoverer deadLetterRecoverer;
+
+    @InjectMocks
+    private KeyOrderedRecordProcessor recordProcessor;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        when(poolConfig.kafkaRecordTaskExecutor()).thenReturn(executor);
+        ReflectionTestUtils.setField(recordProcessor, "maxInFlight", 10);
+        ReflectionTestUtils.setField(recordProcessor, "deadLetterInitialIntervalMillis", 10L);
+        ReflectionTestUtils.setField(recordProcessor, "deadLetterMaxElapsedMillis", 0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void processRecordsWithSameKeyInOrderTest() throws InterruptedException {
+        List<Long> processedOffsets = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch completed = new CountDownLatch(5);
+        CompletableFuture<Void> firstTask = new CompletableFuture<>();
+
+        recordProcessor.process(LISTENER_ID, record("1", 0), () -> firstTask.thenRun(() -> processedOffsets.add(0L)),
+                completed::countDown);
+        for (long offset = 1; offset < 5; offset++) {
+            long recordOffset = offset;
+            recordProcessor.process(LISTENER_ID, record("1", offset),
+                    () -> CompletableFuture.runAsync(() -> processedOffsets.add(recordOffset)), completed::countDown);
+        }
+        firstTask.complete(null);
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L), processedOffsets);
+    }
+
+    @Test
+    void processRecordsWithDifferentKeysConcurrentlyTest() throws InterruptedException {
+        CompletableFuture<Void> blockedTask = new CompletableFuture<>();
+        CountDownLatch otherKeyCompleted = new CountDownLatch(1);
+
+        recordProcessor.process(LISTENER_ID, record("1", 0), () -> blockedTask, () -> {
+        });
+        recordProcessor.process(LISTENER_ID, record("2", 1), () -> CompletableFuture.completedFuture(null),
+                otherKeyCompleted::countDown);
+
+        assertTrue(otherKeyCompleted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, recordProcessor.getInFlightCount());
+        blockedTask.complete(null);
+    }
+
+    @Test
+    void processNextRecordAfterFailureTest() throws InterruptedException {
+        CountDownLatch completed = new CountDownLatch(2);
+        List<Long> processedOffsets = Collections.synchronizedList(new ArrayList<>());
+
+        recordProcessor.process(LISTENER_ID, record("1", 0),
+                () -> CompletableFuture.failedFuture(new IllegalStateException()), completed::countDown);
+        recordProcessor.process(LISTENER_ID, record("1", 1),
+                () -> CompletableFuture.runAsync(() -> processedOffsets.add(1L)), completed::countDown);
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1L), processedOffsets);
+        verify(deadLetterRecoverer).accept(argThat(record -> record.offset() == 0),
+                any(IllegalStateException.class));
+    }
+
+    @Test
+    void failedRecordNotAcknowledgedWhenDeadLetterPublishFailsTest() throws InterruptedException {
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        when(listenerRegistry.getListenerContainer(LISTENER_ID)).thenReturn(container);
+        CountDownLatch nextCompleted = new CountDownLatch(1);
+        List<Long> acknowledgedOffsets = Collections.synchronizedList(new ArrayList<>());
+        doThrow(new IllegalStateException()).when(deadLetterRecoverer).accept(any(), any());
+
+        recordProcessor.process(LISTENER_ID, record("1", 0),
+                () -> CompletableFuture.failedFuture(new IllegalStateException()), () -> acknowledgedOffsets.add(0L));
+        recordProcessor.process(LISTENER_ID, record("1", 1), () -> CompletableFuture.completedFuture(null), () -> {
+            acknowledgedOffsets.add(1L);
+            nextCompleted.countDown();
+        });
+
+        assertTrue(nextCompleted.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1L), acknowledgedOffsets);
+        verify(container, timeout(5000)).stop();
+    }
+
+    @Test
+    void retryDeadLetterPublishWithBackOffTest() throws InterruptedException {
+        ReflectionTestUtils.setField(recordProcessor, "deadLetterMaxElapsedMillis", 5000L);
+        CountDownLatch acknowledged = new CountDownLatch(1);
+        doThrow(new IllegalStateException()).doNothing().when(deadLetterRecoverer).accept(any(), any());
+
+        recordProcessor.process(LISTENER_ID, record("1", 0),
+                () -> CompletableFuture.failedFuture(new IllegalStateException()), acknowledged::countDown);
+
+        assertTrue(acknowledged.await(5, TimeUnit.SECONDS));
+        verify(deadLetterRecoverer, times(2)).accept(any(), any());
+        verify(listenerRegistry, never()).getListenerContainer(LISTENER_ID);
+    }
+
+    @Test
+    void pauseListenerWhenInFlightLimitReachedAndResumeAfterDrainTest() throws InterruptedException {
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        when(listenerRegistry.getListenerContainer(LISTENER_ID)).thenReturn(container);
+        CompletableFuture<Void> blockedTask = new CompletableFuture<>();
+        CountDownLatch completed = new CountDownLatch(10);
+
+        for (long offset = 0; offset < 10; offset++) {
+            recordProcessor.process(LISTENER_ID, record("1", offset), () -> blockedTask, completed::countDown);
+        }
+
+        verify(container).pause();
+        blockedTask.complete(null);
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        verify(container).resume();
+        assertEquals(0, recordProcessor.getInFlightCount());
+    }
+
+    private ConsumerRecord<String, Object> record(String key, long offset) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, key, new Object());
+    }
+}
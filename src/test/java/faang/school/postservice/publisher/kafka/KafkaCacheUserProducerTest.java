@@ -0,0 +1,65 @@
+package faang.school.postservice.publisher.kafka;
+
+import faang.school.postservice.config.kafka.KafkaTopicConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.utils.Utils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaCacheUserProducerTest {
+
+    private static final int PARTITIONS_COUNT = 3;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Mock
+    private KafkaTopicConfig kafkaTopicConfig;
+
+    @InjectMocks
+    private KafkaCacheUserProducer kafkaCacheUserProducer;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendGroupsUsersByKeyPartitionTest() {
+        when(kafkaTopicConfig.cacheUserTopic()).thenReturn(new NewTopic("cache-user", PARTITIONS_COUNT, (short) 1));
+        List<Long> usersIds = LongStream.rangeClosed(1, 30).boxed().toList();
+        ArgumentCaptor<Integer> partitionCaptor = ArgumentCaptor.forClass(Integer.class);
+        ArgumentCaptor<Object> usersIdsCaptor = ArgumentCaptor.forClass(Object.class);
+
+        kafkaCacheUserProducer.send(usersIds);
+
+        verify(kafkaTemplate, atLeastOnce())
+                .send(eq("cache-user"), partitionCaptor.capture(), anyString(), usersIdsCaptor.capture());
+        long sentUsersCount = 0;
+        for (int i = 0; i < partitionCaptor.getAllValues().size(); i++) {
+            int partition = partitionCaptor.getAllValues().get(i);
+            List<Long> partitionUsersIds = (List<Long>) usersIdsCaptor.getAllValues().get(i);
+            partitionUsersIds.forEach(userId -> assertEquals(partition, partitionOf(userId)));
+            sentUsersCount += partitionUsersIds.size();
+        }
+        assertEquals(usersIds.size(), sentUsersCount);
+    }
+
+    private int partitionOf(long userId) {
+        byte[] key = String.valueOf(userId).getBytes(StandardCharsets.UTF_8);
+        return Utils.toPositive(Utils.murmur2(key)) % PARTITIONS_COUNT;
+    }
+}
@@ -0,0 +1,45 @@
+package faang.school.postservice.repository.cache;
+
+import io.lettuce.core.cluster.SlotHash;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CacheSlotPartitionerTest {
+
+    private final Function<Long, String> keyOf = postId -> CacheKeys.of("posts", postId);
+
+    @Test
+    void partitionStandaloneTest() {
+        CacheSlotPartitioner cacheSlotPartitioner = new CacheSlotPartitioner(false);
+
+        List<List<Long>> partitions = new ArrayList<>(cacheSlotPartitioner.partition(List.of(1L, 2L, 3L), keyOf));
+
+        assertEquals(List.of(List.of(1L, 2L, 3L)), partitions);
+    }
+
+    @Test
+    void partitionClusterTest() {
+        CacheSlotPartitioner cacheSlotPartitioner = new CacheSlotPartitioner(true);
+
+        List<List<Long>> partitions = new ArrayList<>(cacheSlotPartitioner.partition(List.of(1L, 2L, 1L), keyOf));
+
+        assertEquals(List.of(List.of(1L, 1L), List.of(2L)), partitions);
+        partitions.forEach(partition -> assertEquals(1, partition.stream()
+                .map(postId -> SlotHash.getSlot(keyOf.apply(postId)))
+                .distinct()
+                .count()));
+    }
+
+    @Test
+    void hashTaggedKeysShareSlotTest() {
+        assertEquals(SlotHash.getSlot(CacheKeys.of("feeds", 42L)),
+                SlotHash.getSlot(CacheKeys.of("feeds", 42L) + ":rebuild-lease"));
+        assertEquals(SlotHash.getSlot(CacheKeys.of("posts", 7L)),
+                SlotHash.getSlot(CacheKeys.of("post-comments", 7L)));
+    }
+}
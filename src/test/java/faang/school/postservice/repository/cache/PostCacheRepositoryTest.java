@@ -0,0 +1,186 @@
+package faang.school.postservice.repository.cache;
+
+import faang.school.postservice.dto.comment.CacheCommentDto;
+import faang.school.postservice.model.cache.PostCacheDto;
+import faang.school.postservice.properties.RedisCacheProperties;
+import faang.school.postservice.publisher.redis.impl.PostCacheInvalidationPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostCacheRepositoryTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private RedisCacheProperties prop;
+
+    @Mock
+    private PostNearCache postNearCache;
+
+    @Mock
+    private PostCacheInvalidationPublisher postCacheInvalidationPublisher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private CacheSlotPartitioner cacheSlotPartitioner = new CacheSlotPartitioner(false);
+
+    @Mock
+    private RedisSerializer<Object> valueSerializer;
+
+    @InjectMocks
+    private PostCacheRepository postCacheRepository;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doReturn(valueSerializer).when(redisTemplate).getValueSerializer();
+        lenient().when(prop.getPostsCacheName()).thenReturn("posts");
+    }
+
+    @Test
+    void saveBatchPostsToCacheSkipsOutdatedVersionsTest() {
+        PostCacheDto newerPost = PostCacheDto.builder().postId(1L).updatedAt(LocalDateTime.now()).build();
+        PostCacheDto outdatedPost = PostCacheDto.builder().postId(2L).updatedAt(LocalDateTime.now()).build();
+        when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                eq(List.of("posts{1}", "posts{1}:version", "posts{2}", "posts{2}:version")), any()))
+                .thenReturn("10");
+
+        postCacheRepository.saveBatchPostsToCache(new LinkedHashSet<>(List.of(newerPost, outdatedPost)));
+
+        verify(postNearCache).put(newerPost);
+        verify(postNearCache, never()).put(outdatedPost);
+        verify(postNearCache).invalidate(List.of(2L));
+        verify(postCacheInvalidationPublisher).publish(argThat(event -> event.getPostsIds().equals(List.of(1L))));
+        verify(redisTemplate).execute(any(RedisCallback.class));
+        assertEquals(1.0, meterRegistry.counter("post.cache.writes", "result", "written").count());
+        assertEquals(1.0, meterRegistry.counter("post.cache.writes", "result", "rejected").count());
+    }
+
+    @Test
+    void saveBatchPostsToCacheSameVersionRefreshesWithoutInvalidationTest() {
+        PostCacheDto unchangedPost = PostCacheDto.builder().postId(1L).updatedAt(LocalDateTime.now()).build();
+        PostCacheDto updatedPost = PostCacheDto.builder().postId(2L).updatedAt(LocalDateTime.now()).build();
+        when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                eq(List.of("posts{1}", "posts{1}:version", "posts{2}", "posts{2}:version")), any()))
+                .thenReturn("21");
+
+        postCacheRepository.saveBatchPostsToCache(new LinkedHashSet<>(List.of(unchangedPost, updatedPost)));
+
+        verify(postNearCache).put(unchangedPost);
+        verify(postNearCache).put(updatedPost);
+        verify(postNearCache, never()).invalidate(anyList());
+        verify(postCacheInvalidationPublisher).publish(argThat(event -> event.getPostsIds().equals(List.of(2L))));
+        assertEquals(1.0, meterRegistry.counter("post.cache.writes", "result", "refreshed").count());
+    }
+
+    @Test
+    void saveBatchPostsToCacheOnlyRefreshedPublishesNoInvalidationTest() {
+        PostCacheDto unchangedPost = PostCacheDto.builder().postId(1L).updatedAt(LocalDateTime.now()).build();
+        when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                eq(List.of("posts{1}", "posts{1}:version")), any()))
+                .thenReturn("2");
+
+        postCacheRepository.saveBatchPostsToCache(Set.of(unchangedPost));
+
+        verify(postNearCache).put(unchangedPost);
+        verify(postCacheInvalidationPublisher, never()).publish(any());
+    }
+
+    @Test
+    void saveBatchPostsToCacheEmptyTest() {
+        postCacheRepository.saveBatchPostsToCache(Set.of());
+
+        verify(redisTemplate, never()).execute(any(RedisScript.class), any(RedisSerializer.class),
+                any(RedisSerializer.class), anyList(), any());
+        verify(postCacheInvalidationPublisher, never()).publish(any());
+    }
+
+    @Test
+    void deletePostCacheTest() {
+        postCacheRepository.deletePostCache(1L);
+
+        verify(redisTemplate).executePipelined(any(RedisCallback.class), isNull());
+        verify(postNearCache).invalidate(List.of(1L));
+        verify(postCacheInvalidationPublisher).publish(argThat(event -> event.getPostsIds().equals(List.of(1L))));
+    }
+
+    @Test
+    void getPostsIdsPublishedBeforeTest() {
+        when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenReturn(new LinkedHashSet<>(List.of(bytes("5"), bytes("3"))));
+
+        List<Long> result = postCacheRepository.getPostsIdsPublishedBefore(LocalDateTime.now(), 2);
+
+        assertEquals(List.of(5L, 3L), result);
+    }
+
+    @Test
+    void getBatchPostsCachesKeepsRequestedOrderTest() {
+        PostCacheDto nearCachedPost = PostCacheDto.builder().postId(3L).likesCount(1).build();
+        PostCacheDto cachedPost = PostCacheDto.builder().postId(1L).commentsCount(4).build();
+        CacheCommentDto comment = CacheCommentDto.builder().commentId(9L).build();
+        byte[] cachedPostBytes = bytes("post-1");
+        byte[] commentBytes = bytes("comment-9");
+        List<Long> postsIdsMissedInCache = new ArrayList<>();
+
+        when(postNearCache.getAll(List.of(3L, 1L, 2L))).thenReturn(Map.of(3L, nearCachedPost));
+        when(redisTemplate.executePipelined(any(RedisCallback.class), isNull())).thenReturn(Arrays.asList(
+                cachedPostBytes, null,
+                Arrays.asList(bytes("7"), bytes("20"), null), List.of(),
+                Arrays.asList(null, null, bytes("5")), List.of(commentBytes),
+                Arrays.asList(null, null, null), List.of()));
+        when(valueSerializer.deserialize(cachedPostBytes)).thenReturn(cachedPost);
+        when(valueSerializer.deserialize(commentBytes)).thenReturn(comment);
+
+        List<PostCacheDto> result = new ArrayList<>(postCacheRepository.getBatchPostsCaches(
+                List.of(3L, 1L, 2L), 2, postsIdsMissedInCache));
+
+        assertEquals(List.of(nearCachedPost, cachedPost), result);
+        assertEquals(List.of(2L), postsIdsMissedInCache);
+        assertEquals(7, nearCachedPost.getLikesCount());
+        assertEquals(20, nearCachedPost.getPostViewsCount());
+        assertTrue(nearCachedPost.getComments().isEmpty());
+        assertEquals(5, cachedPost.getCommentsCount());
+        assertEquals(List.of(comment), new ArrayList<>(cachedPost.getComments()));
+        verify(postNearCache).put(cachedPost);
+    }
+
+    private byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,77 @@
+package faang.school.postservice.repository.cache;
+
+import faang.school.postservice.mapper.post.PostMapper;
+import faang.school.postservice.mapper.post.PostMapperImpl;
+import faang.school.postservice.model.cache.PostCacheDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@ExtendWith(MockitoExtension.class)
+class PostNearCacheTest {
+
+    @Spy
+    private PostMapper postMapper = new PostMapperImpl();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private PostNearCache postNearCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(postNearCache, "maximumWeightBytes", 1024 * 1024L);
+        ReflectionTestUtils.setField(postNearCache, "expireAfterWriteSeconds", 60L);
+        ReflectionTestUtils.invokeMethod(postNearCache, "initCache");
+    }
+
+    @Test
+    void getReturnsCopyOfCachedPostTest() {
+        PostCacheDto post = PostCacheDto.builder()
+                .postId(1L)
+                .likesCount(5)
+                .build();
+        postNearCache.put(post);
+        post.incrementLikesCount();
+
+        PostCacheDto cachedPost = postNearCache.get(1L);
+        cachedPost.incrementLikesCount();
+
+        assertNotSame(post, cachedPost);
+        assertEquals(5, postNearCache.get(1L).getLikesCount());
+    }
+
+    @Test
+    void getAllReturnsOnlyCachedPostsTest() {
+        postNearCache.put(PostCacheDto.builder().postId(1L).build());
+        postNearCache.put(PostCacheDto.builder().postId(2L).build());
+
+        Map<Long, PostCacheDto> result = postNearCache.getAll(List.of(1L, 3L));
+
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(1L).getPostId());
+    }
+
+    @Test
+    void invalidateTest() {
+        postNearCache.put(PostCacheDto.builder().postId(1L).build());
+
+        postNearCache.invalidate(List.of(1L));
+
+        assertNull(postNearCache.get(1L));
+    }
+}
@@ -0,0 +1,87 @@
+package faang.school.postservice.repository.cache;
+
+import faang.school.postservice.model.cache.UserCacheDto;
+import faang.school.postservice.properties.RedisCacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheRepositoryTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private RedisCacheProperties prop;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    @InjectMocks
+    private UserCacheRepository userCacheRepository;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userCacheRepository, "lastActiveRecordIntervalMinutes", 5L);
+        ReflectionTestUtils.setField(userCacheRepository, "recordedUsersMaximumSize", 100L);
+        ReflectionTestUtils.invokeMethod(userCacheRepository, "initRecentlyRecordedUsersIds");
+    }
+
+    @Test
+    void saveLastActiveWritesOncePerIntervalTest() {
+        userCacheRepository.saveLastActive(1L, LocalDateTime.now());
+        userCacheRepository.saveLastActive(1L, LocalDateTime.now());
+        userCacheRepository.saveLastActive(2L, LocalDateTime.now());
+
+        verify(redisTemplate, times(2)).execute(any(RedisCallback.class));
+    }
+
+    @Test
+    void saveLastActiveRetriesAfterFailedWriteTest() {
+        when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenThrow(new IllegalStateException("Redis is unavailable"))
+                .thenReturn(Boolean.TRUE);
+
+        assertThrows(IllegalStateException.class,
+                () -> userCacheRepository.saveLastActive(1L, LocalDateTime.now()));
+        userCacheRepository.saveLastActive(1L, LocalDateTime.now());
+
+        verify(redisTemplate, times(2)).execute(any(RedisCallback.class));
+    }
+
+    @Test
+    void getBatchCacheUserDtoIndexesCachedUsersOnceTest() {
+        UserCacheDto user = UserCacheDto.builder().userId(1L).build();
+        when(prop.getUsersCacheName()).thenReturn("users");
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(List.of("users1", "users2"))).thenReturn(Arrays.asList(user, null));
+
+        List<Long> usersIdsMissedInCache = new ArrayList<>();
+        List<UserCacheDto> result = userCacheRepository.getBatchCacheUserDto(List.of(1L, 2L), usersIdsMissedInCache);
+        userCacheRepository.getBatchCacheUserDto(List.of(1L, 2L), new ArrayList<>());
+
+        assertEquals(List.of(user), result);
+        assertEquals(List.of(2L), usersIdsMissedInCache);
+        verify(redisTemplate, times(1)).execute(any(RedisCallback.class));
+    }
+}
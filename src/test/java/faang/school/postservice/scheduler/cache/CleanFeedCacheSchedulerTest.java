@@ -1,8 +1,7 @@
 package faang.school.postservice.scheduler.cache;
 
 import faang.school.postservice.config.async.ThreadPoolConfig;
-import faang.school.postservice.model.cache.PostCacheDto;
-import faang.school.postservice.model.cache.UserCacheDto;
+import faang.school.postservice.repository.FeedItemRepository;
 import faang.school.postservice.repository.cache.FeedCacheRepository;
 import faang.school.postservice.repository.cache.PostCacheRepository;
 import faang.school.postservice.repository.cache.UserCacheRepository;
@@ -15,9 +14,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -35,6 +36,9 @@ class CleanFeedCacheSchedulerTest {
     @Mock
     private FeedCacheRepository feedCacheRepository;
 
+    @Mock
+    private FeedItemRepository feedItemRepository;
+
     @Mock
     private ThreadPoolConfig poolConfig;
 
@@ -45,42 +49,47 @@ class CleanFeedCacheSchedulerTest {
     void setUp() {
         ReflectionTestUtils.setField(cleanFeedCacheScheduler, "batchSize", 2);
         ReflectionTestUtils.setField(cleanFeedCacheScheduler, "heaterPostPublishedDaysAgo", 5);
+        ReflectionTestUtils.setField(cleanFeedCacheScheduler, "userInactiveDays", 14);
+        ReflectionTestUtils.setField(cleanFeedCacheScheduler, "feedStoreRetentionDays", 30);
+        ReflectionTestUtils.setField(cleanFeedCacheScheduler, "feedStoreDeleteBatchSize", 2);
     }
 
     @Test
     void cleanCacheTest() {
-        UserCacheDto firsUser = UserCacheDto.builder()
-                .userId(1L)
-                .active(true)
-                .build();
-
-        UserCacheDto secondUser = UserCacheDto.builder()
-                .userId(2L)
-                .active(false)
-                .build();
-
-        List<UserCacheDto> users = new ArrayList<>(List.of(firsUser, secondUser));
-
-        PostCacheDto firstPost = PostCacheDto.builder()
-                .postId(1L)
-                .publishedAt(LocalDateTime.now())
-                .build();
-        PostCacheDto secondPost = PostCacheDto.builder()
-                .postId(2L)
-                .publishedAt(LocalDateTime.now().minusDays(10))
-                .build();
-
-        List<PostCacheDto> posts = new ArrayList<>(List.of(firstPost, secondPost));
-
+        LocalDateTime beforeClean = LocalDateTime.now();
         when(poolConfig.newsFeedTaskExecutor()).thenReturn(Runnable::run);
-        when(userCacheRepository.getAllCachesUsers(2, 0)).thenReturn(users);
-        when(postCacheRepository.getAllCachesPosts(2, 0)).thenReturn(posts);
+        when(userCacheRepository.getUsersIdsLastActiveBefore(any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(postCacheRepository.getPostsIdsPublishedBefore(any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(4L));
 
         cleanFeedCacheScheduler.cleanCache();
 
-        verify(userCacheRepository, times(1)).deleteCacheUserDto(secondUser.getUserId());
-        verify(feedCacheRepository, times(1)).deleteFeedCache(secondUser.getUserId());
+        verify(userCacheRepository, times(2)).getUsersIdsLastActiveBefore(argThat(threshold ->
+                !threshold.isBefore(beforeClean.minusDays(14)) && threshold.isBefore(beforeClean.minusDays(13))), eq(2));
+        verify(feedCacheRepository).deleteFeedsCaches(List.of(1L, 2L));
+        verify(feedCacheRepository).deleteFeedsCaches(List.of(3L));
+        verify(userCacheRepository).deleteBatchCacheUsers(List.of(1L, 2L));
+        verify(userCacheRepository).deleteBatchCacheUsers(List.of(3L));
+        verify(postCacheRepository, times(1)).getPostsIdsPublishedBefore(argThat(threshold ->
+                !threshold.isBefore(beforeClean.minusDays(5)) && threshold.isBefore(beforeClean.minusDays(4))), eq(2));
+        verify(postCacheRepository).deleteBatchPostsCaches(List.of(4L));
         verifyNoMoreInteractions(feedCacheRepository);
-        verify(postCacheRepository, times(1)).deletePostCache(secondPost.getPostId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void cleanFeedStoreTest() {
+        LocalDateTime beforeClean = LocalDateTime.now().minusDays(30);
+        when(feedItemRepository.deleteFeedItemsPublishedBefore(eq(0), any(LocalDateTime.class), eq(2)))
+                .thenReturn(2, 1);
+
+        cleanFeedCacheScheduler.cleanFeedStore();
+
+        verify(feedItemRepository, times(2)).deleteFeedItemsPublishedBefore(eq(0), argThat(threshold ->
+                !threshold.isBefore(beforeClean) && threshold.isBefore(LocalDateTime.now().minusDays(29))), eq(2));
+        for (int partition = 1; partition < FeedItemRepository.PARTITIONS_COUNT; partition++) {
+            verify(feedItemRepository).deleteFeedItemsPublishedBefore(eq(partition), any(LocalDateTime.class), eq(2));
+        }
+        verifyNoMoreInteractions(feedItemRepository);
+    }
+}
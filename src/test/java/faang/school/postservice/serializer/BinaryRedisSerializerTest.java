@@ -0,0 +1,208 @@
+package faang.school.postservice.serializer;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import faang.school.postservice.dto.comment.CacheCommentDto;
+import faang.school.postservice.dto.user.UserProfilePictureDto;
+import faang.school.postservice.model.cache.PostCacheDto;
+import faang.school.postservice.model.cache.UserCacheDto;
+import faang.school.postservice.properties.BinaryCodecProperties;
+import faang.school.postservice.serializer.codec.CacheCommentDtoCodec;
+import faang.school.postservice.serializer.codec.CacheCommentEventCodec;
+import faang.school.postservice.serializer.codec.PostCacheDtoCodec;
+import faang.school.postservice.serializer.codec.PublishPostEventCodec;
+import faang.school.postservice.serializer.codec.UserCacheDtoCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryRedisSerializerTest {
+
+    private GenericJackson2JsonRedisSerializer jsonSerializer;
+    private CacheCommentDtoCodec commentCodec;
+    private BinaryCodecRegistry codecRegistry;
+    private BinaryRedisSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        objectMapper.activateDefaultTyping(objectMapper.getPolymorphicTypeValidator(),
+                ObjectMapper.DefaultTyping.EVERYTHING, JsonTypeInfo.As.PROPERTY);
+        jsonSerializer = new GenericJackson2JsonRedisSerializer(objectMapper);
+        commentCodec = new CacheCommentDtoCodec();
+        codecRegistry = new BinaryCodecRegistry(List.of(commentCodec, new PostCacheDtoCodec(commentCodec),
+                new UserCacheDtoCodec(), new PublishPostEventCodec(), new CacheCommentEventCodec(commentCodec)));
+        serializer = new BinaryRedisSerializer(codecRegistry, jsonSerializer, SerializationFormat.BINARY);
+    }
+
+    @Test
+    void serializePostRoundTripTest() {
+        PostCacheDto post = buildPost();
+
+        byte[] bytes = serializer.serialize(post);
+        PostCacheDto result = (PostCacheDto) serializer.deserialize(bytes);
+
+        assertEquals(BinaryRedisSerializer.MAGIC, bytes[0]);
+        assertEquals(post.getPostId(), result.getPostId());
+        assertEquals(post.getContent(), result.getContent());
+        assertEquals(post.getAuthorId(), result.getAuthorId());
+        assertNull(result.getProjectId());
+        assertEquals(post.getLikesCount(), result.getLikesCount());
+        assertEquals(post.getPostViewsCount(), result.getPostViewsCount());
+        assertEquals(post.getPublishedAt(), result.getPublishedAt());
+        assertNull(result.getUpdatedAt());
+        assertEquals(List.of(2L, 1L), result.getComments().stream().map(CacheCommentDto::getCommentId).toList());
+        assertEquals("second", result.getComments().iterator().next().getContent());
+    }
+
+    @Test
+    void serializePostSmallerThanJsonTest() {
+        PostCacheDto post = buildPost();
+
+        assertTrue(serializer.serialize(post).length * 2 < jsonSerializer.serialize(post).length);
+    }
+
+    @Test
+    void serializeUserRoundTripTest() {
+        UserCacheDto user = UserCacheDto.builder()
+                .userId(7L)
+                .username("user")
+                .active(true)
+                .profilePicture(new UserProfilePictureDto(7L, new byte[]{1, 2, 3}))
+                .build();
+
+        UserCacheDto result = (UserCacheDto) serializer.deserialize(serializer.serialize(user));
+
+        assertEquals(7L, result.getUserId());
+        assertEquals("user", result.getUsername());
+        assertTrue(result.isActive());
+        assertArrayEquals(new byte[]{1, 2, 3}, result.getProfilePicture().getProfilePictureData());
+    }
+
+    @Test
+    void deserializeJsonWrittenValueTest() {
+        PostCacheDto post = buildPost();
+
+        Object result = serializer.deserialize(jsonSerializer.serialize(post));
+
+        assertInstanceOf(PostCacheDto.class, result);
+        assertEquals(post.getContent(), ((PostCacheDto) result).getContent());
+    }
+
+    @Test
+    void serializeUnregisteredTypeAsJsonTest() {
+        byte[] bytes = serializer.serialize(Map.of("key", "value"));
+
+        assertEquals('{', bytes[0]);
+        assertEquals("value", ((Map<?, ?>) serializer.deserialize(bytes)).get("key"));
+    }
+
+    @Test
+    void serializeWithJsonFormatTest() {
+        BinaryRedisSerializer jsonFormatSerializer =
+                new BinaryRedisSerializer(codecRegistry, jsonSerializer, SerializationFormat.JSON);
+
+        byte[] bytes = jsonFormatSerializer.serialize(buildPost());
+
+        assertEquals('{', bytes[0]);
+        assertInstanceOf(PostCacheDto.class, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void deserializeNewerSchemaVersionSkipsUnknownTrailingFieldsTest() {
+        byte[] written = serializer.serialize(buildPost());
+        byte[] bytes = Arrays.copyOf(written, written.length + 2);
+        bytes[2] = 3;
+        bytes[written.length] = 1;
+        bytes[written.length + 1] = 7;
+
+        PostCacheDto result = (PostCacheDto) serializer.deserialize(bytes);
+
+        assertEquals(buildPost().getContent(), result.getContent());
+        assertEquals(2, result.getComments().size());
+    }
+
+    @Test
+    void deserializeUnknownTypeIdTest() {
+        byte[] bytes = serializer.serialize(buildPost());
+        bytes[1] = 100;
+
+        assertThrows(SerializationException.class, () -> serializer.deserialize(bytes));
+    }
+
+    @Test
+    void deserializeTruncatedPayloadTest() {
+        byte[] bytes = serializer.serialize(buildPost());
+
+        assertThrows(SerializationException.class,
+                () -> serializer.deserialize(Arrays.copyOf(bytes, bytes.length - 5)));
+    }
+
+    @Test
+    void serializePostWithConfiguredWriteVersionTest() {
+        BinaryCodecProperties properties = new BinaryCodecProperties();
+        properties.setWriteVersions(Map.of("PostCacheDto", (byte) 1));
+        BinaryRedisSerializer previousVersionSerializer = new BinaryRedisSerializer(
+                new BinaryCodecRegistry(List.of(commentCodec, new PostCacheDtoCodec(commentCodec)), properties),
+                jsonSerializer, SerializationFormat.BINARY);
+
+        byte[] bytes = previousVersionSerializer.serialize(buildPost());
+        PostCacheDto result = (PostCacheDto) serializer.deserialize(bytes);
+
+        assertEquals(1, bytes[2]);
+        assertEquals(List.of(2L, 1L), result.getComments().stream().map(CacheCommentDto::getCommentId).toList());
+        assertEquals("first", result.getComments().stream().skip(1).findFirst().orElseThrow().getContent());
+    }
+
+    @Test
+    void serializePostFramesNestedCommentsTest() {
+        byte[] bytes = serializer.serialize(buildPost());
+
+        assertEquals(2, bytes[2]);
+        assertEquals(1, ((PostCacheDto) serializer.deserialize(bytes)).getComments().stream()
+                .filter(comment -> comment.getLikesCount() == null)
+                .count());
+    }
+
+    @Test
+    void configureUnsupportedWriteVersionTest() {
+        BinaryCodecProperties properties = new BinaryCodecProperties();
+        properties.setWriteVersions(Map.of("PostCacheDto", (byte) 3));
+
+        assertThrows(IllegalStateException.class, () -> new BinaryCodecRegistry(
+                List.of(commentCodec, new PostCacheDtoCodec(commentCodec)), properties));
+    }
+
+    private PostCacheDto buildPost() {
+        LinkedHashSet<CacheCommentDto> comments = new LinkedHashSet<>();
+        comments.add(CacheCommentDto.builder().commentId(2L).authorId(3L).postId(1L).content("second")
+                .likesCount(4L).createdAt(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 6000)).build());
+        comments.add(CacheCommentDto.builder().commentId(1L).authorId(3L).postId(1L).content("first")
+                .createdAt(LocalDateTime.of(2024, 1, 1, 3, 4)).build());
+        return PostCacheDto.builder()
+                .postId(1L)
+                .content("Post content with ünicode")
+                .authorId(5L)
+                .likesCount(10)
+                .commentsCount(2)
+                .postViewsCount(300)
+                .publishedAt(LocalDateTime.of(2024, 1, 1, 0, 0, 0, 123456000))
+                .comments(comments)
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package faang.school.postservice.serializer.kafka;
+
+import faang.school.postservice.dto.comment.CacheCommentDto;
+import faang.school.postservice.event.comment.CacheCommentEvent;
+import faang.school.postservice.event.post.PublishPostEvent;
+import faang.school.postservice.serializer.BinaryCodecRegistry;
+import faang.school.postservice.serializer.codec.CacheCommentDtoCodec;
+import faang.school.postservice.serializer.codec.CacheCommentEventCodec;
+import faang.school.postservice.serializer.codec.PublishPostEventCodec;
+import faang.school.postservice.util.DeltaVarintCodec;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BinaryKafkaSerializerTest {
+
+    private static final String TOPIC = "topic";
+
+    private BinaryKafkaSerializer serializer;
+    private BinaryKafkaDeserializer deserializer;
+
+    @BeforeEach
+    void setUp() {
+        CacheCommentDtoCodec commentCodec = new CacheCommentDtoCodec();
+        BinaryCodecRegistry codecRegistry = new BinaryCodecRegistry(List.of(commentCodec,
+                new PublishPostEventCodec(), new CacheCommentEventCodec(commentCodec)));
+        JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>(Object.class);
+        jsonDeserializer.addTrustedPackages("faang.school.postservice.event.post");
+        serializer = new BinaryKafkaSerializer(codecRegistry, new JsonSerializer<>());
+        deserializer = new BinaryKafkaDeserializer(codecRegistry, jsonDeserializer);
+    }
+
+    @Test
+    void serializePublishPostEventRoundTripTest() {
+        byte[] followersIds = DeltaVarintCodec.encode(new long[]{1L, 2L, 500L});
+        PublishPostEvent event = new PublishPostEvent(10L, null, LocalDateTime.of(2024, 1, 1, 12, 0), followersIds);
+        Headers headers = new RecordHeaders();
+
+        byte[] bytes = serializer.serialize(TOPIC, headers, event);
+        PublishPostEvent result = (PublishPostEvent) deserializer.deserialize(TOPIC, headers, bytes);
+
+        assertArrayEquals(new byte[]{4}, headers.lastHeader(BinaryKafkaSerializer.SCHEMA_TYPE_HEADER).value());
+        assertArrayEquals(new byte[]{1}, headers.lastHeader(BinaryKafkaSerializer.SCHEMA_VERSION_HEADER).value());
+        assertEquals(10L, result.getPostId());
+        assertNull(result.getAuthorId());
+        assertEquals(event.getPublishedAt(), result.getPublishedAt());
+        assertArrayEquals(followersIds, result.getFollowersIds());
+    }
+
+    @Test
+    void serializeCacheCommentEventRoundTripTest() {
+        CacheCommentEvent event = new CacheCommentEvent(CacheCommentDto.builder()
+                .commentId(1L).postId(2L).authorId(3L).content("comment").build());
+        Headers headers = new RecordHeaders();
+
+        CacheCommentEvent result = (CacheCommentEvent) deserializer.deserialize(TOPIC, headers,
+                serializer.serialize(TOPIC, headers, event));
+
+        assertArrayEquals(new byte[]{2}, headers.lastHeader(BinaryKafkaSerializer.SCHEMA_VERSION_HEADER).value());
+        assertEquals(2L, result.getCommentDto().getPostId());
+        assertEquals("comment", result.getCommentDto().getContent());
+    }
+
+    @Test
+    void deserializeTruncatedBinaryRecordThrowsKafkaSerializationExceptionTest() {
+        PublishPostEvent event = new PublishPostEvent(10L, 5L, LocalDateTime.of(2024, 1, 1, 12, 0), null);
+        Headers headers = new RecordHeaders();
+        byte[] bytes = serializer.serialize(TOPIC, headers, event);
+
+        assertThrows(SerializationException.class,
+                () -> deserializer.deserialize(TOPIC, headers, Arrays.copyOf(bytes, 2)));
+    }
+
+    @Test
+    void deserializeJsonRecordTest() {
+        PublishPostEvent event = new PublishPostEvent(10L, 5L, null, null);
+        Headers headers = new RecordHeaders();
+
+        byte[] bytes = new JsonSerializer<>().serialize(TOPIC, headers, event);
+        PublishPostEvent result = (PublishPostEvent) deserializer.deserialize(TOPIC, headers, bytes);
+
+        assertEquals(10L, result.getPostId());
+        assertEquals(5L, result.getAuthorId());
+    }
+
+    @Test
+    void serializeUnregisteredTypeAsJsonTest() {
+        Headers headers = new RecordHeaders();
+
+        byte[] bytes = serializer.serialize(TOPIC, headers, "1");
+
+        assertNull(headers.lastHeader(BinaryKafkaSerializer.SCHEMA_TYPE_HEADER));
+        assertEquals("\"1\"", new String(bytes));
+    }
+}
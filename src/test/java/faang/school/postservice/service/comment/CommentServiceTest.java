@@ -1,6 +1,7 @@
 package faang.school.postservice.service.comment;
 
 import faang.school.postservice.dto.comment.CacheCommentDto;
+import faang.school.postservice.dto.comment.CacheCommentProjection;
 import faang.school.postservice.dto.comment.CommentDto;
 import faang.school.postservice.dto.post.PostDto;
 import faang.school.postservice.event.comment.CommentEventDto;
@@ -27,6 +28,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -37,8 +39,10 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -266,24 +270,33 @@ public class CommentServiceTest {
 
     @Test
     public void getBatchNewestCommentsTest() {
-        long postId = 1L;
+        List<Long> postsIds = List.of(1L, 2L);
         int batchSize = 10;
-        long firstCommentId = 5L;
-        long secondCommentId = 6L;
 
-        Comment firstComment = Comment.builder().id(firstCommentId).build();
-        Comment secondComment = Comment.builder().id(secondCommentId).build();
+        CacheCommentProjection firstComment = mockComment(5L, 1L);
+        CacheCommentProjection secondComment = mockComment(4L, 1L);
+        CacheCommentProjection thirdComment = mockComment(6L, 2L);
+        List<CacheCommentProjection> comments = List.of(firstComment, secondComment, thirdComment);
 
-        List<Comment> comments = new ArrayList<>(Set.of(firstComment, secondComment));
+        when(commentRepository.findBatchNewestCommentsByPostsIds(postsIds, batchSize)).thenReturn(comments);
 
-        when(commentRepository.findBatchNewestCommentsByPostId(postId, batchSize)).thenReturn(comments);
+        Map<Long, LinkedHashSet<CacheCommentDto>> result = commentService.getBatchNewestComments(postsIds, batchSize);
 
-        LinkedHashSet<CacheCommentDto> result = commentService.getBatchNewestComments(postId, batchSize);
+        assertEquals(2, result.size());
+        assertEquals(List.of(5L, 4L), result.get(1L).stream().map(CacheCommentDto::getCommentId).toList());
+        assertEquals(List.of(6L), result.get(2L).stream().map(CacheCommentDto::getCommentId).toList());
+    }
 
-        verify(commentMapper, times(1)).toCacheCommentDto(firstComment);
-        verify(commentMapper, times(1)).toCacheCommentDto(secondComment);
+    @Test
+    public void getBatchNewestCommentsForEmptyPostsIdsTest() {
+        assertTrue(commentService.getBatchNewestComments(List.of(), 10).isEmpty());
+        verifyNoInteractions(commentRepository);
+    }
 
-        assertFalse(result.isEmpty());
-        assertEquals(2,result.size());
+    private CacheCommentProjection mockComment(long commentId, long postId) {
+        CacheCommentProjection comment = mock(CacheCommentProjection.class);
+        when(comment.getCommentId()).thenReturn(commentId);
+        when(comment.getPostId()).thenReturn(postId);
+        return comment;
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package faang.school.postservice.service.feed;
 
 import faang.school.postservice.client.UserServiceClient;
+import faang.school.postservice.dto.post.PostKeyProjection;
 import faang.school.postservice.model.cache.PostCacheDto;
 import faang.school.postservice.publisher.kafka.KafkaCacheUserProducer;
 import faang.school.postservice.publisher.kafka.KafkaHeatCacheProducer;
@@ -12,17 +13,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -59,27 +64,29 @@ class FeedHeaterTest {
 
     @Test
     public void feedHeaterTest() {
-        List<Long> postIds = new ArrayList<>(List.of(1L, 2L, 3L));
-        Pageable pageable = PageRequest.of(0, 2);
-        Page<Long> page = new PageImpl<>(postIds);
+        PostKeyProjection firstKey = postKey(3L, LocalDateTime.of(2024, 1, 3, 0, 0));
+        PostKeyProjection secondKey = postKey(2L, LocalDateTime.of(2024, 1, 2, 0, 0));
+        PostKeyProjection thirdKey = postKey(1L, LocalDateTime.of(2024, 1, 1, 0, 0));
 
-        when(postService.getAllPostsIdsPublishedNotLaterDaysAgo(2, pageable))
-                .thenReturn(page);
+        when(postService.getBatchPublishedPostsKeysPublishedAfter(any(LocalDateTime.class), isNull(), eq(2)))
+                .thenReturn(List.of(firstKey, secondKey));
+        when(postService.getBatchPublishedPostsKeysPublishedAfter(any(LocalDateTime.class),
+                argThat(cursor -> cursor != null && cursor.getPostId() == 2L
+                        && cursor.getPublishedAt().equals(secondKey.getPublishedAt())), eq(2)))
+                .thenReturn(List.of(thirdKey));
 
         feedHeater.startHeatFeedCache();
 
         verify(userServiceClient).heatCache();
-        verify(kafkaHeatPostCacheProducer).send(postIds);
+        verify(kafkaHeatPostCacheProducer).send(List.of(3L, 2L));
+        verify(kafkaHeatPostCacheProducer).send(List.of(1L));
+        verify(postService, times(2)).getBatchPublishedPostsKeysPublishedAfter(any(), any(), eq(2));
     }
 
     @Test
-    public void feedHeaterEmptyPageTest() {
-        Pageable pageable = PageRequest.of(0, 2);
-        Page<Long> page = new PageImpl<>(new ArrayList<>());
-        page.isLast();
-
-        when(postService.getAllPostsIdsPublishedNotLaterDaysAgo(2, pageable))
-                .thenReturn(page);
+    public void feedHeaterEmptyBatchTest() {
+        when(postService.getBatchPublishedPostsKeysPublishedAfter(any(LocalDateTime.class), isNull(), eq(2)))
+                .thenReturn(List.of());
 
         feedHeater.startHeatFeedCache();
 
@@ -102,4 +109,11 @@ class FeedHeaterTest {
         verify(postCacheService).saveBatchPostsToCache(new LinkedHashSet<>(posts));
         verify(kafkaCacheUserProducer).send(List.of(10L, 20L));
     }
-}
\ No newline at end of file
+
+    private PostKeyProjection postKey(long id, LocalDateTime publishedAt) {
+        PostKeyProjection postKey = mock(PostKeyProjection.class);
+        lenient().when(postKey.getId()).thenReturn(id);
+        lenient().when(postKey.getPublishedAt()).thenReturn(publishedAt);
+        return postKey;
+    }
+}
@@ -0,0 +1,126 @@
+package faang.school.postservice.service.feed;
+
+import faang.school.postservice.repository.cache.FeedCacheRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FeedRebuildCoordinatorTest {
+
+    @Mock
+    private FeedCacheRepository feedCacheRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private FeedRebuildCoordinator feedRebuildCoordinator;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(feedRebuildCoordinator, "leaseTtlMillis", 5_000L);
+        ReflectionTestUtils.setField(feedRebuildCoordinator, "earlyRefreshBeta", 1.0);
+    }
+
+    @Test
+    void rebuild_ConcurrentCallersCoalescedTest() throws Exception {
+        long userId = 1L;
+        AtomicInteger rebuildsCount = new AtomicInteger();
+        CountDownLatch rebuildStarted = new CountDownLatch(1);
+        CountDownLatch releaseRebuild = new CountDownLatch(1);
+        when(feedCacheRepository.tryAcquireRebuildLease(eq(userId), anyString())).thenReturn(true);
+
+        CompletableFuture<Void> owner = CompletableFuture.runAsync(() ->
+                feedRebuildCoordinator.rebuild(userId, () -> {
+                    rebuildsCount.incrementAndGet();
+                    rebuildStarted.countDown();
+                    await(releaseRebuild);
+                }));
+        assertTrue(rebuildStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> waiter = CompletableFuture.runAsync(() ->
+                feedRebuildCoordinator.rebuild(userId, rebuildsCount::incrementAndGet));
+        feedRebuildCoordinator.rebuildAsync(userId, rebuildsCount::incrementAndGet, Runnable::run);
+        while (meterRegistry.counter("feed.rebuilds", "result", "coalesced").count() < 2) {
+            Thread.onSpinWait();
+        }
+
+        releaseRebuild.countDown();
+        CompletableFuture.allOf(owner, waiter).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, rebuildsCount.get());
+        assertEquals(2.0, meterRegistry.counter("feed.rebuilds", "result", "coalesced").count());
+        verify(feedCacheRepository, times(1)).tryAcquireRebuildLease(eq(userId), anyString());
+        verify(feedCacheRepository).releaseRebuildLease(eq(userId), anyString());
+    }
+
+    @Test
+    void rebuild_LeaseHeldByAnotherInstanceTest() {
+        long userId = 1L;
+        AtomicInteger rebuildsCount = new AtomicInteger();
+        when(feedCacheRepository.tryAcquireRebuildLease(eq(userId), anyString())).thenReturn(false);
+
+        feedRebuildCoordinator.rebuild(userId, rebuildsCount::incrementAndGet);
+
+        assertEquals(0, rebuildsCount.get());
+        assertEquals(1.0, meterRegistry.counter("feed.rebuilds", "result", "leased-elsewhere").count());
+        verify(feedCacheRepository, never()).releaseRebuildLease(eq(userId), anyString());
+    }
+
+    @Test
+    void rebuild_FailedRebuildReleasesLeaseTest() {
+        long userId = 1L;
+        AtomicInteger rebuildsCount = new AtomicInteger();
+        when(feedCacheRepository.tryAcquireRebuildLease(eq(userId), anyString())).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> feedRebuildCoordinator.rebuild(userId, () -> {
+            throw new IllegalStateException();
+        }));
+        feedRebuildCoordinator.rebuild(userId, rebuildsCount::incrementAndGet);
+
+        assertEquals(1, rebuildsCount.get());
+        verify(feedCacheRepository, times(2)).releaseRebuildLease(eq(userId), anyString());
+    }
+
+    @Test
+    void shouldRefreshEarlyTest() {
+        assertFalse(feedRebuildCoordinator.shouldRefreshEarly(100L));
+
+        ReflectionTestUtils.setField(feedRebuildCoordinator, "rebuildMillis", 1_000.0);
+
+        assertFalse(feedRebuildCoordinator.shouldRefreshEarly(-2L));
+        assertFalse(feedRebuildCoordinator.shouldRefreshEarly(Long.MAX_VALUE));
+        assertTrue(feedRebuildCoordinator.shouldRefreshEarly(0L));
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,40 +3,61 @@ package faang.school.postservice.service.feed;
 import faang.school.postservice.client.UserServiceClient;
 import faang.school.postservice.config.async.ThreadPoolConfig;
 import faang.school.postservice.dto.comment.CacheCommentDto;
+import faang.school.postservice.dto.news_feed.FeedCursor;
+import faang.school.postservice.dto.news_feed.FeedPage;
 import faang.school.postservice.dto.news_feed.NewsFeedResponseDto;
+import faang.school.postservice.dto.post.PostAuthorKeyProjection;
 import faang.school.postservice.event.post.PublishPostEvent;
+import faang.school.postservice.exception.DataValidationException;
 import faang.school.postservice.model.cache.FeedCacheDto;
 import faang.school.postservice.model.cache.PostCacheDto;
 import faang.school.postservice.model.cache.UserCacheDto;
+import faang.school.postservice.repository.FeedItemRepository;
+import faang.school.postservice.repository.cache.AuthorTimelineRepository;
 import faang.school.postservice.repository.cache.FeedCacheRepository;
 import faang.school.postservice.repository.cache.UserCacheRepository;
 import faang.school.postservice.service.comment.CommentService;
 import faang.school.postservice.service.post.PostCacheService;
 import faang.school.postservice.service.post.PostService;
+import faang.school.postservice.service.subscription.FollowGraphCache;
+import faang.school.postservice.util.DeltaVarintCodec;
 import faang.school.postservice.validator.news_feed.NewsFeedValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -58,6 +79,9 @@ class NewsFeedServiceTest {
     @Mock
     private FeedCacheRepository feedCacheRepository;
 
+    @Mock
+    private FeedItemRepository feedItemRepository;
+
     @Mock
     private ThreadPoolConfig poolConfig;
 
@@ -70,6 +94,18 @@ class NewsFeedServiceTest {
     @Mock
     private NewsFeedValidator newsFeedValidator;
 
+    @Mock
+    private AuthorTimelineRepository authorTimelineRepository;
+
+    @Mock
+    private FollowGraphCache followGraphCache;
+
+    @Mock
+    private FeedRebuildCoordinator feedRebuildCoordinator;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private NewsFeedService newsFeedService;
 
@@ -78,171 +114,108 @@ class NewsFeedServiceTest {
         ReflectionTestUtils.setField(newsFeedService, "quantityPostsInFeed", 2);
         ReflectionTestUtils.setField(newsFeedService, "quantityCommentsInPost", 2);
         ReflectionTestUtils.setField(newsFeedService, "pageSize", 2);
+        ReflectionTestUtils.setField(newsFeedService, "fanOutBatchSize", 2);
+        ReflectionTestUtils.setField(newsFeedService, "timelineSize", 2);
     }
 
     @Test
     void getNewsFeedBatch_FeedPresentInCacheGetPartFeedFromCacheAndPartFromRepositoryTest() {
-        ReflectionTestUtils.setField(newsFeedService, "quantityPostsInFeed", 3);
         long userId = 1L;
-        long lastViewedPostId = 2L;
-        long firstPostId = 2L;
-        long secondPostId = 3L;
-        int quantityCommentsInPost = 2;
-
-        FeedCacheDto feed = FeedCacheDto.builder()
-                .userId(userId)
-                .postsIds(new LinkedHashSet<>(Set.of(1L, 2L, 3L)))
-                .build();
+        LocalDateTime now = LocalDateTime.now();
+        FeedCursor cursor = new FeedCursor(now, 1L);
 
         PostCacheDto firstPost = PostCacheDto.builder()
-                .postId(firstPostId)
-                .publishedAt(LocalDateTime.now())
+                .postId(2L)
+                .authorId(2L)
+                .publishedAt(now.minusHours(1))
                 .build();
-
         PostCacheDto secondPost = PostCacheDto.builder()
-                .postId(secondPostId)
-                .publishedAt(LocalDateTime.now())
+                .postId(3L)
+                .authorId(3L)
+                .publishedAt(now.minusHours(2))
                 .build();
 
-        UserCacheDto firstUser = UserCacheDto.builder().build();
-        UserCacheDto secondUser = UserCacheDto.builder().build();
-
         CacheCommentDto firstComment = CacheCommentDto.builder().build();
-        CacheCommentDto secondComment = CacheCommentDto.builder().build();
-
-        when(feedCacheRepository.getFeedCacheByUserId(userId)).thenReturn(feed);
+        LinkedHashSet<CacheCommentDto> comments = new LinkedHashSet<>(List.of(firstComment));
         List<Long> followeesIds = new ArrayList<>();
-        when(userServiceClient.getFolloweesIds(userId)).thenReturn(followeesIds);
-
-        LinkedHashSet<PostCacheDto> postsFromRepository = new LinkedHashSet<>(Set.of(secondPost));
-        when(postService.getBatchNewestPostsPublishedAfterParticularPost(
-                eq(followeesIds), eq(lastViewedPostId), anyInt())).thenReturn(postsFromRepository);
-        LinkedHashSet<CacheCommentDto> comments = new LinkedHashSet<>(Set.of(firstComment, secondComment));
-        when(commentService.getBatchNewestComments(secondPost.getPostId(), quantityCommentsInPost)).thenReturn(comments);
-        LinkedHashSet<PostCacheDto> postsFromCache = new LinkedHashSet<>(Set.of(firstPost));
-        when(postService.getBatchPostsFromCache(anyList())).thenReturn(postsFromCache);
-        List<UserCacheDto> users = new ArrayList<>(List.of(firstUser, secondUser));
-        when(userCacheRepository.getBatchCacheUserDto(anyList(), anyList())).thenReturn(users);
-
-        NewsFeedResponseDto response = newsFeedService.getNewsFeedBatch(lastViewedPostId, userId);
-
-        assertNotNull(response);
-        assertTrue(response.getPosts().containsAll(postsFromRepository));
-        assertTrue(response.getPostsAuthors().containsAll(users));
+        LinkedHashSet<PostCacheDto> postsFromRepository = new LinkedHashSet<>(List.of(secondPost));
+
+        when(feedCacheRepository.getFeedPage(eq(userId), any(FeedCursor.class), eq(2))).thenReturn(new FeedPage(List.of(2L), 60_000L));
+        when(postService.getBatchPostsFromCache(List.of(2L))).thenReturn(new LinkedHashSet<>(List.of(firstPost)));
+        when(followGraphCache.getFolloweesIds(userId)).thenReturn(followeesIds);
+        when(postService.getBatchNewestPostsPublishedBefore(eq(followeesIds), any(FeedCursor.class), eq(1)))
+                .thenReturn(postsFromRepository);
+        when(commentService.getBatchNewestComments(List.of(secondPost.getPostId()), 2))
+                .thenReturn(Map.of(secondPost.getPostId(), comments));
+        when(userCacheRepository.getBatchCacheUserDto(anyList(), anyList())).thenReturn(new ArrayList<>());
+
+        NewsFeedResponseDto response = newsFeedService.getNewsFeedBatch(cursor.encode(), userId);
+
+        ArgumentCaptor<FeedCursor> cursorCaptor = ArgumentCaptor.forClass(FeedCursor.class);
+        verify(postService).getBatchNewestPostsPublishedBefore(eq(followeesIds), cursorCaptor.capture(), eq(1));
+        assertEquals(firstPost.getPostId(), cursorCaptor.getValue().getPostId());
+        assertEquals(firstPost.getPublishedAt(), cursorCaptor.getValue().getPublishedAt());
+
+        assertEquals(List.of(firstPost, secondPost), new ArrayList<>(response.getPosts()));
+        assertEquals(comments, secondPost.getComments());
+        assertEquals(FeedCursor.of(secondPost).encode(), response.getNextCursor());
     }
 
     @Test
     void getNewsFeedBatch_FeedPresentInCacheGetAllFeedFromCacheTest() {
-        ReflectionTestUtils.setField(newsFeedService, "quantityPostsInFeed", 3);
         long userId = 1L;
-        long lastViewedPostId = 1L;
-        long firstPostId = 2L;
-        long secondPostId = 3L;
+        LocalDateTime now = LocalDateTime.now();
+        FeedCursor cursor = new FeedCursor(now, 1L);
 
         UserCacheDto firstUser = UserCacheDto.builder().build();
         UserCacheDto secondUser = UserCacheDto.builder().build();
 
-        FeedCacheDto feed = FeedCacheDto.builder()
-                .userId(userId)
-                .postsIds(new LinkedHashSet<>(Set.of(1L, 2L, 3L)))
-                .build();
-
         PostCacheDto firstPost = PostCacheDto.builder()
-                .postId(firstPostId)
+                .postId(2L)
+                .publishedAt(now.minusHours(1))
                 .build();
         PostCacheDto secondPost = PostCacheDto.builder()
-                .postId(secondPostId)
+                .postId(3L)
+                .publishedAt(now.minusHours(1))
                 .build();
 
-        when(feedCacheRepository.getFeedCacheByUserId(userId)).thenReturn(feed);
-        LinkedHashSet<PostCacheDto> posts = new LinkedHashSet<>(Set.of(firstPost, secondPost));
-        when(postService.getBatchPostsFromCache(anyList()))
-                .thenReturn(posts);
+        when(feedCacheRepository.getFeedPage(eq(userId), any(FeedCursor.class), eq(2))).thenReturn(new FeedPage(List.of(3L, 2L), 60_000L));
+        when(postService.getBatchPostsFromCache(List.of(3L, 2L)))
+                .thenReturn(new LinkedHashSet<>(List.of(firstPost, secondPost)));
         List<UserCacheDto> users = new ArrayList<>(List.of(firstUser, secondUser));
         when(userCacheRepository.getBatchCacheUserDto(anyList(), anyList())).thenReturn(users);
 
-        NewsFeedResponseDto response = newsFeedService.getNewsFeedBatch(lastViewedPostId, userId);
+        NewsFeedResponseDto response = newsFeedService.getNewsFeedBatch(cursor.encode(), userId);
 
-        assertNotNull(response);
-        assertTrue(response.getPosts().containsAll(posts));
+        verify(newsFeedValidator).isLastViewedPostExists(cursor.getPostId());
+        verify(newsFeedValidator).isLastViewedPostShouldBeShownToUser(userId, cursor.getPostId());
+        verifyNoInteractions(userServiceClient);
+
+        assertEquals(List.of(secondPost, firstPost), new ArrayList<>(response.getPosts()));
         assertTrue(response.getPostsAuthors().containsAll(users));
+        assertEquals(FeedCursor.of(firstPost).encode(), response.getNextCursor());
     }
 
     @Test
-    void getNewsFeedBatch_FeedPresentInCacheAndLastViewedPostIsNotNullButOutOfPostsIdsListTest() {
+    void getNewsFeedBatch_FeedPresentInCacheAndCursorIsNullTest() {
         long userId = 1L;
-        int batchSize = 2;
-        long lastViewedPostId = 10L;
-        long firstPostId = 2L;
-        long secondPostId = 3L;
-        long firstPostAuthorId = 2L;
-        long secondPostAuthorId = 3L;
-        int quantityCommentsInPost = 2;
+        LocalDateTime now = LocalDateTime.now();
 
         PostCacheDto firstPost = PostCacheDto.builder()
-                .postId(firstPostId)
-                .authorId(firstPostAuthorId)
+                .postId(2L)
+                .publishedAt(now.minusHours(1))
                 .build();
         PostCacheDto secondPost = PostCacheDto.builder()
-                .postId(secondPostId)
-                .authorId(secondPostAuthorId)
+                .postId(3L)
+                .publishedAt(now.minusHours(2))
                 .build();
 
         UserCacheDto firstUser = UserCacheDto.builder().build();
         UserCacheDto secondUser = UserCacheDto.builder().build();
 
-        CacheCommentDto firstComment = CacheCommentDto.builder().build();
-        CacheCommentDto secondComment = CacheCommentDto.builder().build();
-
-        FeedCacheDto feed = FeedCacheDto.builder()
-                .userId(userId)
-                .postsIds(new LinkedHashSet<>(Set.of(1L, 2L)))
-                .build();
-
-        when(feedCacheRepository.getFeedCacheByUserId(userId)).thenReturn(feed);
-        List<Long> followeesIds = new ArrayList<>();
-        when(userServiceClient.getFolloweesIds(userId)).thenReturn(followeesIds);
-        LinkedHashSet<PostCacheDto> posts = new LinkedHashSet<>(Set.of(firstPost, secondPost));
-        when(postService.getBatchNewestPostsPublishedAfterParticularPost(followeesIds, lastViewedPostId, batchSize))
-                .thenReturn(posts);
-        LinkedHashSet<CacheCommentDto> comments = new LinkedHashSet<>(Set.of(firstComment, secondComment));
-        when(commentService.getBatchNewestComments(firstPost.getPostId(), quantityCommentsInPost)).thenReturn(comments);
-        when(commentService.getBatchNewestComments(secondPost.getPostId(), quantityCommentsInPost)).thenReturn(comments);
-        List<UserCacheDto> users = new ArrayList<>(List.of(firstUser, secondUser));
-        when(userCacheRepository.getBatchCacheUserDto(anyList(), anyList())).thenReturn(users);
-
-        NewsFeedResponseDto response = newsFeedService.getNewsFeedBatch(lastViewedPostId, userId);
-
-        assertNotNull(response);
-        assertTrue(response.getPosts().containsAll(posts));
-        assertTrue(response.getPostsAuthors().containsAll(users));
-    }
-
-    @Test
-    void getNewsFeedBatch_FeedPresentInCacheAndLastViewedPostIsNullTest() {
-        long userId = 1L;
-        Long lastViewedPostId = null;
-        long firstPostId = 2L;
-        long secondPostId = 3L;
-
-        LinkedHashSet<Long> postsIds = new LinkedHashSet<>(Set.of(firstPostId, secondPostId));
-        FeedCacheDto feed = FeedCacheDto.builder()
-                .postsIds(postsIds)
-                .userId(userId)
-                .build();
-
-        PostCacheDto firstPost = PostCacheDto.builder().build();
-        PostCacheDto secondPost = PostCacheDto.builder().build();
-
-        UserCacheDto firstUser = UserCacheDto.builder().build();
-        UserCacheDto secondUser = UserCacheDto.builder().build();
-
-        when(feedCacheRepository.getFeedCacheByUserId(userId)).thenReturn(feed);
-
-        LinkedHashSet<PostCacheDto> posts = new LinkedHashSet<>(Set.of(firstPost, secondPost));
-        when(postService.getBatchPostsFromCache(new ArrayList<>(postsIds))).thenReturn(posts);
-
-        List<UserCacheDto> users = new ArrayList<>(List.of(firstUser, secondUser));
+        when(feedCacheRepository.getFeedPage(userId, null, 2)).thenReturn(new FeedPage(List.of(2L, 3L), 60_000L));
+        LinkedHashSet<PostCacheDto> posts = new LinkedHashSet<>(List.of(firstPost, secondPost));
+        when(postService.getBatchPostsFromCache(List.of(2L, 3L))).thenReturn(posts);
         when(userCacheRepository.getBatchCacheUserDto(anyList(), anyList()))
                 .thenAnswer(invocation -> {
                     List<Long> usersIdsMissedInCache = invocation.getArgument(1);
@@ -251,36 +224,97 @@ class NewsFeedServiceTest {
                 });
         when(userServiceClient.getUsersCachesByIds(anyList())).thenReturn(new ArrayList<>(List.of(secondUser)));
 
-        NewsFeedResponseDto response = newsFeedService.getNewsFeedBatch(lastViewedPostId, userId);
+        NewsFeedResponseDto response = newsFeedService.getNewsFeedBatch(null, userId);
 
         verify(newsFeedValidator).isUserExists(userId);
-        verify(newsFeedValidator).isLastViewedPostExists(lastViewedPostId);
-        verify(newsFeedValidator).isLastViewedPostShouldBeShownToUser(userId, lastViewedPostId);
+        verify(newsFeedValidator, never()).isLastViewedPostExists(any());
+        verify(userCacheRepository).saveLastActive(eq(userId), any(LocalDateTime.class));
         verify(userServiceClient).getUsersCachesByIds(anyList());
 
-        assertNotNull(response);
-        assertTrue(response.getPosts().containsAll(posts));
-        assertTrue(response.getPostsAuthors().containsAll(users));
+        assertEquals(List.of(firstPost, secondPost), new ArrayList<>(response.getPosts()));
+        assertTrue(response.getPostsAuthors().containsAll(List.of(firstUser, secondUser)));
     }
 
     @Test
-    void getNewsFeedBatch_FeedNotPresentInCacheAndLastViewedPostIsNotNullTest() {
+    void getNewsFeedBatch_FeedPresentInCacheMergePostsOfPullAuthorsTest() {
+        long userId = 1L;
+        long pullAuthorId = 5L;
+        LocalDateTime now = LocalDateTime.now();
+
+        PostCacheDto firstPost = PostCacheDto.builder().postId(2L).authorId(2L).publishedAt(now.minusHours(1)).build();
+        PostCacheDto secondPost = PostCacheDto.builder().postId(3L).authorId(3L).publishedAt(now.minusHours(3)).build();
+        PostCacheDto pulledPost = PostCacheDto.builder().postId(7L).authorId(pullAuthorId)
+                .publishedAt(now.minusHours(2)).build();
+
+        when(feedCacheRepository.getFeedPage(userId, null, 2)).thenReturn(new FeedPage(List.of(2L, 3L), 60_000L));
+        when(postService.getBatchPostsFromCache(List.of(2L, 3L)))
+                .thenReturn(new LinkedHashSet<>(List.of(firstPost, secondPost)));
+        when(authorTimelineRepository.getPullAuthorsIds()).thenReturn(Set.of(pullAuthorId, 6L));
+        when(followGraphCache.getFolloweesIds(userId)).thenReturn(List.of(2L, 3L, pullAuthorId));
+        when(authorTimelineRepository.getTimelines(List.of(pullAuthorId), null, 2))
+                .thenReturn(Map.of(pullAuthorId, Set.of(ZSetOperations.TypedTuple.of("7", 1.0))));
+        when(postService.getBatchPostsFromCache(List.of(7L))).thenReturn(new LinkedHashSet<>(List.of(pulledPost)));
+        when(userCacheRepository.getBatchCacheUserDto(anyList(), anyList())).thenReturn(new ArrayList<>());
+        when(poolConfig.newsFeedTaskExecutor()).thenReturn(Runnable::run);
+
+        NewsFeedResponseDto response = newsFeedService.getNewsFeedBatch(null, userId);
+
+        assertEquals(List.of(firstPost, pulledPost), new ArrayList<>(response.getPosts()));
+        assertEquals(FeedCursor.of(pulledPost).encode(), response.getNextCursor());
+        assertEquals(1.0, meterRegistry.counter("feed.deliveries", "mode", "pull").count());
+        verify(userCacheRepository).getBatchCacheUserDto(eq(List.of(2L, pullAuthorId)), anyList());
+    }
+
+    @Test
+    void getNewsFeedBatch_FeedPresentInCacheRebuildMissingTimelineOfPullAuthorTest() {
+        long userId = 1L;
+        long pullAuthorId = 5L;
+        LocalDateTime now = LocalDateTime.now();
+        FeedCursor cursor = new FeedCursor(now, 1L);
+
+        PostCacheDto firstPost = PostCacheDto.builder().postId(2L).authorId(2L).publishedAt(now.minusHours(3)).build();
+        PostCacheDto secondPost = PostCacheDto.builder().postId(3L).authorId(3L).publishedAt(now.minusHours(4)).build();
+        PostCacheDto pulledPost = PostCacheDto.builder().postId(7L).authorId(pullAuthorId)
+                .publishedAt(now.minusHours(2)).build();
+        LinkedHashSet<PostCacheDto> authorPosts = new LinkedHashSet<>(List.of(pulledPost));
+
+        when(feedCacheRepository.getFeedPage(eq(userId), any(FeedCursor.class), eq(2))).thenReturn(new FeedPage(List.of(2L, 3L), 60_000L));
+        when(postService.getBatchPostsFromCache(List.of(2L, 3L)))
+                .thenReturn(new LinkedHashSet<>(List.of(firstPost, secondPost)));
+        when(authorTimelineRepository.getPullAuthorsIds()).thenReturn(Set.of(pullAuthorId));
+        when(followGraphCache.getFolloweesIds(userId)).thenReturn(List.of(2L, pullAuthorId));
+        when(authorTimelineRepository.getTimelines(eq(List.of(pullAuthorId)), argThat(timelineCursor ->
+                timelineCursor.getPostId() == 1L && timelineCursor.getPublishedAt().equals(now)), eq(2)))
+                .thenReturn(Map.of())
+                .thenReturn(Map.of(pullAuthorId, Set.of(ZSetOperations.TypedTuple.of("7", 1.0))));
+        when(postService.getBatchNewestPosts(List.of(pullAuthorId), 2)).thenReturn(authorPosts);
+        when(postService.getBatchPostsFromCache(List.of(7L))).thenReturn(new LinkedHashSet<>(List.of(pulledPost)));
+        when(userCacheRepository.getBatchCacheUserDto(anyList(), anyList())).thenReturn(new ArrayList<>());
+        when(poolConfig.newsFeedTaskExecutor()).thenReturn(Runnable::run);
+
+        NewsFeedResponseDto response = newsFeedService.getNewsFeedBatch(cursor.encode(), userId);
+
+        verify(postCacheService).saveBatchPostsToCache(authorPosts);
+        verify(authorTimelineRepository).saveTimeline(pullAuthorId, authorPosts);
+        assertEquals(List.of(pulledPost, firstPost), new ArrayList<>(response.getPosts()));
+    }
+
+    @Test
+    void getNewsFeedBatch_FeedNotPresentInCacheAndCursorIsNotNullTest() {
         long userId = 1L;
-        Long lastViewedPostId = 5L;
         int batchSize = 2;
-        long firstPostId = 2L;
-        long secondPostId = 3L;
-        long firstPostAuthorId = 2L;
-        long secondPostAuthorId = 3L;
         int quantityCommentsInPost = 2;
+        FeedCursor cursor = new FeedCursor(LocalDateTime.now(), 5L);
 
         PostCacheDto firstPost = PostCacheDto.builder()
-                .postId(firstPostId)
-                .authorId(firstPostAuthorId)
+                .postId(2L)
+                .authorId(2L)
+                .publishedAt(LocalDateTime.now())
                 .build();
         PostCacheDto secondPost = PostCacheDto.builder()
-                .postId(secondPostId)
-                .authorId(secondPostAuthorId)
+                .postId(3L)
+                .authorId(3L)
+                .publishedAt(LocalDateTime.now())
                 .build();
 
         CacheCommentDto firstComment = CacheCommentDto.builder().build();
@@ -289,90 +323,129 @@ class NewsFeedServiceTest {
         UserCacheDto firstUser = UserCacheDto.builder().build();
         UserCacheDto secondUser = UserCacheDto.builder().build();
 
+        when(feedCacheRepository.getFeedPage(eq(userId), any(FeedCursor.class), eq(batchSize))).thenReturn(null);
         List<Long> followeesIds = new ArrayList<>();
-        when(userServiceClient.getFolloweesIds(userId)).thenReturn(followeesIds);
-        LinkedHashSet<PostCacheDto> posts = new LinkedHashSet<>(Set.of(firstPost, secondPost));
-        when(postService.getBatchNewestPostsPublishedAfterParticularPost(followeesIds, lastViewedPostId, batchSize))
+        when(followGraphCache.getFolloweesIds(userId)).thenReturn(followeesIds);
+        LinkedHashSet<PostCacheDto> posts = new LinkedHashSet<>(List.of(firstPost, secondPost));
+        when(postService.getBatchNewestPostsPublishedBefore(eq(followeesIds), any(FeedCursor.class), eq(batchSize)))
                 .thenReturn(posts);
-        LinkedHashSet<CacheCommentDto> comments = new LinkedHashSet<>(Set.of(firstComment, secondComment));
-        when(commentService.getBatchNewestComments(firstPost.getPostId(), quantityCommentsInPost)).thenReturn(comments);
-        when(commentService.getBatchNewestComments(secondPost.getPostId(), quantityCommentsInPost)).thenReturn(comments);
+        LinkedHashSet<CacheCommentDto> comments = new LinkedHashSet<>(List.of(firstComment, secondComment));
+        when(commentService.getBatchNewestComments(
+                List.of(firstPost.getPostId(), secondPost.getPostId()), quantityCommentsInPost))
+                .thenReturn(Map.of(firstPost.getPostId(), comments, secondPost.getPostId(), comments));
         List<UserCacheDto> users = new ArrayList<>(List.of(firstUser, secondUser));
         when(userCacheRepository.getBatchCacheUserDto(anyList(), anyList())).thenReturn(users);
 
         when(poolConfig.newsFeedTaskExecutor()).thenReturn(Runnable::run);
-
-        when(userServiceClient.getFolloweesIds(userId)).thenReturn(followeesIds);
+        runRebuildsInCallingThread();
         when(postService.getBatchNewestPosts(followeesIds, batchSize)).thenReturn(posts);
-        when(commentService.getBatchNewestComments(firstPost.getPostId(), quantityCommentsInPost)).thenReturn(comments);
-        when(commentService.getBatchNewestComments(secondPost.getPostId(), quantityCommentsInPost)).thenReturn(comments);
 
-        NewsFeedResponseDto response = newsFeedService.getNewsFeedBatch(lastViewedPostId, userId);
+        NewsFeedResponseDto response = newsFeedService.getNewsFeedBatch(cursor.encode(), userId);
 
         verify(newsFeedValidator).isUserExists(userId);
-        verify(newsFeedValidator).isLastViewedPostExists(lastViewedPostId);
-        verify(newsFeedValidator).isLastViewedPostShouldBeShownToUser(userId, lastViewedPostId);
+        verify(newsFeedValidator).isLastViewedPostExists(cursor.getPostId());
+        verify(newsFeedValidator).isLastViewedPostShouldBeShownToUser(userId, cursor.getPostId());
         verify(postCacheService).saveBatchPostsToCache(posts);
-        verify(feedCacheRepository).saveFeedCache(any(FeedCacheDto.class));
+        verify(feedCacheRepository).saveFeedCache(eq(userId), any());
 
         assertNotNull(response);
         assertTrue(response.getPosts().containsAll(posts));
         assertTrue(response.getPostsAuthors().containsAll(users));
+        assertEquals(FeedCursor.of(secondPost).encode(), response.getNextCursor());
     }
 
     @Test
-    void getNewsFeedBatch_FeedNotPresentInCacheAndLastViewedPostIsNullTest() {
-        Long lastViewedPostId = null;
+    void getNewsFeedBatch_FeedNotPresentInCacheAndCursorIsNullTest() {
         long userId = 1L;
-        long firstPostId = 2L;
-        long secondPostId = 3L;
         int batchSize = 2;
         int quantityCommentsInPost = 2;
-        long firstPostAuthorId = 2L;
-        long secondPostAuthorId = 3L;
 
         PostCacheDto firstPost = PostCacheDto.builder()
-                .postId(firstPostId)
-                .authorId(firstPostAuthorId)
-                .build();
-        PostCacheDto secondPost = PostCacheDto.builder()
-                .postId(secondPostId)
-                .authorId(secondPostAuthorId)
+                .postId(2L)
+                .authorId(2L)
                 .build();
 
         CacheCommentDto firstComment = CacheCommentDto.builder().build();
-        CacheCommentDto secondComment = CacheCommentDto.builder().build();
-
         UserCacheDto firstUser = UserCacheDto.builder().build();
-        UserCacheDto secondUser = UserCacheDto.builder().build();
-
-        when(feedCacheRepository.getFeedCacheByUserId(userId)).thenReturn(null);
 
+        when(feedCacheRepository.getFeedPage(userId, null, batchSize)).thenReturn(null);
         List<Long> followeesIds = new ArrayList<>();
-        when(userServiceClient.getFolloweesIds(userId)).thenReturn(followeesIds);
-        LinkedHashSet<PostCacheDto> posts = new LinkedHashSet<>(Set.of(firstPost, secondPost));
+        when(followGraphCache.getFolloweesIds(userId)).thenReturn(followeesIds);
+        LinkedHashSet<PostCacheDto> posts = new LinkedHashSet<>(List.of(firstPost));
         when(postService.getBatchNewestPosts(followeesIds, batchSize)).thenReturn(posts);
-        List<UserCacheDto> users = new ArrayList<>(List.of(firstUser, secondUser));
+        List<UserCacheDto> users = new ArrayList<>(List.of(firstUser));
         when(userCacheRepository.getBatchCacheUserDto(anyList(), anyList())).thenReturn(users);
         when(poolConfig.newsFeedTaskExecutor()).thenReturn(Runnable::run);
+        runRebuildsInCallingThread();
+        LinkedHashSet<CacheCommentDto> comments = new LinkedHashSet<>(List.of(firstComment));
+        when(commentService.getBatchNewestComments(List.of(firstPost.getPostId()), quantityCommentsInPost))
+                .thenReturn(Map.of(firstPost.getPostId(), comments));
 
-        when(userServiceClient.getFolloweesIds(userId)).thenReturn(followeesIds);
-        when(postService.getBatchNewestPosts(followeesIds, batchSize)).thenReturn(posts);
-        LinkedHashSet<CacheCommentDto> comments = new LinkedHashSet<>(Set.of(firstComment, secondComment));
-        when(commentService.getBatchNewestComments(firstPost.getPostId(), quantityCommentsInPost)).thenReturn(comments);
-        when(commentService.getBatchNewestComments(secondPost.getPostId(), quantityCommentsInPost)).thenReturn(comments);
-
-        NewsFeedResponseDto response = newsFeedService.getNewsFeedBatch(lastViewedPostId, userId);
+        NewsFeedResponseDto response = newsFeedService.getNewsFeedBatch(null, userId);
 
         verify(newsFeedValidator).isUserExists(userId);
-        verify(newsFeedValidator).isLastViewedPostExists(lastViewedPostId);
-        verify(newsFeedValidator).isLastViewedPostShouldBeShownToUser(userId, lastViewedPostId);
+        verify(newsFeedValidator, never()).isLastViewedPostExists(any());
+        verify(newsFeedValidator, never()).isLastViewedPostShouldBeShownToUser(any(), any());
         verify(postCacheService).saveBatchPostsToCache(posts);
-        verify(feedCacheRepository).saveFeedCache(any(FeedCacheDto.class));
+        verify(feedCacheRepository).saveFeedCache(eq(userId), any());
 
         assertNotNull(response);
         assertTrue(response.getPosts().containsAll(posts));
         assertTrue(response.getPostsAuthors().containsAll(users));
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    void getNewsFeedBatch_FeedNotPresentInCacheGetFeedFromFeedStoreTest() {
+        long userId = 1L;
+        LocalDateTime now = LocalDateTime.now();
+
+        PostCacheDto firstPost = PostCacheDto.builder().postId(2L).authorId(2L).publishedAt(now.minusHours(2)).build();
+        PostCacheDto secondPost = PostCacheDto.builder().postId(3L).authorId(3L).publishedAt(now.minusHours(1)).build();
+
+        when(feedCacheRepository.getFeedPage(userId, null, 2)).thenReturn(null);
+        when(feedItemRepository.findFeedPostsIds(userId, null, 2)).thenReturn(List.of(3L, 2L));
+        when(postService.getBatchPostsFromCache(List.of(3L, 2L)))
+                .thenAnswer(invocation -> new LinkedHashSet<>(List.of(firstPost, secondPost)));
+        when(commentService.getBatchNewestComments(anyList(), eq(2))).thenReturn(Map.of());
+        when(userCacheRepository.getBatchCacheUserDto(anyList(), anyList())).thenReturn(new ArrayList<>());
+        when(poolConfig.newsFeedTaskExecutor()).thenReturn(Runnable::run);
+        runRebuildsInCallingThread();
+
+        NewsFeedResponseDto response = newsFeedService.getNewsFeedBatch(null, userId);
+
+        verify(postService, never()).getBatchNewestPosts(anyList(), anyInt());
+        verify(feedItemRepository, never()).saveFeedsItems(any());
+        verify(feedCacheRepository).saveFeedCache(eq(userId), any());
+
+        assertEquals(List.of(secondPost, firstPost), new ArrayList<>(response.getPosts()));
+        assertEquals(FeedCursor.of(firstPost).encode(), response.getNextCursor());
+    }
+
+    @Test
+    void getNewsFeedBatch_FeedAboutToExpireRefreshedEarlyTest() {
+        long userId = 1L;
+        LocalDateTime now = LocalDateTime.now();
+
+        PostCacheDto firstPost = PostCacheDto.builder().postId(2L).publishedAt(now.minusHours(1)).build();
+        PostCacheDto secondPost = PostCacheDto.builder().postId(3L).publishedAt(now.minusHours(2)).build();
+
+        when(feedCacheRepository.getFeedPage(userId, null, 2)).thenReturn(new FeedPage(List.of(2L, 3L), 100L));
+        when(postService.getBatchPostsFromCache(List.of(2L, 3L)))
+                .thenReturn(new LinkedHashSet<>(List.of(firstPost, secondPost)));
+        when(userCacheRepository.getBatchCacheUserDto(anyList(), anyList())).thenReturn(new ArrayList<>());
+        when(feedRebuildCoordinator.shouldRefreshEarly(100L)).thenReturn(true);
+        when(poolConfig.newsFeedTaskExecutor()).thenReturn(Runnable::run);
+
+        NewsFeedResponseDto response = newsFeedService.getNewsFeedBatch(null, userId);
+
+        verify(feedRebuildCoordinator).rebuildAsync(eq(userId), any(), any());
+        assertEquals(List.of(firstPost, secondPost), new ArrayList<>(response.getPosts()));
+    }
+
+    @Test
+    void getNewsFeedBatch_InvalidCursorTest() {
+        assertThrows(DataValidationException.class, () -> newsFeedService.getNewsFeedBatch("not a cursor", 1L));
     }
 
     @Test
@@ -396,15 +469,16 @@ class NewsFeedServiceTest {
         List<Long> followeesIds = new ArrayList<>();
         LinkedHashSet<PostCacheDto> posts = new LinkedHashSet<>(Set.of(firstPostDto, secondPostDto));
 
-        when(userServiceClient.getFolloweesIds(userId)).thenReturn(followeesIds);
+        when(followGraphCache.getFolloweesIds(userId)).thenReturn(followeesIds);
         when(postService.getBatchNewestPosts(followeesIds, batchSize)).thenReturn(posts);
-        when(commentService.getBatchNewestComments(firstPostId, quantityCommentsInPost)).thenReturn(comments);
-        when(commentService.getBatchNewestComments(secondPostId, quantityCommentsInPost)).thenReturn(comments);
+        when(commentService.getBatchNewestComments(anyList(), eq(quantityCommentsInPost)))
+                .thenReturn(Map.of(firstPostId, comments, secondPostId, comments));
 
         FeedCacheDto result = newsFeedService.fillFeed(userId, batchSize);
 
         verify(postCacheService, times(1)).saveBatchPostsToCache(any());
-        verify(feedCacheRepository, times(1)).saveFeedCache(result);
+        verify(feedCacheRepository, times(1)).saveFeedCache(eq(userId), any());
+        verify(feedItemRepository).saveFeedsItems(Map.of(userId, posts));
 
         assertNotNull(result);
         assertEquals(userId, result.getUserId());
@@ -412,6 +486,100 @@ class NewsFeedServiceTest {
         assertTrue(result.getPostsIds().contains(secondPostId));
     }
 
+    @Test
+    void fillFeed_FeedStoreHoldsFewerPostsThanBatchTopsUpFromFolloweesTest() {
+        long userId = 1;
+        int batchSize = 2;
+        List<Long> followeesIds = List.of(2L, 3L);
+        PostCacheDto fannedOutPost = postCache(10L);
+        PostCacheDto followeePost = postCache(11L);
+
+        when(feedItemRepository.findFeedPostsIds(userId, null, batchSize)).thenReturn(List.of(10L));
+        when(postService.getBatchPostsFromCache(List.of(10L)))
+                .thenReturn(new LinkedHashSet<>(List.of(fannedOutPost)));
+        when(followGraphCache.getFolloweesIds(userId)).thenReturn(followeesIds);
+        when(postService.getBatchNewestPosts(followeesIds, batchSize))
+                .thenReturn(new LinkedHashSet<>(List.of(postCache(10L), followeePost)));
+        when(commentService.getBatchNewestComments(anyList(), eq(2))).thenReturn(Map.of());
+
+        FeedCacheDto result = newsFeedService.fillFeed(userId, batchSize);
+
+        verify(feedItemRepository).saveFeedsItems(Map.of(userId, Set.of(followeePost)));
+        verify(feedCacheRepository).saveFeedCache(eq(userId), argThat(posts -> posts.size() == 2));
+        assertEquals(Set.of(10L, 11L), result.getPostsIds());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void fillFeedsTest() {
+        long firstUserId = 1;
+        long secondUserId = 2;
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<PostAuthorKeyProjection> postsKeys = List.of(
+                postKey(30L, 10L, time.minusHours(1)),
+                postKey(31L, 10L, time.minusHours(3)),
+                postKey(40L, 20L, time),
+                postKey(41L, 20L, time.minusHours(2)));
+        ArgumentCaptor<Map<Long, List<PostCacheDto>>> captor = ArgumentCaptor.forClass(Map.class);
+
+        when(followGraphCache.getFolloweesIdsByUsersIds(List.of(firstUserId, secondUserId)))
+                .thenReturn(Map.of(firstUserId, List.of(10L, 20L), secondUserId, List.of(10L)));
+        when(postService.getNewestPostsKeysOfEachAuthor(Set.of(10L, 20L), 2)).thenReturn(postsKeys);
+        when(postService.getPostCacheDtoList(argThat(ids -> ids.size() == 3
+                && ids.containsAll(List.of(30L, 31L, 40L)))))
+                .thenReturn(List.of(postCache(30L), postCache(31L), postCache(40L)));
+        when(commentService.getBatchNewestComments(anyList(), eq(2))).thenReturn(Map.of());
+
+        newsFeedService.fillFeeds(List.of(firstUserId, secondUserId), 2);
+
+        verify(postCacheService).saveBatchPostsToCache(argThat(posts -> posts.size() == 3));
+        verify(feedCacheRepository).saveFeedsCaches(captor.capture());
+        verify(feedItemRepository).saveFeedsItems(captor.getValue());
+        assertEquals(List.of(40L, 30L), captor.getValue().get(firstUserId).stream()
+                .map(PostCacheDto::getPostId).toList());
+        assertEquals(List.of(30L, 31L), captor.getValue().get(secondUserId).stream()
+                .map(PostCacheDto::getPostId).toList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void fillFeedsOfUsersFollowingFewAuthorsTakesMorePostsPerAuthorTest() {
+        long singleFolloweeUserId = 1;
+        long manyFolloweesUserId = 2;
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<PostAuthorKeyProjection> postsKeys = List.of(
+                postKey(30L, 10L, time),
+                postKey(31L, 10L, time.minusHours(1)),
+                postKey(32L, 10L, time.minusHours(2)),
+                postKey(33L, 10L, time.minusHours(3)));
+        ArgumentCaptor<Map<Long, List<PostCacheDto>>> captor = ArgumentCaptor.forClass(Map.class);
+
+        when(followGraphCache.getFolloweesIdsByUsersIds(List.of(singleFolloweeUserId, manyFolloweesUserId)))
+                .thenReturn(Map.of(singleFolloweeUserId, List.of(10L), manyFolloweesUserId, List.of(10L, 20L, 30L)));
+        when(postService.getNewestPostsKeysOfEachAuthor(Set.of(10L), 6)).thenReturn(postsKeys);
+        when(postService.getNewestPostsKeysOfEachAuthor(Set.of(20L, 30L), 2)).thenReturn(List.of());
+        when(postService.getPostCacheDtoList(argThat(ids -> ids.size() == 4)))
+                .thenReturn(List.of(postCache(30L), postCache(31L), postCache(32L), postCache(33L)));
+        when(commentService.getBatchNewestComments(anyList(), eq(2))).thenReturn(Map.of());
+
+        newsFeedService.fillFeeds(List.of(singleFolloweeUserId, manyFolloweesUserId), 6);
+
+        verify(feedCacheRepository).saveFeedsCaches(captor.capture());
+        assertEquals(List.of(30L, 31L, 32L, 33L), captor.getValue().get(singleFolloweeUserId).stream()
+                .map(PostCacheDto::getPostId).toList());
+    }
+
+    @Test
+    void fillFeedsWithoutFolloweesTest() {
+        when(followGraphCache.getFolloweesIdsByUsersIds(List.of(1L))).thenReturn(Map.of(1L, List.of()));
+
+        newsFeedService.fillFeeds(List.of(1L), 2);
+
+        verify(postService, never()).getNewestPostsKeysOfEachAuthor(any(), anyInt());
+        verify(postService, never()).getPostCacheDtoList(anyList());
+        verify(feedCacheRepository).saveFeedsCaches(Map.of(1L, List.of()));
+    }
+
     @Test
     void addPostToFeeds_OneNotActiveUserAndFeedCacheDtoPresentsInCacheTest() {
         long firstUserId = 1;
@@ -424,42 +592,41 @@ class NewsFeedServiceTest {
         List<Long> followersIds = new ArrayList<>(List.of(firstUserId, secondUserId));
 
         PublishPostEvent publishPostEvent = PublishPostEvent.builder()
-                .postDto(postToSave)
-                .followersIds(followersIds)
+                .postId(postToSave.getPostId())
+                .followersIds(DeltaVarintCodec.encode(followersIds.stream().mapToLong(Long::longValue).toArray()))
                 .build();
 
-        LinkedHashSet<Long> postsIds = new LinkedHashSet<>(List.of(1L, 2L));
-        FeedCacheDto feedCacheDto = FeedCacheDto.builder()
-                .postsIds(postsIds)
-                .build();
-
-        UserCacheDto userCacheDto = UserCacheDto.builder()
+        UserCacheDto activeUser = UserCacheDto.builder()
+                .userId(firstUserId)
                 .active(true)
                 .build();
+        UserCacheDto inactiveUser = UserCacheDto.builder()
+                .userId(secondUserId)
+                .active(false)
+                .build();
 
         when(poolConfig.newsFeedTaskExecutor()).thenReturn(Runnable::run);
-        when(feedCacheRepository.getFeedCacheByUserId(firstUserId)).thenReturn(feedCacheDto);
-        when(feedCacheRepository.getFeedCacheByUserId(secondUserId)).thenReturn(null);
-
-        when(userCacheRepository.getCacheUserDto(firstUserId)).thenReturn(userCacheDto);
-        when(userCacheRepository.getCacheUserDto(secondUserId)).thenReturn(null);
-        when(userServiceClient.isUserActive(secondUserId)).thenReturn(false);
+        runRebuildsInCallingThread();
+        when(userCacheRepository.getBatchCacheUserDto(eq(followersIds), anyList()))
+                .thenAnswer(invocation -> {
+                    List<Long> usersIdsMissedInCache = invocation.getArgument(1);
+                    usersIdsMissedInCache.add(secondUserId);
+                    return List.of(activeUser);
+                });
+        when(userServiceClient.getUsersCachesByIds(List.of(secondUserId))).thenReturn(List.of(inactiveUser));
+        when(feedCacheRepository.addPostToFeeds(eq(List.of(firstUserId)), argThat(post -> post.getPostId().equals(postToSave.getPostId())))).thenReturn(List.of());
 
-        newsFeedService.addPostToFeeds(publishPostEvent);
+        newsFeedService.addPostToFeeds(publishPostEvent).join();
 
-        verify(feedCacheRepository, times(1)).saveFeedCache(feedCacheDto);
+        verify(feedCacheRepository, times(1)).addPostToFeeds(eq(List.of(firstUserId)), argThat(post -> post.getPostId().equals(postToSave.getPostId())));
+        verify(feedItemRepository).saveFeedItems(eq(postToSave.getPostId()), any(), eq(new long[]{firstUserId, secondUserId}));
         verifyNoMoreInteractions(feedCacheRepository);
-        verify(postCacheService, times(1)).savePostToCache(postToSave);
-        verifyNoMoreInteractions(postCacheService);
-
-        assertTrue(feedCacheDto.getPostsIds().contains(10L));
-        assertTrue(feedCacheDto.getPostsIds().contains(2L));
-        assertFalse(feedCacheDto.getPostsIds().contains(1L));
+        verifyNoInteractions(postCacheService);
     }
 
     @Test
     void addPostToFeeds_FeedCacheDtoNotPresentsInCacheTest() {
-        ArgumentCaptor<FeedCacheDto> captor = ArgumentCaptor.forClass(FeedCacheDto.class);
+        ArgumentCaptor<Set<PostCacheDto>> captor = ArgumentCaptor.forClass(Set.class);
         int quantityCommentsInPost = 2;
         long followerId = 1;
         int batchSize = 2;
@@ -471,11 +638,12 @@ class NewsFeedServiceTest {
         List<Long> followersIds = new ArrayList<>(List.of(followerId));
 
         PublishPostEvent publishPostEvent = PublishPostEvent.builder()
-                .postDto(postToSave)
-                .followersIds(followersIds)
+                .postId(postToSave.getPostId())
+                .followersIds(DeltaVarintCodec.encode(followersIds.stream().mapToLong(Long::longValue).toArray()))
                 .build();
 
         UserCacheDto userCacheDto = UserCacheDto.builder()
+                .userId(followerId)
                 .active(true)
                 .build();
 
@@ -493,25 +661,26 @@ class NewsFeedServiceTest {
         LinkedHashSet<CacheCommentDto> comments = new LinkedHashSet<>(Set.of(firstComment, secondComment));
 
         when(poolConfig.newsFeedTaskExecutor()).thenReturn(Runnable::run);
-        when(feedCacheRepository.getFeedCacheByUserId(followerId)).thenReturn(null);
-        when(userCacheRepository.getCacheUserDto(followerId)).thenReturn(userCacheDto);
+        runRebuildsInCallingThread();
+        when(userCacheRepository.getBatchCacheUserDto(eq(followersIds), anyList())).thenReturn(List.of(userCacheDto));
+        when(feedCacheRepository.addPostToFeeds(eq(List.of(followerId)), argThat(post -> post.getPostId().equals(postToSave.getPostId())))).thenReturn(List.of(followerId));
 
-        when(userServiceClient.getFolloweesIds(followerId)).thenReturn(followeesIds);
+        when(followGraphCache.getFolloweesIds(followerId)).thenReturn(followeesIds);
         when(postService.getBatchNewestPosts(followeesIds, batchSize)).thenReturn(posts);
-        when(commentService.getBatchNewestComments(postFromRepository.getPostId(), quantityCommentsInPost))
-                .thenReturn(comments);
+        when(commentService.getBatchNewestComments(List.of(postFromRepository.getPostId()), quantityCommentsInPost))
+                .thenReturn(Map.of(postFromRepository.getPostId(), comments));
 
-        newsFeedService.addPostToFeeds(publishPostEvent);
+        newsFeedService.addPostToFeeds(publishPostEvent).join();
 
         verify(postCacheService).saveBatchPostsToCache(posts);
-        verify(feedCacheRepository, times(2)).saveFeedCache(captor.capture());
-        verify(postCacheService).savePostToCache(any(PostCacheDto.class));
+        verify(feedCacheRepository).saveFeedCache(eq(followerId), captor.capture());
+        verify(feedCacheRepository).addPostToFeed(eq(followerId), argThat(post -> post.getPostId().equals(postToSave.getPostId())));
+        verify(userServiceClient, never()).getUsersCachesByIds(anyList());
 
-        FeedCacheDto feedCacheDto = captor.getValue();
+        Set<PostCacheDto> feedPosts = captor.getValue();
 
-        assertNotNull(feedCacheDto);
-        assertTrue(feedCacheDto.getPostsIds().contains(5L));
-        assertTrue(feedCacheDto.getPostsIds().contains(10L));
+        assertNotNull(feedPosts);
+        assertTrue(feedPosts.contains(postFromRepository));
     }
 
     @Test
@@ -534,8 +703,8 @@ class NewsFeedServiceTest {
         LinkedHashSet<CacheCommentDto> comments = new LinkedHashSet<>(Set.of(firstComment, secondComment));
         LinkedHashSet<PostCacheDto> posts = new LinkedHashSet<>(Set.of(firstPostDto, secondPostDto));
 
-        when(commentService.getBatchNewestComments(firstPostId, quantityCommentsInPost)).thenReturn(comments);
-        when(commentService.getBatchNewestComments(secondPostId, quantityCommentsInPost)).thenReturn(comments);
+        when(commentService.getBatchNewestComments(anyList(), eq(quantityCommentsInPost)))
+                .thenReturn(Map.of(firstPostId, comments, secondPostId, comments));
 
         Set<PostCacheDto> result = newsFeedService.addLatestCommentsToPosts(posts);
 
@@ -547,22 +716,19 @@ class NewsFeedServiceTest {
 
     @Test
     void getPostCacheDtoWithCommentsPresentsInCacheTest() {
-        int quantityCommentsInPost = 2;
         long postId = 1L;
+        CacheCommentDto firstComment = CacheCommentDto.builder().build();
         PostCacheDto post = PostCacheDto.builder()
                 .postId(postId)
+                .comments(new LinkedHashSet<>(Set.of(firstComment)))
                 .build();
 
-        CacheCommentDto firstComment = CacheCommentDto.builder().build();
-
-        LinkedHashSet<CacheCommentDto> comments = new LinkedHashSet<>(Set.of(firstComment));
-
         when(postCacheService.getPostCache(postId)).thenReturn(post);
-        when(commentService.getBatchNewestComments(postId, quantityCommentsInPost)).thenReturn(comments);
 
         PostCacheDto result = newsFeedService.getPostCacheDtoWithComments(postId);
 
         verifyNoInteractions(postService);
+        verifyNoInteractions(commentService);
 
         assertNotNull(result);
         assertEquals(postId, result.getPostId());
@@ -584,7 +750,8 @@ class NewsFeedServiceTest {
 
         when(postCacheService.getPostCache(postId)).thenReturn(null);
         when(postService.getPostCacheDto(postId)).thenReturn(post);
-        when(commentService.getBatchNewestComments(postId, quantityCommentsInPost)).thenReturn(comments);
+        when(commentService.getBatchNewestComments(List.of(postId), quantityCommentsInPost))
+                .thenReturn(Map.of(postId, comments));
 
         PostCacheDto result = newsFeedService.getPostCacheDtoWithComments(postId);
 
@@ -595,4 +762,27 @@ class NewsFeedServiceTest {
         assertEquals(postId, result.getPostId());
         assertEquals(1, result.getComments().size());
     }
-}
\ No newline at end of file
+
+    private PostAuthorKeyProjection postKey(long postId, long authorId, LocalDateTime publishedAt) {
+        PostAuthorKeyProjection postKey = mock(PostAuthorKeyProjection.class);
+        lenient().when(postKey.getId()).thenReturn(postId);
+        lenient().when(postKey.getAuthorId()).thenReturn(authorId);
+        lenient().when(postKey.getPublishedAt()).thenReturn(publishedAt);
+        return postKey;
+    }
+
+    private PostCacheDto postCache(long postId) {
+        return PostCacheDto.builder().postId(postId).build();
+    }
+
+    private void runRebuildsInCallingThread() {
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(feedRebuildCoordinator).rebuild(anyLong(), any());
+        lenient().doAnswer(invocation -> {
+            invocation.<Executor>getArgument(2).execute(invocation.getArgument(1));
+            return null;
+        }).when(feedRebuildCoordinator).rebuildAsync(anyLong(), any(), any());
+    }
+}
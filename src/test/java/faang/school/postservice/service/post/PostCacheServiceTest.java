@@ -1,11 +1,14 @@
 package faang.school.postservice.service.post;
 
 import faang.school.postservice.dto.comment.CacheCommentDto;
+import faang.school.postservice.enums.PostCounter;
 import faang.school.postservice.mapper.post.PostMapper;
 import faang.school.postservice.mapper.post.PostMapperImpl;
 import faang.school.postservice.model.Post;
 import faang.school.postservice.model.cache.PostCacheDto;
 import faang.school.postservice.repository.cache.PostCacheRepository;
+import faang.school.postservice.repository.cache.PostCommentsCacheRepository;
+import faang.school.postservice.repository.cache.PostCountersRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,13 +21,15 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.ArgumentMatchers.any;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +38,12 @@ class PostCacheServiceTest {
     @Mock
     private PostCacheRepository postCacheRepository;
 
+    @Mock
+    private PostCountersRepository postCountersRepository;
+
+    @Mock
+    private PostCommentsCacheRepository postCommentsCacheRepository;
+
     @Spy
     private PostMapper postMapper = new PostMapperImpl();
 
@@ -64,120 +75,107 @@ class PostCacheServiceTest {
 
     @Test
     void saveBatchPostsToCacheTest() {
-        PostCacheDto postCacheDto = PostCacheDto.builder().build();
+        CacheCommentDto comment = CacheCommentDto.builder().commentId(1L).build();
+        PostCacheDto postCacheDto = PostCacheDto.builder()
+                .postId(1L)
+                .comments(new LinkedHashSet<>(List.of(comment)))
+                .build();
         Set<PostCacheDto> posts = new LinkedHashSet<>(Set.of(postCacheDto));
 
         postCacheService.saveBatchPostsToCache(posts);
 
-        verify(postCacheRepository).saveBatchPostsToCache(posts);
+        verify(postCommentsCacheRepository).seedComments(posts, 2);
+        verify(postCacheRepository).saveBatchPostsToCache(argThat(bodies -> bodies.size() == 1
+                && bodies.iterator().next().getPostId().equals(1L)
+                && bodies.iterator().next().getComments().isEmpty()));
+        verify(postCountersRepository).seedCounters(posts);
+        assertEquals(1, postCacheDto.getComments().size());
     }
 
     @Test
     void savePostToCacheGetDtoTest() {
-        PostCacheDto postCacheDto = PostCacheDto.builder().build();
+        CacheCommentDto comment = CacheCommentDto.builder().commentId(1L).build();
+        PostCacheDto postCacheDto = PostCacheDto.builder()
+                .postId(1L)
+                .comments(new LinkedHashSet<>(List.of(comment)))
+                .build();
+        ArgumentCaptor<PostCacheDto> captor = ArgumentCaptor.forClass(PostCacheDto.class);
 
         postCacheService.savePostToCache(postCacheDto);
 
-        verify(postCacheRepository).savePostCache(postCacheDto);
+        verify(postCommentsCacheRepository).seedComments(List.of(postCacheDto), 2);
+        verify(postCacheRepository).savePostCache(captor.capture());
+        verify(postCountersRepository).seedCounters(List.of(postCacheDto));
+        assertEquals(1L, captor.getValue().getPostId());
+        assertTrue(captor.getValue().getComments().isEmpty());
     }
 
     @Test
-    void addPostViewToPostCacheTest() {
-        long postId = 1L;
-        PostCacheDto postCacheDto = PostCacheDto.builder()
-                .postId(postId)
-                .postViewsCount(1)
-                .build();
+    void addPostViewsToPostCacheTest() {
+        Map<Long, Long> viewsByPostsIds = Map.of(1L, 10L, 2L, 1L);
 
-        postCacheService.addPostViewToPostCache(postCacheDto);
+        postCacheService.addPostViewsToPostCache(viewsByPostsIds);
 
-        verify(postCacheRepository).savePostCache(any());
-
-        assertEquals(2, postCacheDto.getPostViewsCount());
+        verify(postCountersRepository).incrementCounters(PostCounter.VIEWS, viewsByPostsIds);
+        verifyNoInteractions(postCacheRepository);
     }
 
     @Test
-    void addLikeToCachePostTest() {
-        PostCacheDto postCacheDto = PostCacheDto.builder()
-                .postId(1L)
-                .likesCount(0)
-                .build();
+    void addLikesToPostCacheTest() {
+        Map<Long, Long> likesByPostsIds = Map.of(1L, 3L);
+        when(postCountersRepository.incrementCounters(PostCounter.LIKES, likesByPostsIds)).thenReturn(0);
 
-        postCacheService.addLikeToCachePost(postCacheDto);
+        postCacheService.addLikesToPostCache(likesByPostsIds);
 
-        verify(postCacheRepository).savePostCache(any());
-
-        assertEquals(1, postCacheDto.getLikesCount());
+        verify(postCountersRepository).incrementCounters(PostCounter.LIKES, likesByPostsIds);
+        verifyNoInteractions(postCacheRepository);
     }
 
     @Test
     void getBatchPostsCachesTest() {
-        List<Long> postIds = new LinkedList<>();
-        List<Long> postsMissedInCache = new LinkedList<>();
+        List<Long> postIds = List.of(2L, 1L);
+        List<Long> postsMissedInCache = new ArrayList<>();
 
-        PostCacheDto cacheDto = PostCacheDto.builder().build();
-        Set<PostCacheDto> postCacheDtos = new LinkedHashSet<>(Set.of(cacheDto));
+        LinkedHashSet<PostCacheDto> postCacheDtos = new LinkedHashSet<>(List.of(
+                PostCacheDto.builder().postId(2L).build(), PostCacheDto.builder().postId(1L).build()));
 
-        when(postCacheRepository.getBatchPostsCaches(postIds, postsMissedInCache)).thenReturn(postCacheDtos);
+        when(postCacheRepository.getBatchPostsCaches(postIds, 2, postsMissedInCache)).thenReturn(postCacheDtos);
 
-        Set<PostCacheDto> result =
-                postCacheService.getBatchPostsCaches(new ArrayList<>(postIds), postsMissedInCache);
+        Set<PostCacheDto> result = postCacheService.getBatchPostsCaches(postIds, postsMissedInCache);
 
         assertEquals(postCacheDtos, result);
+        verifyNoInteractions(postCountersRepository, postCommentsCacheRepository);
     }
 
     @Test
-    void addCommentToPostCacheCommentsLessMaxQuantityTest() {
-        CacheCommentDto commentDtoToSave = CacheCommentDto.builder().build();
-        CacheCommentDto commentDto = CacheCommentDto.builder().build();
-        Set<CacheCommentDto> comments = new LinkedHashSet<>(Set.of(commentDto));
-        ArgumentCaptor<PostCacheDto> captor = ArgumentCaptor.forClass(PostCacheDto.class);
-
-        PostCacheDto postCacheDto = PostCacheDto.builder()
-                .comments(comments)
-                .build();
-
-        postCacheService.addCommentToPostCache(commentDtoToSave, postCacheDto);
-
-        verify(postCacheRepository).savePostCache(captor.capture());
-
-        assertEquals(1, postCacheDto.getCommentsCount());
-        assertEquals(2, captor.getValue().getComments().size());
-    }
+    void addCommentsToPostCacheTest() {
+        CacheCommentDto firstComment = CacheCommentDto.builder().commentId(4L).postId(1L).build();
+        CacheCommentDto secondComment = CacheCommentDto.builder().commentId(5L).postId(1L).build();
+        Map<Long, List<CacheCommentDto>> commentsByPostsIds = Map.of(1L, List.of(firstComment, secondComment));
 
-    @Test
-    void addCommentToPostCacheCommentsEqualsMaxQuantityTest() {
-        CacheCommentDto commentDtoToSave = CacheCommentDto.builder().commentId(1L).build();
-        CacheCommentDto firstCommentDto = CacheCommentDto.builder().commentId(2L).build();
-        CacheCommentDto secondCommentDto = CacheCommentDto.builder().commentId(3L).build();
-
-        Set<CacheCommentDto> comments = new LinkedHashSet<>(Set.of(firstCommentDto, secondCommentDto));
-        ArgumentCaptor<PostCacheDto> captor = ArgumentCaptor.forClass(PostCacheDto.class);
-
-        PostCacheDto postCacheDto = PostCacheDto.builder()
-                .commentsCount(2)
-                .comments(comments)
-                .build();
-
-        postCacheService.addCommentToPostCache(commentDtoToSave, postCacheDto);
-
-        verify(postCacheRepository).savePostCache(captor.capture());
+        when(postCommentsCacheRepository.pushComments(commentsByPostsIds, 2)).thenReturn(1);
 
-        PostCacheDto post = captor.getValue();
+        postCacheService.addCommentsToPostCache(commentsByPostsIds);
 
-        assertEquals(3, postCacheDto.getCommentsCount());
-        assertEquals(2, post.getComments().size());
+        verify(postCountersRepository).incrementCounters(PostCounter.COMMENTS, Map.of(1L, 2L));
+        verify(postCommentsCacheRepository).pushComments(commentsByPostsIds, 2);
+        verifyNoInteractions(postCacheRepository);
     }
 
     @Test
     void getPostCacheTest() {
         long postId = 1L;
-        PostCacheDto cacheDto = PostCacheDto.builder().build();
+        PostCacheDto cacheDto = PostCacheDto.builder().postId(postId).likesCount(1).build();
 
         when(postCacheRepository.getPostCache(postId)).thenReturn(cacheDto);
+        when(postCountersRepository.getCounters(List.of(postId)))
+                .thenReturn(Map.of(postId, Map.of(PostCounter.LIKES, 7L, PostCounter.VIEWS, 3L)));
 
         PostCacheDto result = postCacheService.getPostCache(postId);
 
         assertEquals(cacheDto, result);
+        assertEquals(7, result.getLikesCount());
+        assertEquals(3, result.getPostViewsCount());
+        assertEquals(0, result.getCommentsCount());
     }
 }
\ No newline at end of file
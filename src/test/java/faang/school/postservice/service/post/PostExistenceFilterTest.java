@@ -0,0 +1,157 @@
+package faang.school.postservice.service.post;
+
+import faang.school.postservice.event.post.PostCacheInvalidationEvent;
+import faang.school.postservice.publisher.redis.impl.PostCacheInvalidationPublisher;
+import faang.school.postservice.repository.PostRepository;
+import faang.school.postservice.repository.cache.PostNearCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostExistenceFilterTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private PostCacheInvalidationPublisher postCacheInvalidationPublisher;
+
+    @Mock
+    private PostNearCache postNearCache;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private PostExistenceFilter postExistenceFilter;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(postExistenceFilter, "minimumExpectedPosts", 1000L);
+        ReflectionTestUtils.setField(postExistenceFilter, "falsePositiveProbability", 0.001);
+        ReflectionTestUtils.setField(postExistenceFilter, "batchSize", 2);
+        ReflectionTestUtils.setField(postExistenceFilter, "lateCommitIdsWindow", 0L);
+        ReflectionTestUtils.setField(postExistenceFilter, "missingIdsMaximumSize", 100L);
+        ReflectionTestUtils.setField(postExistenceFilter, "missingIdsExpireAfterWriteSeconds", 60L);
+        ReflectionTestUtils.invokeMethod(postExistenceFilter, "initMissingPostsIds");
+    }
+
+    @Test
+    void mightExistBeforeIndexIsBuiltTest() {
+        when(postRepository.findMaxPostId()).thenReturn(10L);
+
+        postExistenceFilter.refresh();
+
+        verify(postRepository, never()).findBatchLivePostsIds(anyLong(), anyLong(), anyInt());
+        assertTrue(postExistenceFilter.mightExist(3L));
+    }
+
+    @Test
+    void refreshIndexesPostsObservedByPreviousRefreshTest() {
+        when(postRepository.findMaxPostId()).thenReturn(5L, 8L, 8L);
+        when(postRepository.findBatchLivePostsIds(0L, 5L, 2)).thenReturn(List.of(1L, 2L));
+        when(postRepository.findBatchLivePostsIds(2L, 5L, 2)).thenReturn(List.of(5L));
+        when(postRepository.findBatchLivePostsIds(5L, 8L, 2)).thenReturn(List.of(7L));
+
+        postExistenceFilter.refresh();
+        postExistenceFilter.refresh();
+
+        assertTrue(postExistenceFilter.mightExist(1L));
+        assertTrue(postExistenceFilter.mightExist(5L));
+        assertFalse(postExistenceFilter.mightExist(3L));
+        assertTrue(postExistenceFilter.mightExist(6L));
+        assertTrue(postExistenceFilter.mightExist(7L));
+
+        postExistenceFilter.refresh();
+
+        assertFalse(postExistenceFilter.mightExist(6L));
+        assertTrue(postExistenceFilter.mightExist(7L));
+        assertTrue(postExistenceFilter.mightExist(9L));
+        assertEquals(2.0, meterRegistry.counter("post.existence.lookups", "result", "filtered").count());
+    }
+
+    @Test
+    void refreshRescansLateCommitWindowTest() {
+        ReflectionTestUtils.setField(postExistenceFilter, "lateCommitIdsWindow", 2L);
+        when(postRepository.findMaxPostId()).thenReturn(5L, 8L, 8L);
+        when(postRepository.findBatchLivePostsIds(0L, 5L, 2)).thenReturn(List.of(1L, 5L));
+        when(postRepository.findBatchLivePostsIds(5L, 5L, 2)).thenReturn(List.of());
+        when(postRepository.findBatchLivePostsIds(3L, 8L, 2)).thenReturn(List.of(4L, 5L));
+        when(postRepository.findBatchLivePostsIds(5L, 8L, 2)).thenReturn(List.of(7L));
+
+        postExistenceFilter.refresh();
+        postExistenceFilter.refresh();
+
+        assertFalse(postExistenceFilter.mightExist(2L));
+        assertTrue(postExistenceFilter.mightExist(4L));
+
+        postExistenceFilter.refresh();
+
+        assertTrue(postExistenceFilter.mightExist(4L));
+        assertFalse(postExistenceFilter.mightExist(3L));
+        assertTrue(postExistenceFilter.mightExist(7L));
+    }
+
+    @Test
+    void markMissingAndCreatedTest() {
+        buildIndexUpTo(10L);
+
+        postExistenceFilter.markMissing(4L);
+
+        assertFalse(postExistenceFilter.mightExist(4L));
+
+        when(postNearCache.getInstanceId()).thenReturn("instance");
+        postExistenceFilter.markCreated(4L);
+
+        assertTrue(postExistenceFilter.mightExist(4L));
+        verify(postCacheInvalidationPublisher).publish(argThat((PostCacheInvalidationEvent event) ->
+                "instance".equals(event.getInstanceId()) && List.of(4L).equals(event.getPostsIds())));
+    }
+
+    @Test
+    void markMissingAboveWatermarkNotCachedTest() {
+        buildIndexUpTo(10L);
+
+        postExistenceFilter.markMissing(11L);
+
+        assertTrue(postExistenceFilter.mightExist(11L));
+    }
+
+    @Test
+    void forgetMissingTest() {
+        buildIndexUpTo(10L);
+        when(postRepository.findBatchLivePostsIds(0L, 10L, 2)).thenReturn(List.of(4L));
+        postExistenceFilter.rebuild();
+        postExistenceFilter.markMissing(4L);
+
+        postExistenceFilter.forgetMissing(List.of(4L));
+
+        assertTrue(postExistenceFilter.mightExist(4L));
+    }
+
+    private void buildIndexUpTo(long maxPostId) {
+        when(postRepository.findMaxPostId()).thenReturn(maxPostId);
+        postExistenceFilter.refresh();
+        postExistenceFilter.refresh();
+    }
+}
@@ -2,10 +2,12 @@ package faang.school.postservice.service.post;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import faang.school.postservice.client.UserServiceClient;
 import faang.school.postservice.config.async.ThreadPoolConfig;
 import faang.school.postservice.config.context.UserContext;
+import faang.school.postservice.dto.news_feed.FeedCursor;
+import faang.school.postservice.dto.post.PostAuthorKeyProjection;
 import faang.school.postservice.dto.post.PostDto;
+import faang.school.postservice.dto.post.PostKeyProjection;
 import faang.school.postservice.dto.post.PostRequestDto;
 import faang.school.postservice.exception.EntityNotFoundException;
 import faang.school.postservice.exception.PostException;
@@ -14,12 +16,16 @@ import faang.school.postservice.model.Like;
 import faang.school.postservice.model.Post;
 import faang.school.postservice.model.cache.PostCacheDto;
 import faang.school.postservice.publisher.kafka.KafkaCacheUserProducer;
-import faang.school.postservice.publisher.kafka.KafkaPostViewProducer;
 import faang.school.postservice.publisher.kafka.KafkaPublishPostProducer;
 import faang.school.postservice.publisher.redis.impl.RedisMessagePublisher;
 import faang.school.postservice.repository.PostRepository;
+import faang.school.postservice.repository.cache.AuthorTimelineRepository;
 import faang.school.postservice.service.hashtag.HashtagService;
+import faang.school.postservice.service.subscription.FollowGraphCache;
+import faang.school.postservice.util.DeltaVarintCodec;
 import faang.school.postservice.validator.post.PostValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -30,13 +36,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -53,10 +57,14 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -93,7 +101,7 @@ public class PostServiceTest {
     private ThreadPoolConfig threadPoolConfig;
 
     @Mock
-    private KafkaPostViewProducer kafkaPostViewProducer;
+    private PostViewAggregator postViewAggregator;
 
     @Mock
     private KafkaPublishPostProducer kafkaPublishPostProducer;
@@ -108,7 +116,16 @@ public class PostServiceTest {
     private UserContext userContext;
 
     @Mock
-    private UserServiceClient userServiceClient;
+    private FollowGraphCache followGraphCache;
+
+    @Mock
+    private PostExistenceFilter postExistenceFilter;
+
+    @Mock
+    private AuthorTimelineRepository authorTimelineRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     private static final int UNVERIFIED_POSTS_BAN_COUNT = 5;
 
@@ -116,6 +133,7 @@ public class PostServiceTest {
     void setUp() {
         ReflectionTestUtils.setField(postService, "batchSize", 10);
         ReflectionTestUtils.setField(postService, "postEventBatchSize", 10);
+        ReflectionTestUtils.setField(postService, "pullFollowersThreshold", 10);
     }
 
     @Test
@@ -140,12 +158,12 @@ public class PostServiceTest {
         doAnswer(invocation -> {
             latch.countDown();
             return folowersIds;
-        }).when(userServiceClient).getFollowersIds(post.getAuthorId());
+        }).when(followGraphCache).getFollowersIds(post.getAuthorId());
 
         doAnswer(invocation -> {
             latch.countDown();
-            return new PostCacheDto();
-        }).when(postMapper).toPostCacheDto(post);
+            return null;
+        }).when(kafkaPublishPostProducer).send(any());
 
         postService.publishPost(1L);
 
@@ -154,9 +172,9 @@ public class PostServiceTest {
 
         verify(postCacheService).savePostToCache(post);
         verify(threadPoolConfig).postTaskExecutor();
-        verify(userServiceClient).getFollowersIds(post.getAuthorId());
-        verify(postMapper).toPostCacheDto(post);
-        verify(kafkaPublishPostProducer).send(any());
+        verify(followGraphCache).getFollowersIds(post.getAuthorId());
+        verify(kafkaPublishPostProducer).send(argThat(event -> event.getPostId() == post.getId()
+                && Arrays.equals(new long[]{10L, 11L}, DeltaVarintCodec.decode(event.getFollowersIds()))));
         verify(kafkaCacheUserProducer).send(any());
         verify(postMapper).toDto(post);
 
@@ -165,6 +183,60 @@ public class PostServiceTest {
         assertTrue(createPost.isPublished());
     }
 
+    @Test
+    public void publishPostOfAuthorAboveFollowersThresholdTest() throws InterruptedException {
+        Post post = Post.builder()
+                .id(1L)
+                .authorId(1L)
+                .content("Hello world!")
+                .published(false)
+                .build();
+
+        ReflectionTestUtils.setField(postService, "pullFollowersThreshold", 1);
+        List<Long> folowersIds = new ArrayList<>(List.of(10L, 11L));
+        Executor executor = Executors.newCachedThreadPool();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(postRepository.save(any())).thenReturn(post);
+        when(userContext.getUserId()).thenReturn(1L);
+        when(threadPoolConfig.postTaskExecutor()).thenReturn(executor);
+        when(followGraphCache.getFollowersIds(post.getAuthorId())).thenReturn(folowersIds);
+
+        doAnswer(invocation -> {
+            latch.countDown();
+            return null;
+        }).when(authorTimelineRepository).addPullAuthor(post.getAuthorId());
+
+        postService.publishPost(1L);
+        latch.await();
+
+        verify(authorTimelineRepository).addPostToTimeline(any(PostCacheDto.class));
+        verify(authorTimelineRepository).addPullAuthor(post.getAuthorId());
+        verifyNoInteractions(kafkaPublishPostProducer);
+    }
+
+    @Test
+    public void refreshPullAuthorsMovesAuthorBelowThresholdToPushTest() {
+        ReflectionTestUtils.setField(postService, "pullFollowersThreshold", 1);
+        ReflectionTestUtils.setField(postService, "timelineSize", 5);
+        Post post = Post.builder().id(7L).authorId(2L).publishedAt(LocalDateTime.of(2024, 1, 3, 0, 0)).build();
+
+        when(authorTimelineRepository.getPullAuthorsIds()).thenReturn(new LinkedHashSet<>(List.of(1L, 2L)));
+        when(followGraphCache.getFollowersIds(1L)).thenReturn(List.of(10L, 11L));
+        when(followGraphCache.getFollowersIds(2L)).thenReturn(List.of(12L));
+        when(postRepository.findBatchNewestPostsKeysByAuthorsIds(any(Long[].class), eq(5)))
+                .thenReturn(List.of(postKey(7L, 2L, post.getPublishedAt())));
+        when(postRepository.findAllById(List.of(7L))).thenReturn(List.of(post));
+
+        postService.refreshPullAuthors();
+
+        verify(kafkaPublishPostProducer).send(argThat(event -> event.getPostId() == 7L
+                && Arrays.equals(new long[]{12L}, DeltaVarintCodec.decode(event.getFollowersIds()))));
+        verify(authorTimelineRepository).removePullAuthor(2L);
+        verify(authorTimelineRepository, never()).removePullAuthor(1L);
+    }
+
     @Test
     public void publishScheduledPostTest() throws InterruptedException {
         List<Long> folowersIds = new ArrayList<>(List.of(10L, 11L));
@@ -198,12 +270,12 @@ public class PostServiceTest {
         doAnswer(invocation -> {
             latch.countDown();
             return folowersIds;
-        }).when(userServiceClient).getFollowersIds(any());
+        }).when(followGraphCache).getFollowersIds(anyLong());
 
         doAnswer(invocation -> {
             latch.countDown();
-            return new PostCacheDto();
-        }).when(postMapper).toPostCacheDto(any());
+            return null;
+        }).when(kafkaPublishPostProducer).send(any());
 
         postService.publishScheduledPosts();
 
@@ -211,8 +283,7 @@ public class PostServiceTest {
 
         verify(kafkaCacheUserProducer, times(3)).send(any());
         verify(postCacheService, times(3)).savePostToCache(any(Post.class));
-        verify(userServiceClient, times(3)).getFollowersIds(any());
-        verify(postMapper, times(3)).toPostCacheDto(any(Post.class));
+        verify(followGraphCache, times(3)).getFollowersIds(anyLong());
         verify(kafkaPublishPostProducer, times(3)).send(any());
         verify(threadPoolConfig, times(4)).postTaskExecutor();
         verify(postRepository, times(1)).findReadyToPublish();
@@ -256,6 +327,7 @@ public class PostServiceTest {
         postService.createPost(postRequestDto);
 
         Post createPost = captor.getValue();
+        verify(postExistenceFilter).markCreated(post.getId());
 
         assertEquals(postRequestDto.getAuthorId(), createPost.getAuthorId());
         assertEquals(postRequestDto.getContent(), createPost.getContent());
@@ -299,6 +371,7 @@ public class PostServiceTest {
         Post deletePost = captor.getValue();
 
         assertTrue(deletePost.isDeleted());
+        verify(postExistenceFilter).markMissing(1L);
         assertEquals(post.getAuthorId(), deletePost.getAuthorId());
         assertEquals(post.getContent(), deletePost.getContent());
     }
@@ -313,7 +386,7 @@ public class PostServiceTest {
 
         PostDto postDto = postService.getPostById(1L);
 
-        verify(kafkaPostViewProducer).send(post.getId());
+        verify(postViewAggregator).addView(post.getId());
 
         assertEquals(post.getId(), postDto.getId());
         assertEquals(post.getAuthorId(), postDto.getAuthorId());
@@ -624,18 +697,32 @@ public class PostServiceTest {
     public void isPostExistsReturnTrueTest() {
         long postId = 1L;
 
-        when(postRepository.existsById(postId)).thenReturn(true);
+        when(postExistenceFilter.mightExist(postId)).thenReturn(true);
+        when(postRepository.existsByIdAndDeletedFalse(postId)).thenReturn(true);
 
         assertTrue(postService.isPostExists(postId));
+        verify(postExistenceFilter, never()).markMissing(anyLong());
     }
 
     @Test
     public void isPostExistsReturnFalseTest() {
         long postId = 1L;
 
-        when(postRepository.existsById(postId)).thenReturn(false);
+        when(postExistenceFilter.mightExist(postId)).thenReturn(true);
+        when(postRepository.existsByIdAndDeletedFalse(postId)).thenReturn(false);
 
         assertFalse(postService.isPostExists(postId));
+        verify(postExistenceFilter).markMissing(postId);
+    }
+
+    @Test
+    public void isPostExistsFilteredOutTest() {
+        long postId = 1L;
+
+        when(postExistenceFilter.mightExist(postId)).thenReturn(false);
+
+        assertFalse(postService.isPostExists(postId));
+        verifyNoInteractions(postRepository);
     }
 
     @Test
@@ -656,25 +743,63 @@ public class PostServiceTest {
     }
 
     @Test
-    public void getBatchNewestPostsPublishedAfterParticularPostTest() {
+    public void getBatchNewestPostsPublishedBeforeTest() {
         List<Long> followeesIds = new ArrayList<>(List.of(1L, 2L));
-        long particularPostId = 10L;
+        FeedCursor cursor = new FeedCursor(LocalDateTime.of(2024, 1, 10, 0, 0), 10L);
         int batchSize = 5;
 
+        List<PostAuthorKeyProjection> postsKeys = List.of(
+                postKey(1L, 1L, LocalDateTime.of(2024, 1, 2, 0, 0)),
+                postKey(2L, 2L, LocalDateTime.of(2024, 1, 3, 0, 0)));
         Post firstPost = Post.builder().id(1L).build();
         Post secondPost = Post.builder().id(2L).build();
 
-        List<Post> posts = new ArrayList<>(List.of(firstPost, secondPost));
-
-        when(postRepository.findBatchOrderedPostsAfterParticularPostIdInOrderByFolloweesIds(
-                followeesIds, particularPostId, batchSize)).thenReturn(posts);
+        when(postRepository.findBatchNewestPostsKeysByAuthorsIdsPublishedBefore(
+                any(Long[].class), eq(cursor.getPublishedAt()), eq(cursor.getPostId()), eq(batchSize)))
+                .thenReturn(postsKeys);
+        when(postRepository.findAllById(List.of(2L, 1L))).thenReturn(new ArrayList<>(List.of(firstPost, secondPost)));
 
         LinkedHashSet<PostCacheDto> result = postService.
-                getBatchNewestPostsPublishedAfterParticularPost(followeesIds, particularPostId, batchSize);
+                getBatchNewestPostsPublishedBefore(followeesIds, cursor, batchSize);
 
-        verify(postMapper).toPostCacheDtoList(posts);
+        verify(postMapper).toPostCacheDtoList(List.of(secondPost, firstPost));
 
-        assertEquals(2, result.size());
+        assertEquals(List.of(2L, 1L), result.stream().map(PostCacheDto::getPostId).toList());
+    }
+
+    @Test
+    public void getBatchNewestPostsPublishedBeforeWithoutFolloweesTest() {
+        FeedCursor cursor = new FeedCursor(LocalDateTime.of(2024, 1, 10, 0, 0), 10L);
+
+        LinkedHashSet<PostCacheDto> result = postService.getBatchNewestPostsPublishedBefore(List.of(), cursor, 5);
+
+        verifyNoInteractions(postRepository);
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void getBatchNewestPostsMergesAuthorsTimelinesTest() {
+        List<Long> followeesIds = List.of(1L, 2L);
+        int batchSize = 3;
+
+        List<PostAuthorKeyProjection> postsKeys = List.of(
+                postKey(11L, 1L, LocalDateTime.of(2024, 1, 5, 0, 0)),
+                postKey(10L, 1L, LocalDateTime.of(2024, 1, 1, 0, 0)),
+                postKey(21L, 2L, LocalDateTime.of(2024, 1, 4, 0, 0)),
+                postKey(20L, 2L, LocalDateTime.of(2024, 1, 3, 0, 0)));
+        List<Post> posts = new ArrayList<>(List.of(
+                Post.builder().id(20L).build(),
+                Post.builder().id(11L).build(),
+                Post.builder().id(21L).build()));
+
+        when(postRepository.findBatchNewestPostsKeysByAuthorsIds(
+                argThat(authorsIds -> Arrays.equals(authorsIds, new Long[]{1L, 2L})), eq(batchSize)))
+                .thenReturn(postsKeys);
+        when(postRepository.findAllById(List.of(11L, 21L, 20L))).thenReturn(posts);
+
+        LinkedHashSet<PostCacheDto> result = postService.getBatchNewestPosts(followeesIds, batchSize);
+
+        assertEquals(List.of(11L, 21L, 20L), result.stream().map(PostCacheDto::getPostId).toList());
     }
 
     @Test
@@ -685,7 +810,7 @@ public class PostServiceTest {
         PostCacheDto firstPost = PostCacheDto.builder().postId(1L).build();
         PostCacheDto secondPost = PostCacheDto.builder().postId(2L).build();
 
-        Set<PostCacheDto> posts = new LinkedHashSet<>(List.of(firstPost, secondPost));
+        LinkedHashSet<PostCacheDto> posts = new LinkedHashSet<>(List.of(firstPost, secondPost));
 
         when(postCacheService.getBatchPostsCaches(postIds, missedPostsIdsInCache)).thenReturn(posts);
 
@@ -698,25 +823,31 @@ public class PostServiceTest {
     }
 
     @Test
-    public void getAllPostsIdsPublishedNotLaterDaysAgoTest() {
-        long publishedDaysAgo = 10;
-        Page<Long> page = new PageImpl<>(List.of(1L, 2L));
-        Pageable pagable = mock(Pageable.class);
+    public void getBatchPublishedPostsKeysPublishedAfterFirstBatchTest() {
+        LocalDateTime publishedAfter = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<PostKeyProjection> keys = List.of(mock(PostKeyProjection.class));
+
+        when(postRepository.findBatchPublishedPostsKeysPublishedAfter(publishedAfter, 10)).thenReturn(keys);
 
-        when(postRepository.findAllPublishedNotDeletedPostsIdsPublishedNotLaterDaysAgo(
-                publishedDaysAgo, pagable)).thenReturn(page);
+        assertEquals(keys, postService.getBatchPublishedPostsKeysPublishedAfter(publishedAfter, null, 10));
+    }
 
-        Page<Long> result = postService.getAllPostsIdsPublishedNotLaterDaysAgo(publishedDaysAgo, pagable);
+    @Test
+    public void getBatchPublishedPostsKeysPublishedAfterCursorTest() {
+        LocalDateTime publishedAfter = LocalDateTime.of(2024, 1, 1, 0, 0);
+        FeedCursor cursor = new FeedCursor(LocalDateTime.of(2024, 1, 5, 0, 0), 7L);
+        List<PostKeyProjection> keys = List.of(mock(PostKeyProjection.class));
 
-        verify(postRepository).findAllPublishedNotDeletedPostsIdsPublishedNotLaterDaysAgo(publishedDaysAgo, pagable);
+        when(postRepository.findBatchPublishedPostsKeysPublishedAfterBefore(
+                publishedAfter, cursor.getPublishedAt(), 7L, 10)).thenReturn(keys);
 
-        assertEquals(page.getContent(), result.getContent());
+        assertEquals(keys, postService.getBatchPublishedPostsKeysPublishedAfter(publishedAfter, cursor, 10));
     }
 
     @Test
     public void getBatchPostsFromCacheMissedPostsIsNotEmptyTest() {
         List<Long> missedPostsIdsInCache = new ArrayList<>(List.of(2L));
-        List<Long> postIds = new ArrayList<>(List.of(1L));
+        List<Long> postIds = new ArrayList<>(List.of(2L, 1L));
 
         PostCacheDto firstPost = PostCacheDto.builder()
                 .postId(1L)
@@ -726,7 +857,7 @@ public class PostServiceTest {
                 .id(2L)
                 .build();
 
-        Set<PostCacheDto> postsFromCache = new LinkedHashSet<>(List.of(firstPost));
+        LinkedHashSet<PostCacheDto> postsFromCache = new LinkedHashSet<>(List.of(firstPost));
         List<Post> postsFromRepository = new ArrayList<>(List.of(secondPost));
         PostCacheDto secondPostCacheDto = PostCacheDto.builder().postId(2L).publishedAt(LocalDateTime.now()).build();
 
@@ -742,9 +873,7 @@ public class PostServiceTest {
 
         LinkedHashSet<PostCacheDto> result = postService.getBatchPostsFromCache(postIds);
 
-        assertEquals(2, result.size());
-        assertTrue(result.contains(firstPost));
-        assertTrue(result.contains(secondPostCacheDto));
+        assertEquals(List.of(secondPostCacheDto, firstPost), new ArrayList<>(result));
     }
 
     @Test
@@ -756,6 +885,7 @@ public class PostServiceTest {
                 .published(false)
                 .build();
 
+        when(postExistenceFilter.mightExist(postId)).thenReturn(true);
         when(postRepository.findById(postId)).thenReturn(Optional.ofNullable(post1));
 
         PostCacheDto result = postService.getPostCacheDto(postId);
@@ -765,4 +895,20 @@ public class PostServiceTest {
         assertNotNull(result);
         assertEquals(postId, result.getPostId());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getPostCacheDtoOfMissingPostTest() {
+        when(postExistenceFilter.mightExist(1L)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class, () -> postService.getPostCacheDto(1L));
+        verifyNoInteractions(postRepository);
+    }
+
+    private PostAuthorKeyProjection postKey(Long postId, Long authorId, LocalDateTime publishedAt) {
+        PostAuthorKeyProjection postKey = mock(PostAuthorKeyProjection.class);
+        lenient().when(postKey.getId()).thenReturn(postId);
+        lenient().when(postKey.getAuthorId()).thenReturn(authorId);
+        lenient().when(postKey.getPublishedAt()).thenReturn(publishedAt);
+        return postKey;
+    }
+}
@@ -0,0 +1,120 @@
+package faang.school.postservice.service.post;
+
+import faang.school.postservice.repository.PostViewCounterRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class PostViewAggregatorTest {
+
+    @Mock
+    private PostViewCounterRepository postViewCounterRepository;
+
+    @Mock
+    private PostCacheService postCacheService;
+
+    @InjectMocks
+    private PostViewAggregator postViewAggregator;
+
+    @Test
+    void flushCoalescedViewsTest() {
+        postViewAggregator.addView(1L);
+        postViewAggregator.addView(1L);
+        postViewAggregator.addView(2L);
+
+        postViewAggregator.flush();
+
+        verify(postViewCounterRepository).incrementPostViewCounters(Map.of(1L, 2L, 2L, 1L));
+        verify(postCacheService).addPostViewsToPostCache(Map.of(1L, 2L, 2L, 1L));
+    }
+
+    @Test
+    void flushWithoutViewsTest() {
+        postViewAggregator.addView(1L);
+        postViewAggregator.flush();
+
+        postViewAggregator.flush();
+
+        verify(postViewCounterRepository).incrementPostViewCounters(Map.of(1L, 1L));
+    }
+
+    @Test
+    void flushWithoutAnyViewsTest() {
+        postViewAggregator.flush();
+
+        verifyNoInteractions(postViewCounterRepository, postCacheService);
+    }
+
+    @Test
+    void flushRetriesViewsAfterFailureTest() {
+        postViewAggregator.addView(1L);
+        doThrow(new RuntimeException("db is down")).when(postViewCounterRepository)
+                .incrementPostViewCounters(Map.of(1L, 1L));
+
+        postViewAggregator.flush();
+        verify(postCacheService, never()).addPostViewsToPostCache(any());
+
+        postViewAggregator.addView(1L);
+        postViewAggregator.flush();
+
+        verify(postViewCounterRepository).incrementPostViewCounters(Map.of(1L, 2L));
+        verify(postCacheService).addPostViewsToPostCache(Map.of(1L, 2L));
+    }
+
+    @Test
+    void flushCountsViewsAddedAfterIdleEntryRemovedTest() {
+        postViewAggregator.addView(1L);
+        postViewAggregator.flush();
+        postViewAggregator.flush();
+
+        postViewAggregator.addView(1L);
+        postViewAggregator.flush();
+
+        verify(postViewCounterRepository, times(2)).incrementPostViewCounters(Map.of(1L, 1L));
+    }
+
+    @Test
+    void flushConcurrentlyWithAddViewLosesNoViewsTest() {
+        AtomicLong flushedViews = new AtomicLong();
+        doAnswer(invocation -> {
+            Map<Long, Long> deltas = invocation.getArgument(0);
+            deltas.values().forEach(flushedViews::addAndGet);
+            return null;
+        }).when(postViewCounterRepository).incrementPostViewCounters(anyMap());
+
+        List<CompletableFuture<Void>> viewers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            viewers.add(CompletableFuture.runAsync(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    postViewAggregator.addView(j % 3);
+                }
+            }));
+        }
+        CompletableFuture<Void> allViewers = CompletableFuture.allOf(viewers.toArray(new CompletableFuture[0]));
+        while (!allViewers.isDone()) {
+            postViewAggregator.flush();
+        }
+        postViewAggregator.flush();
+
+        assertEquals(40_000, flushedViews.get());
+    }
+}
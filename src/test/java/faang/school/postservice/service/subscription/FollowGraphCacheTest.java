@@ -0,0 +1,92 @@
+package faang.school.postservice.service.subscription;
+
+import faang.school.postservice.client.UserServiceClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FollowGraphCacheTest {
+
+    @Mock
+    private UserServiceClient userServiceClient;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private FollowGraphCache followGraphCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(followGraphCache, "maximumIds", 1000L);
+        ReflectionTestUtils.setField(followGraphCache, "expireAfterWriteMinutes", 10L);
+        ReflectionTestUtils.invokeMethod(followGraphCache, "initCaches");
+    }
+
+    @Test
+    void getFolloweesIdsLoadsOnceTest() {
+        long userId = 1L;
+        when(userServiceClient.getFolloweesIds(userId)).thenReturn(List.of(2L, 3L));
+
+        assertEquals(List.of(2L, 3L), followGraphCache.getFolloweesIds(userId));
+        assertEquals(List.of(2L, 3L), followGraphCache.getFolloweesIds(userId));
+
+        verify(userServiceClient, times(1)).getFolloweesIds(userId);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "followees").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void getFolloweesIdsByUsersIdsLoadsMissedInOneCallTest() {
+        when(userServiceClient.getFolloweesIds(1L)).thenReturn(List.of(5L));
+        when(userServiceClient.getFolloweesIdsByFollowersIds(List.of(2L))).thenReturn(Map.of(2L, List.of(6L, 7L)));
+        followGraphCache.getFolloweesIds(1L);
+
+        Map<Long, List<Long>> result = followGraphCache.getFolloweesIdsByUsersIds(List.of(1L, 2L));
+
+        assertEquals(Map.of(1L, List.of(5L), 2L, List.of(6L, 7L)), result);
+        assertEquals(List.of(6L, 7L), followGraphCache.getFolloweesIds(2L));
+        verify(userServiceClient).getFolloweesIds(1L);
+        verify(userServiceClient).getFolloweesIdsByFollowersIds(List.of(2L));
+        verifyNoMoreInteractions(userServiceClient);
+    }
+
+    @Test
+    void getFolloweesIdsByUsersIdsForUserWithoutFolloweesTest() {
+        when(userServiceClient.getFolloweesIdsByFollowersIds(List.of(1L))).thenReturn(Map.of());
+
+        assertEquals(Map.of(1L, List.of()), followGraphCache.getFolloweesIdsByUsersIds(List.of(1L)));
+    }
+
+    @Test
+    void invalidateSubscriptionTest() {
+        long followerId = 1L;
+        long followeeId = 2L;
+        when(userServiceClient.getFolloweesIds(followerId)).thenReturn(List.of(3L), List.of(3L, followeeId));
+        when(userServiceClient.getFollowersIds(followeeId)).thenReturn(List.of(4L), List.of(4L, followerId));
+        followGraphCache.getFolloweesIds(followerId);
+        followGraphCache.getFollowersIds(followeeId);
+
+        followGraphCache.invalidateSubscription(followerId, followeeId);
+
+        assertEquals(List.of(3L, followeeId), followGraphCache.getFolloweesIds(followerId));
+        assertEquals(List.of(4L, followerId), followGraphCache.getFollowersIds(followeeId));
+    }
+}
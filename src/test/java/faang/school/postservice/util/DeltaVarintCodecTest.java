@@ -0,0 +1,50 @@
+package faang.school.postservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeltaVarintCodecTest {
+
+    @Test
+    void encodeDecodeTest() {
+        long[] ids = {1L, 2L, 130L, 100_000L, Long.MAX_VALUE};
+
+        assertArrayEquals(ids, DeltaVarintCodec.decode(DeltaVarintCodec.encode(ids)));
+    }
+
+    @Test
+    void encodeDecodeEmptyTest() {
+        assertArrayEquals(new long[0], DeltaVarintCodec.decode(DeltaVarintCodec.encode(new long[0])));
+        assertArrayEquals(new long[0], DeltaVarintCodec.decode(null));
+    }
+
+    @Test
+    void encodeDenseIdsCompactlyTest() {
+        long[] ids = LongStream.range(1_000_000L, 1_001_000L).toArray();
+
+        byte[] encodedIds = DeltaVarintCodec.encode(ids);
+
+        assertTrue(encodedIds.length < 1010);
+        assertArrayEquals(ids, DeltaVarintCodec.decode(encodedIds));
+    }
+
+    @Test
+    void encodeUnsortedIdsTest() {
+        assertThrows(IllegalArgumentException.class, () -> DeltaVarintCodec.encode(new long[]{2L, 1L}));
+    }
+
+    @Test
+    void decodeMalformedPayloadTest() {
+        byte[] encodedIds = DeltaVarintCodec.encode(new long[]{1L, 300L});
+
+        assertEquals(4, encodedIds.length);
+        assertThrows(IllegalArgumentException.class,
+                () -> DeltaVarintCodec.decode(new byte[]{encodedIds[0], encodedIds[1], encodedIds[2]}));
+    }
+}
@@ -0,0 +1,42 @@
+package faang.school.postservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimelineMergerTest {
+
+    private static final Comparator<Integer> NEWEST_FIRST = Comparator.reverseOrder();
+
+    @Test
+    void mergeNewestTest() {
+        List<List<Integer>> timelines = List.of(
+                List.of(9, 4, 1),
+                List.of(8, 7, 2),
+                List.of(6, 5, 3));
+
+        assertEquals(List.of(9, 8, 7, 6, 5, 4, 3, 2, 1),
+                TimelineMerger.mergeNewest(timelines, NEWEST_FIRST, 20));
+    }
+
+    @Test
+    void mergeNewestLimitTest() {
+        List<List<Integer>> timelines = List.of(
+                List.of(10, 3),
+                List.of(9, 8, 7, 6));
+
+        assertEquals(List.of(10, 9, 8), TimelineMerger.mergeNewest(timelines, NEWEST_FIRST, 3));
+    }
+
+    @Test
+    void mergeNewestSkipsEmptyTimelinesTest() {
+        List<List<Integer>> timelines = List.of(List.of(), List.of(2, 1), List.of());
+
+        assertEquals(List.of(2, 1), TimelineMerger.mergeNewest(timelines, NEWEST_FIRST, 5));
+        assertTrue(TimelineMerger.mergeNewest(List.<List<Integer>>of(), NEWEST_FIRST, 5).isEmpty());
+    }
+}
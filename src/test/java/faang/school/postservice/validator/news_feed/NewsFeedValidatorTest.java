@@ -2,6 +2,7 @@ package faang.school.postservice.validator.news_feed;
 
 import faang.school.postservice.client.UserServiceClient;
 import faang.school.postservice.service.post.PostService;
+import faang.school.postservice.service.subscription.FollowGraphCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -23,6 +24,9 @@ class NewsFeedValidatorTest {
     @Mock
     private UserServiceClient userServiceClient;
 
+    @Mock
+    private FollowGraphCache followGraphCache;
+
     @InjectMocks
     private NewsFeedValidator newsFeedValidator;
 
@@ -73,7 +77,7 @@ class NewsFeedValidatorTest {
         Long postId = 100L;
         List<Long> followeeIds = List.of(2L, 3L, 4L);
 
-        when(userServiceClient.getFolloweesIds(userId)).thenReturn(followeeIds);
+        when(followGraphCache.getFolloweesIds(userId)).thenReturn(followeeIds);
         when(postService.isPostBelongUserFollowees(followeeIds, postId)).thenReturn(true);
 
         assertDoesNotThrow(() -> newsFeedValidator.isLastViewedPostShouldBeShownToUser(userId, postId));
@@ -85,7 +89,7 @@ class NewsFeedValidatorTest {
         Long postId = 100L;
         List<Long> followeeIds = List.of(2L, 3L, 4L);
 
-        when(userServiceClient.getFolloweesIds(userId)).thenReturn(followeeIds);
+        when(followGraphCache.getFolloweesIds(userId)).thenReturn(followeeIds);
         when(postService.isPostBelongUserFollowees(followeeIds, postId)).thenReturn(false);
 
         assertThrows(IllegalStateException.class,